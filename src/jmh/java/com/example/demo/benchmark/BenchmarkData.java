@@ -0,0 +1,127 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.DemoApplication;
+import com.example.demo.model.Product;
+import com.example.demo.model.Transaction;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Reproducible data for the benchmarks: every generator is driven by a fixed seed, so the same catalog and
+ * transaction history is produced on every run and across releases.
+ */
+final class BenchmarkData {
+
+    static final long SEED = 20240101L;
+    static final LocalDateTime HISTORY_END = LocalDateTime.of(2024, 1, 1, 0, 0);
+    static final int HISTORY_DAYS = 365;
+
+    private static final int BATCH_SIZE = 5_000;
+
+    private static final String[] BRANDS = {
+            "Indo", "Sari", "Maju", "Jaya", "Sumber", "Prima", "Mitra", "Nusantara", "Sinar", "Berkah",
+            "Abadi", "Mulia", "Sentosa", "Lestari", "Makmur", "Harapan"
+    };
+    private static final String[] ITEMS = {
+            "Kopi", "Teh", "Gula", "Beras", "Minyak Goreng", "Susu", "Tepung", "Mie Instan", "Sabun", "Sampo",
+            "Kecap", "Saus Sambal", "Biskuit", "Roti", "Air Mineral", "Telur", "Garam", "Deterjen", "Pasta Gigi", "Keju"
+    };
+    private static final String[] VARIANTS = {
+            "Original", "Premium", "Hemat", "Kemasan Besar", "Sachet", "Botol", "Refill", "Pedas", "Manis", "Super"
+    };
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Boots the application on a random port against the in-memory {@code bench} database.
+     */
+    static ConfigurableApplicationContext startApplication() {
+        return new SpringApplicationBuilder(DemoApplication.class)
+                .profiles("bench")
+                .run();
+    }
+
+    static String productName(Random random, int index) {
+        return BRANDS[random.nextInt(BRANDS.length)] + " " + ITEMS[random.nextInt(ITEMS.length)] + " "
+                + VARIANTS[random.nextInt(VARIANTS.length)] + " " + index;
+    }
+
+    /**
+     * Inserts products with ids {@code 1..count} and moves the id sequence past them.
+     */
+    static void insertProducts(JdbcTemplate jdbcTemplate, int count, int stock) {
+        Random random = new Random(SEED);
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int id = 1; id <= count; id++) {
+            batch.add(new Object[]{(long) id, productName(random, id), 1_000 + random.nextInt(200) * 500, stock});
+            if (batch.size() == BATCH_SIZE) {
+                jdbcTemplate.batchUpdate("INSERT INTO products (id, name, price, stock) VALUES (?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO products (id, name, price, stock) VALUES (?, ?, ?, ?)", batch);
+        }
+        jdbcTemplate.execute("ALTER SEQUENCE products_seq RESTART WITH " + (count + 100));
+    }
+
+    /**
+     * Inserts {@code count} transactions spread over the {@value #HISTORY_DAYS} days before {@link #HISTORY_END},
+     * roughly 80% sales and 20% purchases, against products {@code 1..productCount}.
+     */
+    static void insertTransactions(JdbcTemplate jdbcTemplate, int productCount, int count) {
+        Random random = new Random(SEED + 1);
+        long historySeconds = HISTORY_DAYS * 24L * 3600L;
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int id = 1; id <= count; id++) {
+            int quantity = 1 + random.nextInt(5);
+            int unitPrice = 1_000 + random.nextInt(200) * 500;
+            LocalDateTime createdAt = HISTORY_END.minusSeconds((long) (random.nextDouble() * historySeconds));
+            batch.add(new Object[]{(long) id, 1L + random.nextInt(productCount), quantity,
+                    BigDecimal.valueOf((long) unitPrice * quantity), random.nextInt(5) == 0 ? "PURCHASE" : "SALE",
+                    Timestamp.valueOf(createdAt), null});
+            if (batch.size() == BATCH_SIZE) {
+                insertTransactionBatch(jdbcTemplate, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            insertTransactionBatch(jdbcTemplate, batch);
+        }
+        jdbcTemplate.execute("ALTER SEQUENCE transactions_seq RESTART WITH " + (count + 100));
+    }
+
+    /**
+     * Detached transactions (no database) for serialization benchmarks.
+     */
+    static List<Transaction> transactions(int count) {
+        Random random = new Random(SEED + 2);
+        List<Transaction> transactions = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Product product = new Product(productName(random, i), 1_000 + random.nextInt(200) * 500, random.nextInt(500));
+            product.setId((long) i);
+            int quantity = 1 + random.nextInt(5);
+            Transaction transaction = new Transaction(product, quantity,
+                    BigDecimal.valueOf((long) product.getPrice() * quantity), i % 5 == 0 ? "PURCHASE" : "SALE",
+                    "Benchmark transaction " + i);
+            transaction.setId((long) i);
+            transaction.setCreatedAt(HISTORY_END.minusMinutes(i));
+            transactions.add(transaction);
+        }
+        return transactions;
+    }
+
+    private static void insertTransactionBatch(JdbcTemplate jdbcTemplate, List<Object[]> batch) {
+        jdbcTemplate.batchUpdate("INSERT INTO transactions (id, product_id, quantity, total_price, transaction_type, "
+                + "created_at, description) VALUES (?, ?, ?, ?, ?, ?, ?)", batch);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.dto.TransactionResponse;
+import com.example.demo.model.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of transaction lists, both the entity graph and the {@link TransactionResponse} DTOs
+ * the API returns.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JsonBenchmark {
+
+    @Param({"50", "500"})
+    public int size;
+
+    private JsonMapper jsonMapper;
+    private List<Transaction> transactions;
+    private List<TransactionResponse> responses;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jsonMapper = JsonMapper.builder().build();
+        transactions = BenchmarkData.transactions(size);
+        responses = transactions.stream().map(TransactionResponse::from).toList();
+    }
+
+    @Benchmark
+    public byte[] serializeEntities() {
+        return jsonMapper.writeValueAsBytes(transactions);
+    }
+
+    @Benchmark
+    public byte[] serializeResponses() {
+        return jsonMapper.writeValueAsBytes(responses);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.TransactionColumns;
+import com.example.demo.dto.TransactionResponse;
+import com.example.demo.model.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Payload size and serialization cost of one transaction page in each representation the API offers: the default
+ * JSON rows, the columnar JSON ({@value TransactionColumns#MEDIA_TYPE}) and columnar CBOR, each with and without
+ * gzip. Times include building the columns from the rows, as the response advice does. The encoded sizes are
+ * printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PayloadBenchmark {
+
+    private static final int PRODUCTS = 200;
+
+    @Param({"500", "10000"})
+    public int size;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    private JsonMapper jsonMapper;
+    private CBORMapper cborMapper;
+    private CursorPage<TransactionResponse> page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jsonMapper = JsonMapper.builder().build();
+        cborMapper = CBORMapper.builder().build();
+        // products repeat across rows, as they do in a day's transactions
+        List<Transaction> transactions = BenchmarkData.transactions(size);
+        for (int i = PRODUCTS; i < transactions.size(); i++) {
+            transactions.get(i).setProduct(transactions.get(i % PRODUCTS).getProduct());
+        }
+        page = new CursorPage<>(transactions.stream().map(TransactionResponse::from).toList(), "next");
+        System.out.printf(Locale.ROOT, "%n%d rows, gzip=%s: json %d B, columns %d B, columns-cbor %d B%n", size, gzip,
+                jsonRows().length, jsonColumns().length, cborColumns().length);
+    }
+
+    @Benchmark
+    public byte[] jsonRows() {
+        return write(jsonMapper, page);
+    }
+
+    @Benchmark
+    public byte[] jsonColumns() {
+        return write(jsonMapper, TransactionColumns.of(page));
+    }
+
+    @Benchmark
+    public byte[] cborColumns() {
+        return write(cborMapper, TransactionColumns.of(page));
+    }
+
+    private byte[] write(ObjectMapper mapper, Object value) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(size * 64);
+        try (OutputStream out = gzip ? new GZIPOutputStream(bytes, 8192) : bytes) {
+            mapper.writeValue(out, value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.model.Transaction;
+import com.example.demo.service.ProductCache;
+import com.example.demo.service.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TransactionService#createSale} end to end (stock decrement, transaction insert, totals and rollups):
+ * one thread, eight threads spread over the catalog, and eight threads all selling the same product.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class SaleBenchmark {
+
+    private static final long HOT_PRODUCT_ID = 1L;
+
+    @Param({"1000"})
+    public int catalogSize;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+
+    @State(Scope.Thread)
+    public static class ThreadRandom {
+        private SplittableRandom random;
+
+        @Setup(Level.Trial)
+        public void setUp(ThreadParams threadParams) {
+            random = new SplittableRandom(BenchmarkData.SEED + threadParams.getThreadIndex());
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.startApplication();
+        BenchmarkData.insertProducts(context.getBean(JdbcTemplate.class), catalogSize, Integer.MAX_VALUE / 2);
+        context.getBean(ProductCache.class).clear();
+        transactionService = context.getBean(TransactionService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Transaction saleSingleThreaded(ThreadRandom state) {
+        return transactionService.createSale(1L + state.random.nextInt(catalogSize), 1, null);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Transaction saleSpreadAcrossCatalog(ThreadRandom state) {
+        return transactionService.createSale(1L + state.random.nextInt(catalogSize), 1, null);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Transaction saleContendedHotProduct() {
+        return transactionService.createSale(HOT_PRODUCT_ID, 1, null);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.model.Product;
+import com.example.demo.service.ProductSearchIndex;
+import com.example.demo.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ProductService#searchProductsByName} over generated catalogs, for prefix, infix and misspelled queries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+public class SearchBenchmark {
+
+    private static final String[] PREFIX_QUERIES = {"kop", "sari teh", "minyak", "indo mie", "sus"};
+    private static final String[] INFIX_QUERIES = {"goreng", "sambal", "mineral", "kemasan", "instan"};
+    private static final String[] FUZZY_QUERIES = {"kopu", "biskiut", "deterjn", "sampoo", "tepong"};
+
+    @Param({"1000", "100000"})
+    public int catalogSize;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.startApplication();
+        BenchmarkData.insertProducts(context.getBean(JdbcTemplate.class), catalogSize, 100);
+        context.getBean(ProductSearchIndex.class).rebuild();
+        productService = context.getBean(ProductService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Product> searchPrefix() {
+        return productService.searchProductsByName(next(PREFIX_QUERIES), 20, true);
+    }
+
+    @Benchmark
+    public List<Product> searchInfix() {
+        return productService.searchProductsByName(next(INFIX_QUERIES), 20, true);
+    }
+
+    @Benchmark
+    public List<Product> searchFuzzy() {
+        return productService.searchProductsByName(next(FUZZY_QUERIES), 20, true);
+    }
+
+    private String next(String[] queries) {
+        next = (next + 1) % queries.length;
+        return queries[next];
+    }
+}
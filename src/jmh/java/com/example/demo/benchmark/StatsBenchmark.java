@@ -0,0 +1,97 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.dto.DashboardStats;
+import com.example.demo.repository.TransactionRepository;
+import com.example.demo.service.DashboardService;
+import com.example.demo.service.TransactionService;
+import com.example.demo.service.TransactionTotalsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregate statistics over a generated transaction history: the running-totals reads the API serves, next to
+ * the full-table SUM they replaced as a baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+public class StatsBenchmark {
+
+    private static final int PRODUCTS = 1_000;
+
+    @Param({"1000000"})
+    public int transactionCount;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private TransactionRepository transactionRepository;
+    private DashboardService dashboardService;
+    private JdbcTemplate jdbcTemplate;
+    private long scans;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.startApplication();
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        BenchmarkData.insertProducts(jdbcTemplate, PRODUCTS, 100);
+        BenchmarkData.insertTransactions(jdbcTemplate, PRODUCTS, transactionCount);
+        context.getBean(TransactionTotalsService.class).rebuild();
+        transactionService = context.getBean(TransactionService.class);
+        transactionRepository = context.getBean(TransactionRepository.class);
+        dashboardService = context.getBean(DashboardService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BigDecimal totalSales() {
+        return transactionService.getTotalSales();
+    }
+
+    @Benchmark
+    public BigDecimal netRevenue() {
+        return transactionService.getNetRevenue();
+    }
+
+    @Benchmark
+    public long saleCount() {
+        return transactionService.getTransactionCountByType("SALE");
+    }
+
+    @Benchmark
+    public DashboardStats dashboardStats() {
+        return dashboardService.getDashboardStats(DashboardService.DEFAULT_LOW_STOCK_THRESHOLD);
+    }
+
+    /**
+     * H2 hands back the previous result of an identical query while no table has changed, so each call first
+     * touches one row to force a real scan.
+     */
+    @Benchmark
+    public BigDecimal totalSalesFullScan() {
+        jdbcTemplate.update("UPDATE transactions SET description = ? WHERE id = 1", "scan " + ++scans);
+        return transactionRepository.sumTotalSales();
+    }
+}
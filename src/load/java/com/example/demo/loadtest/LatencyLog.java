@@ -0,0 +1,113 @@
+package com.example.demo.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-endpoint request outcomes and latencies. Each till records into its own log without synchronization; the
+ * logs are merged once the run is over and every latency is kept, so the high percentiles are exact.
+ */
+final class LatencyLog {
+
+    enum Outcome {
+        /** 2xx response. */
+        OK,
+        /** Expected refusal, e.g. a sale rejected for insufficient stock. */
+        REJECTED,
+        /** 503 from the server's concurrency limiter (load shedding). */
+        SHED,
+        /** Unexpected status, timeout or I/O failure. */
+        ERROR
+    }
+
+    private final Map<String, Series> series = new TreeMap<>();
+
+    void record(String endpoint, Outcome outcome, long latencyMicros) {
+        series.computeIfAbsent(endpoint, key -> new Series()).add(outcome, latencyMicros);
+    }
+
+    void mergeInto(LatencyLog total) {
+        series.forEach((endpoint, own) -> total.series.computeIfAbsent(endpoint, key -> new Series()).addAll(own));
+    }
+
+    /**
+     * Summary per endpoint plus an {@code all} row, with latencies in milliseconds.
+     */
+    Map<String, Map<String, Object>> summarize(double seconds) {
+        Map<String, Map<String, Object>> summary = new LinkedHashMap<>();
+        Series all = new Series();
+        series.forEach((endpoint, values) -> {
+            summary.put(endpoint, values.summarize(seconds));
+            all.addAll(values);
+        });
+        summary.put("all", all.summarize(seconds));
+        return summary;
+    }
+
+    private static final class Series {
+        private long[] latencies = new long[1024];
+        private int size;
+        private long ok;
+        private long rejected;
+        private long shed;
+        private long errors;
+
+        void add(Outcome outcome, long latencyMicros) {
+            switch (outcome) {
+                case OK -> ok++;
+                case REJECTED -> rejected++;
+                case SHED -> shed++;
+                case ERROR -> errors++;
+            }
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latencyMicros;
+        }
+
+        void addAll(Series other) {
+            ok += other.ok;
+            rejected += other.rejected;
+            shed += other.shed;
+            errors += other.errors;
+            if (size + other.size > latencies.length) {
+                latencies = Arrays.copyOf(latencies, Math.max(latencies.length * 2, size + other.size));
+            }
+            System.arraycopy(other.latencies, 0, latencies, size, other.size);
+            size += other.size;
+        }
+
+        Map<String, Object> summarize(double seconds) {
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("requests", (long) size);
+            row.put("throughputPerSecond", round(size / seconds));
+            row.put("ok", ok);
+            row.put("rejected", rejected);
+            row.put("shed", shed);
+            row.put("errors", errors);
+            row.put("errorRate", size == 0 ? 0.0 : round((double) errors / size));
+            row.put("p50Ms", percentile(sorted, 0.50));
+            row.put("p90Ms", percentile(sorted, 0.90));
+            row.put("p99Ms", percentile(sorted, 0.99));
+            row.put("p999Ms", percentile(sorted, 0.999));
+            row.put("maxMs", sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1000.0);
+            return row;
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0.0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1000.0;
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 1000) / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package com.example.demo.loadtest;
+
+import com.example.demo.DemoApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Replays till traffic against the REST API and reports throughput, latency percentiles, error rates and
+ * whether any product was sold below zero stock or its final stock disagrees with the sales the tills saw
+ * confirmed (allowing for sales whose response was lost to a timeout).
+ *
+ * <p>Without {@code --base-url} the application is booted in-process under the {@code loadtest} profile
+ * (embedded H2). Each till is a platform thread that picks a request by weight, picks products from a Zipf
+ * distribution so a few SKUs take most of the traffic, and waits an exponentially distributed think time that
+ * shrinks during periodic bursts. Requests during the warmup are sent but not recorded.
+ *
+ * <p>Exits with status 1 when an oversell is detected.
+ */
+public final class LoadTest {
+
+    private static final String[] BRANDS = {"Indo", "Sari", "Maju", "Jaya", "Sumber", "Prima", "Mitra", "Sinar"};
+    private static final String[] ITEMS = {
+            "Kopi", "Teh", "Gula", "Beras", "Minyak Goreng", "Susu", "Tepung", "Mie Instan", "Sabun", "Sampo",
+            "Kecap", "Saus Sambal", "Biskuit", "Roti", "Air Mineral", "Telur"
+    };
+    private static final String[] VARIANTS = {"Original", "Premium", "Hemat", "Sachet", "Botol", "Refill"};
+
+    private final LoadTestOptions options;
+    private final String baseUrl;
+    private final TillClient client;
+    private final ZipfSampler products;
+    private final AtomicLongArray sold;
+    /** Units in sales whose outcome the client never saw (timeouts, I/O errors); they may or may not have committed. */
+    private final AtomicLongArray unconfirmed;
+    /** Highest provisional id handed out in write-behind mode; the journal writer stores sales in id order. */
+    private final AtomicLong lastProvisionalId = new AtomicLong();
+    private long[] productIds;
+    private String[] searchTerms;
+
+    private LoadTest(LoadTestOptions options, String baseUrl) throws Exception {
+        this.options = options;
+        this.baseUrl = baseUrl;
+        this.client = new TillClient(baseUrl, options.username, options.password, true);
+        this.products = new ZipfSampler(options.products, options.skew);
+        this.sold = new AtomicLongArray(options.products);
+        this.unconfirmed = new AtomicLongArray(options.products);
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ConfigurableApplicationContext context = null;
+        String baseUrl = options.baseUrl;
+        if (baseUrl == null) {
+            context = new SpringApplicationBuilder(DemoApplication.class).profiles(options.profiles.split(",")).run();
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            boolean virtual = context.getEnvironment().getProperty("spring.threads.virtual.enabled", Boolean.class, false)
+                    && Runtime.version().feature() >= 21;
+            System.out.printf(Locale.ROOT, "Application started on Java %d, requests on %s threads%n",
+                    Runtime.version().feature(), virtual ? "virtual" : "platform");
+        }
+
+        int status;
+        try {
+            status = new LoadTest(options, baseUrl).run();
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+        System.exit(status);
+    }
+
+    private int run() throws Exception {
+        seedCatalog();
+        System.out.printf(Locale.ROOT, "Seeded %d products; the 10 hottest take %.1f%% of product picks%n",
+                options.products, products.share(10) * 100);
+        System.out.printf(Locale.ROOT, "Running %d tills for %ds after %ds warmup%n",
+                options.tills, options.duration.toSeconds(), options.warmup.toSeconds());
+
+        List<TillClient> tillClients = new ArrayList<>();
+        for (int i = 0; i < options.tills; i++) {
+            tillClients.add(new TillClient(baseUrl, options.username, options.password, options.tokenLogin()));
+        }
+
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup.toNanos();
+        long end = measureFrom + options.duration.toNanos();
+
+        List<Thread> threads = new ArrayList<>();
+        List<LatencyLog> logs = new ArrayList<>();
+        for (int i = 0; i < options.tills; i++) {
+            LatencyLog log = new LatencyLog();
+            logs.add(log);
+            long delayMillis = options.rampUp.toMillis() * i / Math.max(options.tills, 1);
+            Thread thread = new Thread(new Till(tillClients.get(i), new SplittableRandom(options.seed + i), log, start, measureFrom, end,
+                    delayMillis), "till-" + i);
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        LatencyLog total = new LatencyLog();
+        logs.forEach(log -> log.mergeInto(total));
+        Map<String, Map<String, Object>> endpoints = total.summarize(options.duration.toMillis() / 1000.0);
+        awaitWriteBehind();
+        Map<String, Object> stock = verifyStock();
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("options", describeOptions());
+        report.put("endpoints", endpoints);
+        report.put("stock", stock);
+        print(endpoints, stock);
+        writeReport(report);
+
+        return (Long) stock.get("oversoldProducts") > 0 ? 1 : 0;
+    }
+
+    private final class Till implements Runnable {
+        private final TillClient client;
+        private final SplittableRandom random;
+        private final LatencyLog log;
+        private final long start;
+        private final long measureFrom;
+        private final long end;
+        private final long delayMillis;
+
+        Till(TillClient client, SplittableRandom random, LatencyLog log, long start, long measureFrom, long end,
+             long delayMillis) {
+            this.client = client;
+            this.random = random;
+            this.log = log;
+            this.start = start;
+            this.measureFrom = measureFrom;
+            this.end = end;
+            this.delayMillis = delayMillis;
+        }
+
+        @Override
+        public void run() {
+            try {
+                Thread.sleep(delayMillis);
+                while (System.nanoTime() < end) {
+                    step();
+                    think(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void step() throws InterruptedException {
+            int pick = random.nextInt(options.saleWeight + options.searchWeight + options.availabilityWeight + options.dashboardWeight);
+            String endpoint;
+            if (pick < options.saleWeight) {
+                endpoint = "sale";
+            } else if (pick < options.saleWeight + options.searchWeight) {
+                endpoint = "search";
+            } else if (pick < options.saleWeight + options.searchWeight + options.availabilityWeight) {
+                endpoint = "check-availability";
+            } else {
+                endpoint = random.nextBoolean() ? "dashboard-stats" : "net-revenue";
+            }
+
+            long sentAt = System.nanoTime();
+            LatencyLog.Outcome outcome;
+            try {
+                outcome = execute(endpoint);
+            } catch (IOException | RuntimeException e) {
+                outcome = LatencyLog.Outcome.ERROR;
+            }
+            if (sentAt >= measureFrom) {
+                log.record(endpoint, outcome, (System.nanoTime() - sentAt) / 1_000);
+            }
+        }
+
+        private LatencyLog.Outcome execute(String endpoint) throws IOException, InterruptedException {
+            switch (endpoint) {
+                case "sale" -> {
+                    int product = products.next(random);
+                    int quantity = 1 + random.nextInt(options.maxSaleQuantity);
+                    int status;
+                    try {
+                        status = client.sale(productIds[product], quantity);
+                    } catch (IOException e) {
+                        unconfirmed.addAndGet(product, quantity);
+                        throw e;
+                    }
+                    if (status == 201 || status == 202) {
+                        sold.addAndGet(product, quantity);
+                        if (status == 202) {
+                            lastProvisionalId.accumulateAndGet(client.lastProvisionalId(), Math::max);
+                        }
+                        return LatencyLog.Outcome.OK;
+                    }
+                    // every generated sale is well-formed, so a 400 means the product ran out of stock
+                    return status == 400 ? LatencyLog.Outcome.REJECTED : outcome(status);
+                }
+                case "search" -> {
+                    return outcome(client.search(searchTerms[random.nextInt(searchTerms.length)]));
+                }
+                case "check-availability" -> {
+                    long productId = productIds[products.next(random)];
+                    return outcome(client.checkAvailability(productId, 1 + random.nextInt(options.maxSaleQuantity)));
+                }
+                case "dashboard-stats" -> {
+                    return outcome(client.dashboardStats());
+                }
+                default -> {
+                    return outcome(client.netRevenue());
+                }
+            }
+        }
+
+        private void think(long elapsedMillis) throws InterruptedException {
+            double meanMillis = options.thinkTime.toMillis();
+            if (options.inBurst(elapsedMillis)) {
+                meanMillis /= options.burstFactor;
+            }
+            if (meanMillis > 0) {
+                Thread.sleep((long) (-Math.log(1 - random.nextDouble()) * meanMillis));
+            }
+        }
+    }
+
+    private static LatencyLog.Outcome outcome(int status) {
+        if (status >= 200 && status < 300) {
+            return LatencyLog.Outcome.OK;
+        }
+        return status == 503 ? LatencyLog.Outcome.SHED : LatencyLog.Outcome.ERROR;
+    }
+
+    private void seedCatalog() throws Exception {
+        Random random = new Random(options.seed);
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        productIds = new long[options.products];
+        Set<String> terms = new LinkedHashSet<>();
+        for (int i = 0; i < options.products; i++) {
+            String brand = BRANDS[random.nextInt(BRANDS.length)];
+            String item = ITEMS[random.nextInt(ITEMS.length)];
+            String name = brand + " " + item + " " + VARIANTS[random.nextInt(VARIANTS.length)] + " " + run + "-" + i;
+            productIds[i] = client.createProduct(name, 1_000 + random.nextInt(200) * 500, options.initialStock);
+            String word = item.split(" ")[0].toLowerCase(Locale.ROOT);
+            terms.add(word.substring(0, Math.min(word.length(), 3 + random.nextInt(3))));
+            terms.add((brand + " " + item).toLowerCase(Locale.ROOT));
+            if (word.length() > 3) {
+                terms.add(word.substring(0, 1) + word.charAt(2) + word.charAt(1) + word.substring(3));
+            }
+        }
+        searchTerms = terms.toArray(new String[0]);
+    }
+
+    /**
+     * In write-behind mode stock is only final once the journal writer has stored the last accepted sale.
+     */
+    private void awaitWriteBehind() throws Exception {
+        long last = lastProvisionalId.get();
+        if (last == 0) {
+            return;
+        }
+        long deadline = System.nanoTime() + Duration.ofSeconds(60).toNanos();
+        while (client.provisionalStatus(last).equals("PENDING")) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Write-behind sales still pending after 60s");
+            }
+            Thread.sleep(100);
+        }
+    }
+
+    private Map<String, Object> verifyStock() throws Exception {
+        long oversold = 0;
+        long mismatched = 0;
+        long soldOut = 0;
+        long unitsSold = 0;
+        long unitsUnconfirmed = 0;
+        List<Map<String, Object>> mismatches = new ArrayList<>();
+        for (int i = 0; i < productIds.length; i++) {
+            int stock = client.stockOf(productIds[i]);
+            long expected = options.initialStock - sold.get(i);
+            unitsSold += sold.get(i);
+            unitsUnconfirmed += unconfirmed.get(i);
+            if (stock < 0 || expected < 0) {
+                oversold++;
+            }
+            if (stock > expected || stock < expected - unconfirmed.get(i)) {
+                mismatched++;
+                if (mismatches.size() < 10) {
+                    mismatches.add(Map.of("productId", productIds[i], "expectedStock", expected, "actualStock", stock));
+                }
+            }
+            if (stock == 0) {
+                soldOut++;
+            }
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("unitsSold", unitsSold);
+        result.put("unitsUnconfirmed", unitsUnconfirmed);
+        result.put("soldOutProducts", soldOut);
+        result.put("oversoldProducts", oversold);
+        result.put("mismatchedProducts", mismatched);
+        result.put("mismatchExamples", mismatches);
+        return result;
+    }
+
+    private Map<String, Object> describeOptions() {
+        Map<String, Object> described = new LinkedHashMap<>();
+        described.put("target", options.baseUrl != null ? options.baseUrl : "in-process, profiles " + options.profiles);
+        described.put("clientJava", Runtime.version().feature());
+        described.put("tills", options.tills);
+        described.put("auth", options.auth);
+        described.put("durationSeconds", options.duration.toSeconds());
+        described.put("warmupSeconds", options.warmup.toSeconds());
+        described.put("thinkTimeMs", options.thinkTime.toMillis());
+        described.put("products", options.products);
+        described.put("initialStock", options.initialStock);
+        described.put("skew", options.skew);
+        described.put("mix", Map.of("sale", options.saleWeight, "search", options.searchWeight,
+                "checkAvailability", options.availabilityWeight, "dashboard", options.dashboardWeight));
+        described.put("burst", Map.of("everySeconds", options.burstEvery.toSeconds(),
+                "lengthSeconds", options.burstLength.toSeconds(), "factor", options.burstFactor));
+        described.put("seed", options.seed);
+        return described;
+    }
+
+    private static void print(Map<String, Map<String, Object>> endpoints, Map<String, Object> stock) {
+        System.out.printf(Locale.ROOT, "%n%-20s %9s %9s %8s %8s %8s %8s %9s %9s %9s %9s%n", "endpoint", "requests", "req/s",
+                "rejected", "shed", "errors", "err%", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        endpoints.forEach((endpoint, row) -> System.out.printf(Locale.ROOT,
+                "%-20s %9d %9.1f %8d %8d %8d %8.2f %9.2f %9.2f %9.2f %9.2f%n", endpoint, row.get("requests"),
+                row.get("throughputPerSecond"), row.get("rejected"), row.get("shed"), row.get("errors"),
+                (Double) row.get("errorRate") * 100,
+                row.get("p50Ms"), row.get("p99Ms"), row.get("p999Ms"), row.get("maxMs")));
+        System.out.printf(Locale.ROOT, "%nUnits sold: %d (+%d unconfirmed), sold-out products: %d, oversold products: %d, "
+                        + "stock mismatches: %d%n", stock.get("unitsSold"), stock.get("unitsUnconfirmed"), stock.get("soldOutProducts"),
+                stock.get("oversoldProducts"), stock.get("mismatchedProducts"));
+    }
+
+    private void writeReport(Map<String, Object> report) {
+        File file = new File(options.report);
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        JsonMapper.builder().enable(SerializationFeature.INDENT_OUTPUT).build().writeValue(file, report);
+        System.out.println("Report written to " + file.getPath());
+    }
+}
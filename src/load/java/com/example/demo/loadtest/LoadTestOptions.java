@@ -0,0 +1,135 @@
+package com.example.demo.loadtest;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Load test settings, given as {@code --name=value} arguments. Durations accept {@code 90s}, {@code 5m} or
+ * plain seconds.
+ */
+final class LoadTestOptions {
+
+    /** Target an already running application instead of booting one in-process with the embedded H2 profile. */
+    String baseUrl;
+    /** Profiles for the in-process application, e.g. {@code loadtest,vthreads} to serve requests on virtual threads. */
+    String profiles = "loadtest";
+    String username = "admin";
+    String password = "admin123";
+    /** {@code token}: each till logs in once and sends a bearer token; {@code basic}: credentials on every request. */
+    String auth = "token";
+
+    /** Concurrent tills; each till is one client thread issuing requests back to back with think time. */
+    int tills = 50;
+    Duration duration = Duration.ofSeconds(60);
+    Duration warmup = Duration.ofSeconds(10);
+    Duration rampUp = Duration.ofSeconds(5);
+    Duration thinkTime = Duration.ofMillis(100);
+
+    int products = 1_000;
+    int initialStock = 200;
+    int maxSaleQuantity = 3;
+    /** Zipf exponent for picking products; 0 is uniform, around 1 gives a few very hot SKUs. */
+    double skew = 1.1;
+
+    /** Relative weights of the request types. */
+    int saleWeight = 60;
+    int searchWeight = 20;
+    int availabilityWeight = 15;
+    int dashboardWeight = 5;
+
+    /** Every {@code burstEvery}, think time shrinks by {@code burstFactor} for {@code burstLength}. */
+    Duration burstEvery = Duration.ofSeconds(30);
+    Duration burstLength = Duration.ofSeconds(5);
+    double burstFactor = 5;
+
+    long seed = 42;
+    String report = "target/loadtest-report.json";
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (arg.isBlank()) {
+                continue;
+            }
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+
+        LoadTestOptions options = new LoadTestOptions();
+        options.baseUrl = values.remove("base-url");
+        options.profiles = stringValue(values.remove("profiles"), options.profiles);
+        options.username = stringValue(values.remove("username"), options.username);
+        options.password = stringValue(values.remove("password"), options.password);
+        options.auth = stringValue(values.remove("auth"), options.auth);
+        options.tills = intValue(values.remove("tills"), options.tills);
+        options.duration = duration(values.remove("duration"), options.duration);
+        options.warmup = duration(values.remove("warmup"), options.warmup);
+        options.rampUp = duration(values.remove("ramp-up"), options.rampUp);
+        options.thinkTime = duration(values.remove("think-time"), options.thinkTime);
+        options.products = intValue(values.remove("products"), options.products);
+        options.initialStock = intValue(values.remove("stock"), options.initialStock);
+        options.maxSaleQuantity = intValue(values.remove("max-quantity"), options.maxSaleQuantity);
+        options.skew = doubleValue(values.remove("skew"), options.skew);
+        options.saleWeight = intValue(values.remove("sale-weight"), options.saleWeight);
+        options.searchWeight = intValue(values.remove("search-weight"), options.searchWeight);
+        options.availabilityWeight = intValue(values.remove("availability-weight"), options.availabilityWeight);
+        options.dashboardWeight = intValue(values.remove("dashboard-weight"), options.dashboardWeight);
+        options.burstEvery = duration(values.remove("burst-every"), options.burstEvery);
+        options.burstLength = duration(values.remove("burst-length"), options.burstLength);
+        options.burstFactor = doubleValue(values.remove("burst-factor"), options.burstFactor);
+        options.seed = Long.parseLong(stringValue(values.remove("seed"), String.valueOf(options.seed)));
+        options.report = stringValue(values.remove("report"), options.report);
+
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + values.keySet());
+        }
+        if (!options.auth.equals("token") && !options.auth.equals("basic")) {
+            throw new IllegalArgumentException("--auth must be token or basic, got: " + options.auth);
+        }
+        if (options.saleWeight + options.searchWeight + options.availabilityWeight + options.dashboardWeight <= 0) {
+            throw new IllegalArgumentException("At least one request weight must be positive");
+        }
+        return options;
+    }
+
+    boolean tokenLogin() {
+        return auth.equals("token");
+    }
+
+    boolean inBurst(long elapsedMillis) {
+        long every = burstEvery.toMillis();
+        return every > 0 && burstFactor > 1 && elapsedMillis % every >= every - burstLength.toMillis();
+    }
+
+    private static String stringValue(String value, String fallback) {
+        return value == null ? fallback : value;
+    }
+
+    private static int intValue(String value, int fallback) {
+        return value == null ? fallback : Integer.parseInt(value);
+    }
+
+    private static double doubleValue(String value, double fallback) {
+        return value == null ? fallback : Double.parseDouble(value);
+    }
+
+    private static Duration duration(String value, Duration fallback) {
+        if (value == null) {
+            return fallback;
+        }
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+}
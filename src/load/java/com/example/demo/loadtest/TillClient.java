@@ -0,0 +1,158 @@
+package com.example.demo.loadtest;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * The REST calls a till makes. Methods return the HTTP status; I/O failures and timeouts propagate.
+ *
+ * <p>With {@code tokenLogin} the client trades its password for a bearer token once, like a till that stays
+ * logged in for a shift, and fetches a new one shortly before it expires; otherwise every request carries HTTP
+ * Basic credentials, which costs a user lookup and a password check per request on the server.
+ */
+final class TillClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration TOKEN_RENEW_MARGIN = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient;
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final String baseUrl;
+    private final String username;
+    private final String password;
+    private final boolean tokenLogin;
+    private String authorization;
+    private Instant authorizationExpiresAt = Instant.MAX;
+    private long lastProvisionalId;
+
+    TillClient(String baseUrl, String username, String password, boolean tokenLogin)
+            throws IOException, InterruptedException {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.username = username;
+        this.password = password;
+        this.tokenLogin = tokenLogin;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(REQUEST_TIMEOUT)
+                .build();
+        if (tokenLogin) {
+            login();
+        } else {
+            this.authorization = "Basic " + Base64.getEncoder()
+                    .encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Returns the HTTP status; a 202 from the write-behind mode also records the provisional id.
+     */
+    int sale(long productId, int quantity) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(
+                post("/api/transactions/sale?productId=" + productId + "&quantity=" + quantity + "&description=loadtest"),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() == 202) {
+            lastProvisionalId = jsonMapper.readTree(response.body()).get("provisionalId").asLong();
+        }
+        return response.statusCode();
+    }
+
+    long lastProvisionalId() {
+        return lastProvisionalId;
+    }
+
+    String provisionalStatus(long provisionalId) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(get("/api/transactions/provisional/" + provisionalId),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Reading provisional sale " + provisionalId + " failed with HTTP " + response.statusCode());
+        }
+        return jsonMapper.readTree(response.body()).get("status").asString();
+    }
+
+    int search(String query) throws IOException, InterruptedException {
+        return send(get("/api/products/search?limit=20&name=" + URLEncoder.encode(query, StandardCharsets.UTF_8)));
+    }
+
+    int checkAvailability(long productId, int quantity) throws IOException, InterruptedException {
+        return send(get("/api/products/check-availability/" + productId + "?quantity=" + quantity));
+    }
+
+    int dashboardStats() throws IOException, InterruptedException {
+        return send(get("/api/dashboard/stats"));
+    }
+
+    int netRevenue() throws IOException, InterruptedException {
+        return send(get("/api/transactions/stats/net-revenue"));
+    }
+
+    long createProduct(String name, int price, int stock) throws IOException, InterruptedException {
+        String body = jsonMapper.writeValueAsString(Map.of("name", name, "price", price, "stock", stock));
+        HttpRequest request = request("/api/products")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 201) {
+            throw new IllegalStateException("Creating product '" + name + "' failed with HTTP " + response.statusCode());
+        }
+        return jsonMapper.readTree(response.body()).get("id").asLong();
+    }
+
+    int stockOf(long productId) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(get("/api/products/" + productId), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Reading product " + productId + " failed with HTTP " + response.statusCode());
+        }
+        JsonNode product = jsonMapper.readTree(response.body());
+        return product.get("stock").asInt();
+    }
+
+    private void login() throws IOException, InterruptedException {
+        String body = jsonMapper.writeValueAsString(Map.of("username", username, "password", password));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/token"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login as '" + username + "' failed with HTTP " + response.statusCode());
+        }
+        JsonNode token = jsonMapper.readTree(response.body());
+        authorization = "Bearer " + token.get("accessToken").asString();
+        authorizationExpiresAt = Instant.now().plusSeconds(token.get("expiresIn").asLong()).minus(TOKEN_RENEW_MARGIN);
+    }
+
+    private int send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpRequest get(String path) throws IOException, InterruptedException {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest post(String path) throws IOException, InterruptedException {
+        return request(path).POST(HttpRequest.BodyPublishers.noBody()).build();
+    }
+
+    private HttpRequest.Builder request(String path) throws IOException, InterruptedException {
+        if (tokenLogin && Instant.now().isAfter(authorizationExpiresAt)) {
+            login();
+        }
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", authorization);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.demo.loadtest;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Samples indexes {@code 0..n-1} with probability proportional to {@code 1 / (index + 1)^skew}, so index 0 is the
+ * hottest SKU. A skew of 0 is uniform.
+ */
+final class ZipfSampler {
+
+    private final double[] cumulative;
+
+    ZipfSampler(int n, double skew) {
+        cumulative = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += 1.0 / Math.pow(i + 1, skew);
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cumulative[i] /= sum;
+        }
+    }
+
+    int next(SplittableRandom random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+    }
+
+    /**
+     * Share of all picks that land on the {@code top} hottest indexes.
+     */
+    double share(int top) {
+        return top <= 0 ? 0 : cumulative[Math.min(top, cumulative.length) - 1];
+    }
+}
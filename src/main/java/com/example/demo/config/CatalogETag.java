@@ -0,0 +1,16 @@
+package com.example.demo.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a GET handler whose response depends only on the product catalog and the transaction totals. It is answered
+ * with the {@link com.example.demo.service.CatalogVersion} ETag, and with 304 Not Modified, before the handler runs,
+ * when the client's {@code If-None-Match} still matches it.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CatalogETag {
+}
@@ -0,0 +1,31 @@
+package com.example.demo.config;
+
+import com.example.demo.service.CatalogVersion;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Checks {@code If-None-Match} against the catalog version for {@link CatalogETag} handlers. The version is read
+ * before the handler queries anything, so a write that commits in between only makes the tag older than the body,
+ * and the next poll fetches again; it can never make a stale body look current.
+ */
+public class CatalogETagInterceptor implements HandlerInterceptor {
+
+    private final CatalogVersion catalogVersion;
+
+    public CatalogETagInterceptor(CatalogVersion catalogVersion) {
+        this.catalogVersion = catalogVersion;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod method) || !method.hasMethodAnnotation(CatalogETag.class)) {
+            return true;
+        }
+        // sets the ETag header either way, and the 304 status on a match
+        return !new ServletWebRequest(request, response).checkNotModified(catalogVersion.etag());
+    }
+}
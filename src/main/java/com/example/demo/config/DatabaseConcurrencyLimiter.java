@@ -0,0 +1,86 @@
+package com.example.demo.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps how many API requests run at once, so that an unbounded number of request threads (virtual threads in
+ * particular) cannot all queue on the connection pool. Requests wait up to {@code acquire-timeout} for a permit
+ * and are otherwise answered with 503 and {@code Retry-After}.
+ *
+ * <p>Runs after the security filter chain, so rejected logins never take a permit. Permits default to the
+ * Hikari pool size.
+ */
+@Component
+@ConditionalOnProperty(name = "app.db.concurrency-limit.enabled", havingValue = "true")
+public class DatabaseConcurrencyLimiter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(DatabaseConcurrencyLimiter.class);
+
+    private final Semaphore permits;
+    private final Duration acquireTimeout;
+    private final Counter rejected;
+
+    public DatabaseConcurrencyLimiter(
+            @Value("${app.db.concurrency-limit.permits:${spring.datasource.hikari.maximum-pool-size:10}}") int maxPermits,
+            @Value("${app.db.concurrency-limit.acquire-timeout:1s}") Duration acquireTimeout,
+            MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(maxPermits, true);
+        this.acquireTimeout = acquireTimeout;
+        this.rejected = Counter.builder("kasir.db.limiter.rejected")
+                .description("API requests rejected because no database permit became free in time")
+                .register(meterRegistry);
+        Gauge.builder("kasir.db.limiter.active", permits, p -> maxPermits - p.availablePermits())
+                .description("API requests currently holding a database permit")
+                .register(meterRegistry);
+        Gauge.builder("kasir.db.limiter.waiting", permits, Semaphore::getQueueLength)
+                .description("API requests waiting for a database permit")
+                .register(meterRegistry);
+        log.info("API concurrency limited to {} requests, waiting at most {}", maxPermits, acquireTimeout);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            response.setHeader("Retry-After", "1");
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.demo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PaginationProperties {
+
+    @Value("${app.pagination.default-size:50}")
+    private int defaultSize;
+
+    @Value("${app.pagination.max-size:500}")
+    private int maxSize;
+
+    public int resolveSize(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return defaultSize;
+        }
+        return Math.min(requested, maxSize);
+    }
+
+    public int getDefaultSize() {
+        return defaultSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.demo.config;
+
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Refuses to start the {@code prod} profile with settings that would drop or lose data: a schema-dropping
+ * {@code ddl-auto} mode or an in-memory datasource. Runs before any bean (including the datasource) is created.
+ */
+@Component
+@Profile("prod")
+public class ProductionSafetyCheck implements BeanFactoryPostProcessor, EnvironmentAware {
+
+    private static final Set<String> FORBIDDEN_DDL_AUTO = Set.of("create", "create-drop", "drop");
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        String ddlAuto = environment.getProperty("spring.jpa.hibernate.ddl-auto", "").trim().toLowerCase(Locale.ROOT);
+        if (FORBIDDEN_DDL_AUTO.contains(ddlAuto)) {
+            throw new IllegalStateException("spring.jpa.hibernate.ddl-auto=" + ddlAuto
+                    + " is not allowed in the prod profile; the schema is managed by Flyway");
+        }
+
+        String url = environment.getProperty("spring.datasource.url", "");
+        if (url.isBlank() || url.startsWith("jdbc:h2:mem:")) {
+            throw new IllegalStateException("The prod profile requires a persistent datasource, got: "
+                    + (url.isBlank() ? "<none>" : url));
+        }
+    }
+}
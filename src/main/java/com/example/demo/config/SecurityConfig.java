@@ -1,30 +1,89 @@
 package com.example.demo.config;
 
+import com.example.demo.service.ApiTokenService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.NegatedRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
 
+import static org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher.pathPattern;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    @Autowired
+    private ApiTokenService apiTokenService;
+
+    @Value("${app.cors.allowed-origins:}")
+    private String[] allowedOrigins;
+
+    /**
+     * The REST API: stateless, authenticated per request by a bearer token from {@code POST /api/auth/token}.
+     * HTTP Basic is kept on purpose for scripts and other occasional clients; it never creates a session, but costs
+     * a BCrypt password check on every request, so tills use tokens. The event stream and the export download are
+     * left to the web chain: the browser opens them itself ({@code EventSource}, a plain navigation), cannot add an
+     * {@code Authorization} header, and rides the login session instead.
+     */
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    @Order(1)
+    public SecurityFilterChain apiFilterChain(HttpSecurity http) throws Exception {
+        RequestMatcher apiRequests = new AndRequestMatcher(pathPattern("/api/**"),
+                new NegatedRequestMatcher(pathPattern("/api/stream/**")),
+                new NegatedRequestMatcher(pathPattern("/api/transactions/export")));
         http
+            .securityMatcher(apiRequests)
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .csrf(csrf -> csrf.disable())
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(authz -> authz
-                .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/swagger-ui.html", "/api-docs/**", "/h2-console/**").permitAll()
-                .requestMatchers("/login", "/static/**", "/css/**", "/js/**", "/images/**", "/test/**", "/dashboard_standalone.html").permitAll()
+                .requestMatchers(HttpMethod.POST, "/api/auth/token").permitAll()
                 .requestMatchers("/api/products/**").hasAnyRole("ADMIN", "USER")
                 .requestMatchers("/api/transactions/**").hasAnyRole("ADMIN", "USER")
+                .requestMatchers("/api/dashboard/**").hasAnyRole("ADMIN", "USER")
+                .requestMatchers("/api/analytics/**").hasAnyRole("ADMIN", "USER")
+                .requestMatchers("/api/alerts/**").hasAnyRole("ADMIN", "USER")
+                .requestMatchers(HttpMethod.POST, "/api/stock/**").hasRole("ADMIN")
+                .requestMatchers("/api/stock/**").hasAnyRole("ADMIN", "USER")
+                .anyRequest().authenticated()
+            )
+            .addFilterBefore(new ApiTokenAuthenticationFilter(apiTokenService), BasicAuthenticationFilter.class)
+            .httpBasic(httpBasic -> {});
+
+        return http.build();
+    }
+
+    /**
+     * The web pages, on the login session. {@code POST /auth/token} turns that session into a bearer token, so it
+     * requires the page's CSRF token: otherwise any site the user visits could post to it with the session cookie.
+     */
+    @Bean
+    @Order(2)
+    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+        http
+            .cors(cors -> cors.configurationSource(corsConfigurationSource()))
+            .csrf(csrf -> csrf.requireCsrfProtectionMatcher(pathPattern(HttpMethod.POST, "/auth/token")))
+            .authorizeHttpRequests(authz -> authz
+                .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/swagger-ui.html", "/api-docs/**", "/h2-console/**").permitAll()
+                .requestMatchers("/login", "/static/**", "/css/**", "/js/**", "/images/**", "/test/**", "/dashboard_standalone.html").permitAll()
+                .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
+                .requestMatchers("/api/stream/**", "/api/transactions/export", "/auth/token").hasAnyRole("ADMIN", "USER")
                 .requestMatchers("/", "/dashboard", "/products/**", "/transactions/**").hasAnyRole("ADMIN", "USER")
                 .anyRequest().authenticated()
             )
@@ -40,15 +99,21 @@ public class SecurityConfig {
                 .clearAuthentication(true)
                 .permitAll()
             )
+            // bearer tokens also work for the stream and the export; the context is never saved to a session
+            .addFilterBefore(new ApiTokenAuthenticationFilter(apiTokenService), BasicAuthenticationFilter.class)
             .httpBasic(httpBasic -> {});
 
         return http.build();
     }
 
+    /**
+     * Cross-origin requests carry credentials, so only the origins listed in {@code app.cors.allowed-origins} are
+     * allowed; with none listed, browsers only call the API from pages served by this application.
+     */
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
-        configuration.setAllowedOriginPatterns(Arrays.asList("*"));
+        configuration.setAllowedOrigins(Arrays.asList(allowedOrigins));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
         configuration.setAllowCredentials(true);
@@ -0,0 +1,105 @@
+package com.example.demo.config;
+
+import com.example.demo.dto.CursorPage;
+import com.example.demo.exception.InsufficientStockException;
+import com.example.demo.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Times every public {@code ProductService} and {@code TransactionService} call as {@code kasir.service.calls}
+ * (tags: service, method, outcome) and records how many rows list-style calls returned as
+ * {@code kasir.service.rows}.
+ *
+ * <p>Outcomes: {@code success}, {@code not_found} (also for an empty {@code Optional}), {@code insufficient_stock},
+ * {@code bad_request} (malformed cursor), {@code rejected} (other validation failures) and {@code error}
+ * (database or unexpected failures).
+ *
+ * <p>Ordered ahead of the transaction advice so the timing includes the commit.
+ */
+@Aspect
+@Component
+@Order(0)
+public class ServiceMetricsAspect {
+
+    static final String CALLS = "kasir.service.calls";
+    static final String ROWS = "kasir.service.rows";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Around("execution(public * com.example.demo.service.ProductService.*(..))"
+            + " || execution(public * com.example.demo.service.TransactionService.*(..))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        String service = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        String method = joinPoint.getSignature().getName();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            Object result = joinPoint.proceed();
+            if (result instanceof Optional<?> optional && optional.isEmpty()) {
+                outcome = "not_found";
+            }
+            recordRows(service, method, result);
+            return result;
+        } catch (Throwable e) {
+            outcome = outcome(e);
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(CALLS)
+                    .description("Service call latency")
+                    .tag("service", service)
+                    .tag("method", method)
+                    .tag("outcome", outcome)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    private void recordRows(String service, String method, Object result) {
+        int rows;
+        if (result instanceof Collection<?> collection) {
+            rows = collection.size();
+        } else if (result instanceof CursorPage<?> page) {
+            rows = page.getItems().size();
+        } else {
+            return;
+        }
+        DistributionSummary.builder(ROWS)
+                .description("Rows returned by list and page queries")
+                .baseUnit("rows")
+                .tag("service", service)
+                .tag("method", method)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(rows);
+    }
+
+    private static String outcome(Throwable e) {
+        if (e instanceof InsufficientStockException) {
+            return "insufficient_stock";
+        }
+        if (e instanceof ResourceNotFoundException) {
+            return "not_found";
+        }
+        if (e instanceof IllegalArgumentException) {
+            return "bad_request";
+        }
+        if (e instanceof RuntimeException && !(e instanceof DataAccessException)) {
+            return "rejected";
+        }
+        return "error";
+    }
+}
@@ -39,7 +39,10 @@ public class SwaggerConfig {
                                 .description("APIs for managing products in the inventory"),
                         new Tag()
                                 .name("Transaction Management")
-                                .description("APIs for managing sales and purchase transactions")
+                                .description("APIs for managing sales and purchase transactions"),
+                        new Tag()
+                                .name("Dashboard")
+                                .description("APIs for aggregated dashboard statistics")
                 ));
     }
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.example.demo.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Spring Boot silently falls back to platform threads when {@code spring.threads.virtual.enabled} is set on a
+ * runtime older than Java 21; say so at startup instead.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadsCheck {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadsCheck.class);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reportThreadingMode() {
+        int javaVersion = Runtime.version().feature();
+        if (javaVersion < 21) {
+            log.warn("spring.threads.virtual.enabled=true but the runtime is Java {}; requests run on platform threads. "
+                    + "Start the application on Java 21 or newer to use virtual threads.", javaVersion);
+        } else {
+            log.info("Requests and async tasks run on virtual threads (Java {})", javaVersion);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.demo.config;
+
+import com.example.demo.service.CatalogVersion;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new CatalogETagInterceptor(catalogVersion)).addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.demo.controller;
+
+import com.example.demo.config.PaginationProperties;
+import com.example.demo.model.Product;
+import com.example.demo.model.StockAlert;
+import com.example.demo.service.LowStockMonitor;
+import com.example.demo.service.ProductService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/alerts")
+@Tag(name = "Stock Alerts", description = "Low-stock alerts raised when products cross their reorder threshold")
+public class AlertController {
+
+    @Autowired
+    private LowStockMonitor lowStockMonitor;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private PaginationProperties paginationProperties;
+
+    @GetMapping
+    @Operation(summary = "Get recent stock alerts", description = "Most recent low-stock, out-of-stock and restock alerts, newest first")
+    @ApiResponse(responseCode = "200", description = "Alerts retrieved successfully")
+    public ResponseEntity<List<StockAlert>> getRecentAlerts(
+            @Parameter(description = "Only alerts for this product") @RequestParam(required = false) Long productId,
+            @Parameter(description = "Number of alerts") @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(lowStockMonitor.getRecentAlerts(productId, paginationProperties.resolveSize(limit)));
+    }
+
+    @GetMapping("/low-stock")
+    @Operation(summary = "Get products below their reorder threshold",
+               description = "Products currently at or below their own reorder threshold, lowest stock first, from the live low-stock set")
+    @ApiResponse(responseCode = "200", description = "Products retrieved successfully")
+    public ResponseEntity<List<Product>> getProductsBelowReorderThreshold() {
+        return ResponseEntity.ok(productService.getProductsBelowReorderThreshold());
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.ProductSales;
+import com.example.demo.dto.SalesBucket;
+import com.example.demo.service.SalesAnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/analytics")
+@Tag(name = "Sales Analytics", description = "Time-bucketed sales, top sellers and slow movers from pre-aggregated rollups")
+public class AnalyticsController {
+
+    @Autowired
+    private SalesAnalyticsService salesAnalyticsService;
+
+    @GetMapping("/sales")
+    @Operation(summary = "Get sales over time", description = "Sale and purchase totals per hour, day or month in [startDate, endDate), "
+            + "including empty buckets; optionally for one product")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Series retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Unsupported granularity, invalid date range or too many buckets")
+    })
+    public ResponseEntity<List<SalesBucket>> getSalesSeries(
+            @Parameter(description = "hour, day or month") @RequestParam(defaultValue = SalesAnalyticsService.DAY) String granularity,
+            @Parameter(description = "Start date (inclusive)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @Parameter(description = "End date (exclusive)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @Parameter(description = "Only this product") @RequestParam(required = false) Long productId) {
+        try {
+            return ResponseEntity.ok(salesAnalyticsService.getSalesSeries(granularity, startDate, endDate, productId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/top-products")
+    @Operation(summary = "Get top-selling products", description = "Products with the most sales revenue or units sold in [startDate, endDate)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Ranking retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Unsupported metric, invalid date range or limit")
+    })
+    public ResponseEntity<List<ProductSales>> getTopProducts(
+            @Parameter(description = "Start date (inclusive)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @Parameter(description = "End date (exclusive)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @Parameter(description = "revenue or quantity") @RequestParam(defaultValue = SalesAnalyticsService.REVENUE) String metric,
+            @Parameter(description = "Number of products") @RequestParam(defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(salesAnalyticsService.getTopProducts(startDate, endDate, metric, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/slow-movers")
+    @Operation(summary = "Get slow-moving products", description = "In-stock products that sold the fewest units in [startDate, endDate), "
+            + "products without any sale first")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Ranking retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid date range or limit")
+    })
+    public ResponseEntity<List<ProductSales>> getSlowMovers(
+            @Parameter(description = "Start date (inclusive)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @Parameter(description = "End date (exclusive)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @Parameter(description = "Number of products") @RequestParam(defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(salesAnalyticsService.getSlowMovers(startDate, endDate, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.TokenRequest;
+import com.example.demo.dto.TokenResponse;
+import com.example.demo.service.ApiTokenService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@Tag(name = "Authentication", description = "Bearer tokens for the stateless API")
+public class AuthController {
+
+    @Autowired
+    private ApiTokenService apiTokenService;
+
+    @PostMapping("/api/auth/token")
+    @Operation(summary = "Issue an API token",
+               description = "Checks the username and password once and returns a short-lived bearer token for the /api endpoints")
+    @ApiResponse(responseCode = "200", description = "Token issued")
+    @ApiResponse(responseCode = "400", description = "Username or password missing")
+    @ApiResponse(responseCode = "401", description = "Wrong username or password")
+    public ResponseEntity<TokenResponse> issueToken(@RequestBody TokenRequest request) {
+        try {
+            return ResponseEntity.ok(apiTokenService.login(request.getUsername(), request.getPassword()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (AuthenticationException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+    }
+
+    @PostMapping("/auth/token")
+    @Operation(summary = "Issue an API token for the web session",
+               description = "Returns a bearer token for the user signed in through the login form, so the pages can call the stateless API")
+    @ApiResponse(responseCode = "200", description = "Token issued")
+    public ResponseEntity<TokenResponse> issueSessionToken(Authentication authentication) {
+        return ResponseEntity.ok(apiTokenService.issue(authentication));
+    }
+}
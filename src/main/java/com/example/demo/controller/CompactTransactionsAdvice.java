@@ -0,0 +1,54 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.TransactionColumns;
+import com.example.demo.dto.TransactionResponse;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.List;
+
+/**
+ * Swaps transaction lists for {@link TransactionColumns} when content negotiation picked the columnar JSON type
+ * or CBOR. Controllers keep returning {@link TransactionResponse} pages; the JSON default is unchanged.
+ */
+@RestControllerAdvice(assignableTypes = TransactionController.class)
+public class CompactTransactionsAdvice implements ResponseBodyAdvice<Object> {
+
+    private static final MediaType COLUMNS = MediaType.parseMediaType(TransactionColumns.MEDIA_TYPE);
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        ResolvableType type = ResolvableType.forMethodParameter(returnType);
+        if (ResponseEntity.class.isAssignableFrom(type.toClass())) {
+            type = type.getGeneric(0);
+        }
+        return (CursorPage.class.equals(type.toClass()) || List.class.equals(type.toClass()))
+                && TransactionResponse.class.equals(type.getGeneric(0).toClass());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (body == null) {
+            return null;
+        }
+        response.getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (!COLUMNS.isCompatibleWith(selectedContentType) && !MediaType.APPLICATION_CBOR.isCompatibleWith(selectedContentType)) {
+            return body;
+        }
+        return body instanceof CursorPage<?> page
+                ? TransactionColumns.of((CursorPage<TransactionResponse>) page)
+                : TransactionColumns.of((List<TransactionResponse>) body);
+    }
+}
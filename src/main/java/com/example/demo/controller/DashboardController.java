@@ -0,0 +1,32 @@
+package com.example.demo.controller;
+
+import com.example.demo.config.CatalogETag;
+import com.example.demo.dto.DashboardStats;
+import com.example.demo.service.DashboardService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@Tag(name = "Dashboard", description = "APIs for dashboard statistics")
+public class DashboardController {
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @GetMapping("/stats")
+    @CatalogETag
+    @Operation(summary = "Get dashboard statistics", description = "Get aggregated product stock and transaction totals in a single call")
+    @ApiResponse(responseCode = "200", description = "Dashboard statistics retrieved successfully")
+    public ResponseEntity<DashboardStats> getDashboardStats(
+            @Parameter(description = "Stock level at or below which a product counts as low stock")
+            @RequestParam(defaultValue = "" + DashboardService.DEFAULT_LOW_STOCK_THRESHOLD) Integer lowStockThreshold) {
+        DashboardStats stats = dashboardService.getDashboardStats(lowStockThreshold);
+        return ResponseEntity.ok(stats);
+    }
+}
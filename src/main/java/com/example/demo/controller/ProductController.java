@@ -1,6 +1,11 @@
 package com.example.demo.controller;
 
+import com.example.demo.config.CatalogETag;
+import com.example.demo.dto.CacheStats;
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.ProductImportReport;
 import com.example.demo.model.Product;
+import com.example.demo.service.ProductImportService;
 import com.example.demo.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -9,10 +14,15 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -23,15 +33,29 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductImportService productImportService;
+
     @GetMapping
-    @Operation(summary = "Get all products", description = "Retrieve a list of all products")
-    @ApiResponse(responseCode = "200", description = "Successfully retrieved all products")
-    public ResponseEntity<List<Product>> getAllProducts() {
-        List<Product> products = productService.getAllProducts();
-        return ResponseEntity.ok(products);
+    @CatalogETag
+    @Operation(summary = "Get all products", description = "Retrieve products one page at a time, ordered by ID")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved a page of products"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
+    public ResponseEntity<CursorPage<Product>> getAllProducts(
+            @Parameter(description = "Cursor returned as nextCursor by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size") @RequestParam(required = false) Integer size) {
+        try {
+            CursorPage<Product> products = productService.getProducts(cursor, size);
+            return ResponseEntity.ok(products);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/{id}")
+    @CatalogETag
     @Operation(summary = "Get product by ID", description = "Retrieve a specific product by its ID")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Product found"),
@@ -59,6 +83,37 @@ public class ProductController {
         }
     }
 
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Import products from a CSV file",
+               description = "Create or update products from an uploaded CSV with a name,price,stock header; existing names are updated")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Import finished; the report lists rows that were not imported"),
+        @ApiResponse(responseCode = "400", description = "Missing file or header without name, price and stock columns")
+    })
+    public ResponseEntity<ProductImportReport> importProducts(
+            @Parameter(description = "CSV file", required = true) @RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream csv = file.getInputStream()) {
+            return ResponseEntity.ok(productImportService.importCsv(csv));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @Operation(summary = "Import products from a CSV body",
+               description = "Same as the file upload, with the CSV sent as the request body; the body is read as it arrives")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Import finished; the report lists rows that were not imported"),
+        @ApiResponse(responseCode = "400", description = "Header without name, price and stock columns")
+    })
+    public ResponseEntity<ProductImportReport> importProductsFromBody(InputStream csv) throws IOException {
+        try {
+            return ResponseEntity.ok(productImportService.importCsv(csv));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Update a product", description = "Update an existing product's information")
     @ApiResponses(value = {
@@ -94,15 +149,30 @@ public class ProductController {
     }
 
     @GetMapping("/search")
-    @Operation(summary = "Search products by name", description = "Find products containing the specified name")
+    @Operation(summary = "Search products by name", description = "Find products whose name matches by prefix, infix or (optionally) with typos, best matches first")
     @ApiResponse(responseCode = "200", description = "Search completed successfully")
     public ResponseEntity<List<Product>> searchProducts(
             @Parameter(description = "Product name to search for", required = true) 
-            @RequestParam String name) {
-        List<Product> products = productService.searchProductsByName(name);
+            @RequestParam String name,
+            @Parameter(description = "Maximum number of results") @RequestParam(defaultValue = "20") Integer limit,
+            @Parameter(description = "Also return near matches for misspelled names") @RequestParam(defaultValue = "true") boolean fuzzy) {
+        List<Product> products = productService.searchProductsByName(name, Math.min(limit, 100), fuzzy);
         return ResponseEntity.ok(products);
     }
 
+    @GetMapping("/by-name")
+    @Operation(summary = "Get product by exact name", description = "Retrieve a specific product by its exact name")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Product found"),
+        @ApiResponse(responseCode = "404", description = "Product not found")
+    })
+    public ResponseEntity<Product> getProductByName(
+            @Parameter(description = "Exact product name", required = true) @RequestParam String name) {
+        Optional<Product> product = productService.getProductByName(name);
+        return product.map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @GetMapping("/price-range")
     @Operation(summary = "Get products by price range", description = "Find products within a specified price range")
     @ApiResponse(responseCode = "200", description = "Products found successfully")
@@ -114,6 +184,7 @@ public class ProductController {
     }
 
     @GetMapping("/in-stock")
+    @CatalogETag
     @Operation(summary = "Get in-stock products", description = "Retrieve all products that are currently in stock")
     @ApiResponse(responseCode = "200", description = "In-stock products retrieved successfully")
     public ResponseEntity<List<Product>> getInStockProducts() {
@@ -131,6 +202,7 @@ public class ProductController {
     }
 
     @GetMapping("/out-of-stock")
+    @CatalogETag
     @Operation(summary = "Get out of stock products", description = "Retrieve all products that are currently out of stock")
     @ApiResponse(responseCode = "200", description = "Out of stock products retrieved successfully")
     public ResponseEntity<List<Product>> getOutOfStockProducts() {
@@ -139,6 +211,7 @@ public class ProductController {
     }
 
     @GetMapping("/stats/in-stock-count")
+    @CatalogETag
     @Operation(summary = "Get in-stock product count", description = "Get the count of products that are currently in stock")
     @ApiResponse(responseCode = "200", description = "In-stock count retrieved successfully")
     public ResponseEntity<Long> getInStockCount() {
@@ -146,6 +219,13 @@ public class ProductController {
         return ResponseEntity.ok(count);
     }
 
+    @GetMapping("/cache/stats")
+    @Operation(summary = "Get product cache statistics", description = "Get size, hit/miss counts, hit rate and evictions of the product catalog cache")
+    @ApiResponse(responseCode = "200", description = "Cache statistics retrieved successfully")
+    public ResponseEntity<Map<String, CacheStats>> getCacheStats() {
+        return ResponseEntity.ok(productService.getCacheStats());
+    }
+
     @GetMapping("/check-availability/{id}")
     @Operation(summary = "Check product availability", description = "Check if a product is available in the specified quantity")
     @ApiResponses(value = {
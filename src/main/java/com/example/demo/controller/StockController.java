@@ -0,0 +1,73 @@
+package com.example.demo.controller;
+
+import com.example.demo.config.PaginationProperties;
+import com.example.demo.dto.StockDrift;
+import com.example.demo.dto.StockLevel;
+import com.example.demo.model.StockMovement;
+import com.example.demo.service.StockMovementService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/stock")
+@Tag(name = "Stock Ledger", description = "Stock movement history, point-in-time stock and ledger reconciliation")
+public class StockController {
+
+    @Autowired
+    private StockMovementService stockMovementService;
+
+    @Autowired
+    private PaginationProperties paginationProperties;
+
+    @GetMapping("/{productId}/movements")
+    @Operation(summary = "Get stock movements", description = "Most recent stock movements of a product, newest first")
+    @ApiResponse(responseCode = "200", description = "Movements retrieved successfully")
+    public ResponseEntity<List<StockMovement>> getMovements(
+            @Parameter(description = "Product ID", required = true) @PathVariable Long productId,
+            @Parameter(description = "Number of movements") @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(stockMovementService.getMovements(productId, paginationProperties.resolveSize(limit)));
+    }
+
+    @GetMapping("/{productId}")
+    @Operation(summary = "Get stock as of a point in time",
+               description = "Stock according to the ledger at the given time, or after the latest movement when none is given")
+    @ApiResponse(responseCode = "200", description = "Stock level retrieved successfully")
+    public ResponseEntity<StockLevel> getStockAsOf(
+            @Parameter(description = "Product ID", required = true) @PathVariable Long productId,
+            @Parameter(description = "Point in time")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+        return ResponseEntity.ok(stockMovementService.getStockAsOf(productId, asOf));
+    }
+
+    @GetMapping("/reconcile")
+    @Operation(summary = "Audit the stock ledger", description = "Products whose current stock differs from their ledger balance; changes nothing")
+    @ApiResponse(responseCode = "200", description = "Audit completed")
+    public ResponseEntity<List<StockDrift>> audit() {
+        return ResponseEntity.ok(stockMovementService.audit());
+    }
+
+    @PostMapping("/reconcile")
+    @Operation(summary = "Reconcile the stock ledger",
+               description = "Appends a RECONCILE movement for every product whose current stock differs from its ledger balance")
+    @ApiResponse(responseCode = "200", description = "Ledger reconciled; the corrected drift is returned")
+    public ResponseEntity<List<StockDrift>> reconcile() {
+        return ResponseEntity.ok(stockMovementService.reconcile());
+    }
+
+    @PostMapping("/snapshots")
+    @Operation(summary = "Take stock snapshots now", description = "Runs the scheduled snapshot job immediately")
+    @ApiResponse(responseCode = "200", description = "Snapshots taken")
+    public ResponseEntity<Map<String, Integer>> takeSnapshots() {
+        return ResponseEntity.ok(Map.of("snapshots", stockMovementService.takeSnapshots()));
+    }
+}
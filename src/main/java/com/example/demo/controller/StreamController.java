@@ -0,0 +1,29 @@
+package com.example.demo.controller;
+
+import com.example.demo.service.DashboardBroadcaster;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/stream")
+@Tag(name = "Stream", description = "Server-Sent Event streams for live views")
+public class StreamController {
+
+    @Autowired
+    private DashboardBroadcaster dashboardBroadcaster;
+
+    @GetMapping(value = "/dashboard", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream dashboard updates",
+            description = "Sends the current dashboard statistics, then a 'delta' event with new transactions, changed stock levels and updated totals whenever inventory changes")
+    @ApiResponse(responseCode = "200", description = "Event stream opened")
+    public SseEmitter streamDashboard() {
+        return dashboardBroadcaster.subscribe();
+    }
+}
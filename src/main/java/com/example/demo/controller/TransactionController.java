@@ -1,18 +1,30 @@
 package com.example.demo.controller;
 
+import com.example.demo.config.CatalogETag;
+import com.example.demo.dto.CheckoutRequest;
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.ProvisionalSale;
+import com.example.demo.dto.TransactionResponse;
+import com.example.demo.exception.SalesBacklogFullException;
 import com.example.demo.model.Transaction;
+import com.example.demo.service.TransactionExportService;
 import com.example.demo.service.TransactionService;
+import com.example.demo.service.WriteBehindSaleService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -26,12 +38,28 @@ public class TransactionController {
     @Autowired
     private TransactionService transactionService;
 
+    @Autowired
+    private TransactionExportService transactionExportService;
+
+    // Present only when app.sales.write-behind.enabled=true
+    @Autowired(required = false)
+    private WriteBehindSaleService writeBehindSaleService;
+
     @GetMapping
-    @Operation(summary = "Get all transactions", description = "Retrieve a list of all transactions")
-    @ApiResponse(responseCode = "200", description = "Successfully retrieved all transactions")
-    public ResponseEntity<List<Transaction>> getAllTransactions() {
-        List<Transaction> transactions = transactionService.getAllTransactions();
-        return ResponseEntity.ok(transactions);
+    @Operation(summary = "Get all transactions", description = "Retrieve transactions one page at a time, newest first")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved a page of transactions"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
+    public ResponseEntity<CursorPage<TransactionResponse>> getAllTransactions(
+            @Parameter(description = "Cursor returned as nextCursor by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size") @RequestParam(required = false) Integer size) {
+        try {
+            CursorPage<Transaction> transactions = transactionService.getTransactions(cursor, size);
+            return ResponseEntity.ok(transactions.map(TransactionResponse::from));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/{id}")
@@ -40,10 +68,11 @@ public class TransactionController {
         @ApiResponse(responseCode = "200", description = "Transaction found"),
         @ApiResponse(responseCode = "404", description = "Transaction not found")
     })
-    public ResponseEntity<Transaction> getTransactionById(
+    public ResponseEntity<TransactionResponse> getTransactionById(
             @Parameter(description = "Transaction ID", required = true) @PathVariable Long id) {
         Optional<Transaction> transaction = transactionService.getTransactionById(id);
-        return transaction.map(ResponseEntity::ok)
+        return transaction.map(TransactionResponse::from)
+                .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -53,34 +82,61 @@ public class TransactionController {
         @ApiResponse(responseCode = "201", description = "Transaction created successfully"),
         @ApiResponse(responseCode = "400", description = "Invalid input or insufficient stock")
     })
-    public ResponseEntity<Transaction> createTransaction(@RequestBody Transaction transaction) {
+    public ResponseEntity<TransactionResponse> createTransaction(@RequestBody Transaction transaction) {
         try {
             Transaction createdTransaction = transactionService.createTransaction(transaction);
-            return ResponseEntity.status(HttpStatus.CREATED).body(createdTransaction);
+            return ResponseEntity.status(HttpStatus.CREATED).body(TransactionResponse.from(createdTransaction));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
     @PostMapping("/sale")
-    @Operation(summary = "Create a sale", description = "Create a sale transaction for a product")
+    @Operation(summary = "Create a sale", description = "Create a sale transaction for a product. With write-behind sales enabled "
+            + "the sale is journaled and answered with 202 and a provisional id; the transaction is written shortly after")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "201", description = "Sale created successfully"),
+        @ApiResponse(responseCode = "202", description = "Sale accepted by the write-behind journal"),
         @ApiResponse(responseCode = "400", description = "Invalid input or insufficient stock"),
-        @ApiResponse(responseCode = "404", description = "Product not found")
+        @ApiResponse(responseCode = "404", description = "Product not found"),
+        @ApiResponse(responseCode = "503", description = "Write-behind backlog is full")
     })
-    public ResponseEntity<Transaction> createSale(
+    public ResponseEntity<?> createSale(
             @Parameter(description = "Product ID", required = true) @RequestParam Long productId,
             @Parameter(description = "Quantity to sell", required = true) @RequestParam Integer quantity,
             @Parameter(description = "Sale description") @RequestParam(required = false) String description) {
         try {
+            if (writeBehindSaleService != null) {
+                ProvisionalSale sale = writeBehindSaleService.acceptSale(productId, quantity, description);
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(sale);
+            }
             Transaction sale = transactionService.createSale(productId, quantity, description);
-            return ResponseEntity.status(HttpStatus.CREATED).body(sale);
+            return ResponseEntity.status(HttpStatus.CREATED).body(TransactionResponse.from(sale));
+        } catch (SalesBacklogFullException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").build();
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
+    @GetMapping("/provisional/{provisionalId}")
+    @Operation(summary = "Get a provisional sale", description = "Status of a sale accepted by the write-behind journal: PENDING, COMMITTED (with transactionId) or REJECTED (with reason)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Provisional sale found"),
+        @ApiResponse(responseCode = "404", description = "Unknown provisional id, or write-behind sales are disabled")
+    })
+    public ResponseEntity<ProvisionalSale> getProvisionalSale(
+            @Parameter(description = "Provisional id returned when the sale was accepted", required = true) @PathVariable Long provisionalId) {
+        if (writeBehindSaleService == null) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            return ResponseEntity.ok(writeBehindSaleService.getStatus(provisionalId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     @PostMapping("/purchase")
     @Operation(summary = "Create a purchase", description = "Create a purchase transaction for a product")
     @ApiResponses(value = {
@@ -88,13 +144,28 @@ public class TransactionController {
         @ApiResponse(responseCode = "400", description = "Invalid input"),
         @ApiResponse(responseCode = "404", description = "Product not found")
     })
-    public ResponseEntity<Transaction> createPurchase(
+    public ResponseEntity<TransactionResponse> createPurchase(
             @Parameter(description = "Product ID", required = true) @RequestParam Long productId,
             @Parameter(description = "Quantity to purchase", required = true) @RequestParam Integer quantity,
             @Parameter(description = "Purchase description") @RequestParam(required = false) String description) {
         try {
             Transaction purchase = transactionService.createPurchase(productId, quantity, description);
-            return ResponseEntity.status(HttpStatus.CREATED).body(purchase);
+            return ResponseEntity.status(HttpStatus.CREATED).body(TransactionResponse.from(purchase));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/checkout")
+    @Operation(summary = "Checkout a basket", description = "Sell several products in one request; either every line is recorded or none is")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Basket sold successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid input, unknown product or insufficient stock")
+    })
+    public ResponseEntity<List<TransactionResponse>> checkout(@RequestBody CheckoutRequest request) {
+        try {
+            List<Transaction> sales = transactionService.checkout(request);
+            return ResponseEntity.status(HttpStatus.CREATED).body(sales.stream().map(TransactionResponse::from).toList());
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -107,12 +178,12 @@ public class TransactionController {
         @ApiResponse(responseCode = "404", description = "Transaction not found"),
         @ApiResponse(responseCode = "400", description = "Invalid input")
     })
-    public ResponseEntity<Transaction> updateTransaction(
+    public ResponseEntity<TransactionResponse> updateTransaction(
             @Parameter(description = "Transaction ID", required = true) @PathVariable Long id,
             @RequestBody Transaction transactionDetails) {
         try {
             Transaction updatedTransaction = transactionService.updateTransaction(id, transactionDetails);
-            return ResponseEntity.ok(updatedTransaction);
+            return ResponseEntity.ok(TransactionResponse.from(updatedTransaction));
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -135,45 +206,99 @@ public class TransactionController {
     }
 
     @GetMapping("/product/{productId}")
-    @Operation(summary = "Get transactions by product", description = "Retrieve all transactions for a specific product")
-    @ApiResponse(responseCode = "200", description = "Transactions retrieved successfully")
-    public ResponseEntity<List<Transaction>> getTransactionsByProduct(
-            @Parameter(description = "Product ID", required = true) @PathVariable Long productId) {
-        List<Transaction> transactions = transactionService.getTransactionsByProductId(productId);
-        return ResponseEntity.ok(transactions);
+    @Operation(summary = "Get transactions by product", description = "Retrieve transactions for a specific product one page at a time, newest first")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Transactions retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
+    public ResponseEntity<CursorPage<TransactionResponse>> getTransactionsByProduct(
+            @Parameter(description = "Product ID", required = true) @PathVariable Long productId,
+            @Parameter(description = "Cursor returned as nextCursor by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size") @RequestParam(required = false) Integer size) {
+        try {
+            CursorPage<Transaction> transactions = transactionService.getTransactionsByProductId(productId, cursor, size);
+            return ResponseEntity.ok(transactions.map(TransactionResponse::from));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/type/{transactionType}")
-    @Operation(summary = "Get transactions by type", description = "Retrieve all transactions of a specific type (SALE/PURCHASE)")
-    @ApiResponse(responseCode = "200", description = "Transactions retrieved successfully")
-    public ResponseEntity<List<Transaction>> getTransactionsByType(
+    @Operation(summary = "Get transactions by type", description = "Retrieve transactions of a specific type (SALE/PURCHASE) one page at a time, newest first")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Transactions retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
+    public ResponseEntity<CursorPage<TransactionResponse>> getTransactionsByType(
             @Parameter(description = "Transaction type (SALE/PURCHASE)", required = true) 
-            @PathVariable String transactionType) {
-        List<Transaction> transactions = transactionService.getTransactionsByType(transactionType);
-        return ResponseEntity.ok(transactions);
+            @PathVariable String transactionType,
+            @Parameter(description = "Cursor returned as nextCursor by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size") @RequestParam(required = false) Integer size) {
+        try {
+            CursorPage<Transaction> transactions = transactionService.getTransactionsByType(transactionType, cursor, size);
+            return ResponseEntity.ok(transactions.map(TransactionResponse::from));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/date-range")
-    @Operation(summary = "Get transactions by date range", description = "Retrieve all transactions within a specified date range")
-    @ApiResponse(responseCode = "200", description = "Transactions retrieved successfully")
-    public ResponseEntity<List<Transaction>> getTransactionsByDateRange(
+    @Operation(summary = "Get transactions by date range", description = "Retrieve transactions within a specified date range one page at a time, newest first")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Transactions retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
+    public ResponseEntity<CursorPage<TransactionResponse>> getTransactionsByDateRange(
             @Parameter(description = "Start date", required = true) 
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @Parameter(description = "End date", required = true) 
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        List<Transaction> transactions = transactionService.getTransactionsByDateRange(startDate, endDate);
-        return ResponseEntity.ok(transactions);
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @Parameter(description = "Cursor returned as nextCursor by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size") @RequestParam(required = false) Integer size) {
+        try {
+            CursorPage<Transaction> transactions = transactionService.getTransactionsByDateRange(startDate, endDate, cursor, size);
+            return ResponseEntity.ok(transactions.map(TransactionResponse::from));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Export transactions by date range", description = "Stream every transaction in the date range, oldest first, "
+            + "as CSV or newline-delimited JSON. Rows are written as they are read, so the export can be arbitrarily large")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export streamed"),
+        @ApiResponse(responseCode = "400", description = "Unsupported format or invalid date range")
+    })
+    public void exportTransactions(
+            @Parameter(description = "Start date", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @Parameter(description = "End date", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @Parameter(description = "csv or ndjson") @RequestParam(defaultValue = TransactionExportService.CSV) String format,
+            HttpServletResponse response) throws IOException {
+        if (!TransactionExportService.isSupported(format) || endDate.isBefore(startDate)) {
+            response.sendError(HttpStatus.BAD_REQUEST.value());
+            return;
+        }
+        boolean csv = TransactionExportService.CSV.equals(format);
+        response.setContentType(csv ? "text/csv;charset=UTF-8" : "application/x-ndjson;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("transactions-" + startDate.toLocalDate() + "-" + endDate.toLocalDate() + "." + format)
+                .build().toString());
+        transactionExportService.export(startDate, endDate, format, response.getOutputStream());
     }
 
     @GetMapping("/recent")
     @Operation(summary = "Get recent transactions", description = "Retrieve the 10 most recent transactions")
     @ApiResponse(responseCode = "200", description = "Recent transactions retrieved successfully")
-    public ResponseEntity<List<Transaction>> getRecentTransactions() {
+    public ResponseEntity<List<TransactionResponse>> getRecentTransactions() {
         List<Transaction> transactions = transactionService.getRecentTransactions();
-        return ResponseEntity.ok(transactions);
+        return ResponseEntity.ok(transactions.stream().map(TransactionResponse::from).toList());
     }
 
     @GetMapping("/stats/count/{transactionType}")
+    @CatalogETag
     @Operation(summary = "Get transaction count by type", description = "Get the total count of transactions for a specific type")
     @ApiResponse(responseCode = "200", description = "Count retrieved successfully")
     public ResponseEntity<Long> getTransactionCountByType(
@@ -184,6 +309,7 @@ public class TransactionController {
     }
 
     @GetMapping("/stats/total-sales")
+    @CatalogETag
     @Operation(summary = "Get total sales amount", description = "Get the total amount from all sales transactions")
     @ApiResponse(responseCode = "200", description = "Total sales retrieved successfully")
     public ResponseEntity<BigDecimal> getTotalSales() {
@@ -192,6 +318,7 @@ public class TransactionController {
     }
 
     @GetMapping("/stats/total-purchases")
+    @CatalogETag
     @Operation(summary = "Get total purchases amount", description = "Get the total amount from all purchase transactions")
     @ApiResponse(responseCode = "200", description = "Total purchases retrieved successfully")
     public ResponseEntity<BigDecimal> getTotalPurchases() {
@@ -200,6 +327,7 @@ public class TransactionController {
     }
 
     @GetMapping("/stats/net-revenue")
+    @CatalogETag
     @Operation(summary = "Get net revenue", description = "Get the net revenue (total sales - total purchases)")
     @ApiResponse(responseCode = "200", description = "Net revenue retrieved successfully")
     public ResponseEntity<BigDecimal> getNetRevenue() {
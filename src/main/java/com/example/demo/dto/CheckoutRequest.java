@@ -0,0 +1,26 @@
+package com.example.demo.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CheckoutRequest {
+
+    private List<TransactionRequest> items = new ArrayList<>();
+    private String description;
+
+    public List<TransactionRequest> getItems() {
+        return items;
+    }
+
+    public void setItems(List<TransactionRequest> items) {
+        this.items = items;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.StockAlert;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One push on the dashboard stream: the transactions recorded since the last push, the current stock of every
+ * product that changed (null once a product is deleted), low-stock alerts raised since the last push and the
+ * latest totals.
+ */
+public class DashboardDelta {
+
+    public static final int MAX_ALERTS = 100;
+
+    private List<TransactionResponse> transactions = new ArrayList<>();
+    private List<StockAlert> alerts = new ArrayList<>();
+    private Map<Long, Integer> stock = new LinkedHashMap<>();
+    private DashboardStats stats;
+    private int skippedTransactions;
+
+    /**
+     * Folds two pushes a client has not received yet into one: newer stock and totals win, and only the newest
+     * {@code maxTransactions} transactions and {@link #MAX_ALERTS} alerts are kept, counting skipped
+     * transactions.
+     */
+    public static DashboardDelta coalesce(DashboardDelta older, DashboardDelta newer, int maxTransactions) {
+        DashboardDelta merged = new DashboardDelta();
+        merged.transactions.addAll(older.transactions);
+        merged.transactions.addAll(newer.transactions);
+        merged.alerts.addAll(older.alerts);
+        merged.alerts.addAll(newer.alerts);
+        merged.stock.putAll(older.stock);
+        merged.stock.putAll(newer.stock);
+        merged.stats = newer.stats != null ? newer.stats : older.stats;
+        merged.skippedTransactions = older.skippedTransactions + newer.skippedTransactions;
+
+        int excess = merged.transactions.size() - maxTransactions;
+        if (excess > 0) {
+            merged.transactions = new ArrayList<>(merged.transactions.subList(excess, merged.transactions.size()));
+            merged.skippedTransactions += excess;
+        }
+        if (merged.alerts.size() > MAX_ALERTS) {
+            merged.alerts = new ArrayList<>(merged.alerts.subList(merged.alerts.size() - MAX_ALERTS, merged.alerts.size()));
+        }
+        return merged;
+    }
+
+    public List<TransactionResponse> getTransactions() {
+        return transactions;
+    }
+
+    public void setTransactions(List<TransactionResponse> transactions) {
+        this.transactions = transactions;
+    }
+
+    public List<StockAlert> getAlerts() {
+        return alerts;
+    }
+
+    public void setAlerts(List<StockAlert> alerts) {
+        this.alerts = alerts;
+    }
+
+    public Map<Long, Integer> getStock() {
+        return stock;
+    }
+
+    public void setStock(Map<Long, Integer> stock) {
+        this.stock = stock;
+    }
+
+    public DashboardStats getStats() {
+        return stats;
+    }
+
+    public void setStats(DashboardStats stats) {
+        this.stats = stats;
+    }
+
+    public int getSkippedTransactions() {
+        return skippedTransactions;
+    }
+
+    public void setSkippedTransactions(int skippedTransactions) {
+        this.skippedTransactions = skippedTransactions;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.demo.dto;
+
+import java.math.BigDecimal;
+
+public class DashboardStats {
+
+    private long totalProducts;
+    private long inStockProducts;
+    private long lowStockProducts;
+    private long outOfStockProducts;
+    private long totalTransactions;
+    private long sales;
+    private long purchases;
+    private BigDecimal totalSales = BigDecimal.ZERO;
+    private BigDecimal totalPurchases = BigDecimal.ZERO;
+    private BigDecimal netRevenue = BigDecimal.ZERO;
+
+    public long getTotalProducts() {
+        return totalProducts;
+    }
+
+    public void setTotalProducts(long totalProducts) {
+        this.totalProducts = totalProducts;
+    }
+
+    public long getInStockProducts() {
+        return inStockProducts;
+    }
+
+    public void setInStockProducts(long inStockProducts) {
+        this.inStockProducts = inStockProducts;
+    }
+
+    public long getLowStockProducts() {
+        return lowStockProducts;
+    }
+
+    public void setLowStockProducts(long lowStockProducts) {
+        this.lowStockProducts = lowStockProducts;
+    }
+
+    public long getOutOfStockProducts() {
+        return outOfStockProducts;
+    }
+
+    public void setOutOfStockProducts(long outOfStockProducts) {
+        this.outOfStockProducts = outOfStockProducts;
+    }
+
+    public long getTotalTransactions() {
+        return totalTransactions;
+    }
+
+    public void setTotalTransactions(long totalTransactions) {
+        this.totalTransactions = totalTransactions;
+    }
+
+    public long getSales() {
+        return sales;
+    }
+
+    public void setSales(long sales) {
+        this.sales = sales;
+    }
+
+    public long getPurchases() {
+        return purchases;
+    }
+
+    public void setPurchases(long purchases) {
+        this.purchases = purchases;
+    }
+
+    public BigDecimal getTotalSales() {
+        return totalSales;
+    }
+
+    public void setTotalSales(BigDecimal totalSales) {
+        this.totalSales = totalSales;
+    }
+
+    public BigDecimal getTotalPurchases() {
+        return totalPurchases;
+    }
+
+    public void setTotalPurchases(BigDecimal totalPurchases) {
+        this.totalPurchases = totalPurchases;
+    }
+
+    public BigDecimal getNetRevenue() {
+        return netRevenue;
+    }
+
+    public void setNetRevenue(BigDecimal netRevenue) {
+        this.netRevenue = netRevenue;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.Product;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position for product lists ordered by {@code id ASC}.
+ */
+public class ProductCursor {
+
+    public static final ProductCursor FIRST = new ProductCursor(0L);
+
+    private final Long id;
+
+    public ProductCursor(Long id) {
+        this.id = id;
+    }
+
+    public static ProductCursor of(Product product) {
+        return new ProductCursor(product.getId());
+    }
+
+    public static ProductCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            return new ProductCursor(Long.parseLong(value));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(String.valueOf(id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.demo.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk product import. Only the first {@code maxErrors} row errors are listed; {@code failed}
+ * counts all of them.
+ */
+public class ProductImportReport {
+
+    private long rowsRead;
+    private long created;
+    private long updated;
+    private long failed;
+    private boolean errorsTruncated;
+    private final List<RowError> errors = new ArrayList<>();
+
+    private final int maxErrors;
+
+    public ProductImportReport(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    public void rowRead() {
+        rowsRead++;
+    }
+
+    public void addCreated(long count) {
+        created += count;
+    }
+
+    public void addUpdated(long count) {
+        updated += count;
+    }
+
+    public void addError(long line, String name, String message) {
+        failed++;
+        if (errors.size() < maxErrors) {
+            errors.add(new RowError(line, name, message));
+        } else {
+            errorsTruncated = true;
+        }
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getCreated() {
+        return created;
+    }
+
+    public long getUpdated() {
+        return updated;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public static class RowError {
+
+        private final long line;
+        private final String name;
+        private final String message;
+
+        public RowError(long line, String name, String message) {
+            this.line = line;
+            this.name = name;
+            this.message = message;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.demo.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Sales of one product over a time range, as ranked by the top-seller and slow-mover queries. Instances are
+ * shared through the analytics cache, so they are immutable.
+ */
+public class ProductSales {
+
+    private final Long productId;
+    private final String productName;
+    private final Integer stock;
+    private final long salesCount;
+    private final long quantity;
+    private final BigDecimal revenue;
+
+    public ProductSales(Long productId, String productName, Integer stock, long salesCount, long quantity, BigDecimal revenue) {
+        this.productId = productId;
+        this.productName = productName;
+        this.stock = stock;
+        this.salesCount = salesCount;
+        this.quantity = quantity;
+        this.revenue = revenue;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public Integer getStock() {
+        return stock;
+    }
+
+    public long getSalesCount() {
+        return salesCount;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+}
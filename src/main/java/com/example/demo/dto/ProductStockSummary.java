@@ -0,0 +1,10 @@
+package com.example.demo.dto;
+
+public interface ProductStockSummary {
+
+    Long getTotalProducts();
+
+    Long getInStockProducts();
+
+    Long getLowStockProducts();
+}
@@ -0,0 +1,88 @@
+package com.example.demo.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A sale accepted by the write-behind journal. {@code provisionalId} identifies it until the writer has stored
+ * it; from then on {@code transactionId} is set, or {@code reason} says why it could not be stored.
+ */
+public class ProvisionalSale {
+
+    public static final String PENDING = "PENDING";
+    public static final String COMMITTED = "COMMITTED";
+    public static final String REJECTED = "REJECTED";
+
+    private Long provisionalId;
+    private String status;
+    private Long productId;
+    private Integer quantity;
+    private BigDecimal totalPrice;
+    private LocalDateTime createdAt;
+    private Long transactionId;
+    private String reason;
+
+    public Long getProvisionalId() {
+        return provisionalId;
+    }
+
+    public void setProvisionalId(Long provisionalId) {
+        this.provisionalId = provisionalId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public BigDecimal getTotalPrice() {
+        return totalPrice;
+    }
+
+    public void setTotalPrice(BigDecimal totalPrice) {
+        this.totalPrice = totalPrice;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(Long transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+}
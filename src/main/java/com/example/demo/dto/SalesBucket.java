@@ -0,0 +1,58 @@
+package com.example.demo.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Sale and purchase totals of one hour, day or month bucket. Instances are shared through the analytics cache,
+ * so they are immutable.
+ */
+public class SalesBucket {
+
+    private final LocalDateTime bucketStart;
+    private final long salesCount;
+    private final long salesQuantity;
+    private final BigDecimal salesAmount;
+    private final long purchaseCount;
+    private final long purchaseQuantity;
+    private final BigDecimal purchaseAmount;
+
+    public SalesBucket(LocalDateTime bucketStart, long salesCount, long salesQuantity, BigDecimal salesAmount,
+                       long purchaseCount, long purchaseQuantity, BigDecimal purchaseAmount) {
+        this.bucketStart = bucketStart;
+        this.salesCount = salesCount;
+        this.salesQuantity = salesQuantity;
+        this.salesAmount = salesAmount;
+        this.purchaseCount = purchaseCount;
+        this.purchaseQuantity = purchaseQuantity;
+        this.purchaseAmount = purchaseAmount;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public long getSalesCount() {
+        return salesCount;
+    }
+
+    public long getSalesQuantity() {
+        return salesQuantity;
+    }
+
+    public BigDecimal getSalesAmount() {
+        return salesAmount;
+    }
+
+    public long getPurchaseCount() {
+        return purchaseCount;
+    }
+
+    public long getPurchaseQuantity() {
+        return purchaseQuantity;
+    }
+
+    public BigDecimal getPurchaseAmount() {
+        return purchaseAmount;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.demo.dto;
+
+/**
+ * A product whose {@code products.stock} differs from its ledger balance (latest snapshot plus later movements).
+ * {@code difference} is {@code stock - ledgerStock}, the movement a reconcile appends.
+ */
+public class StockDrift {
+
+    private final Long productId;
+    private final String productName;
+    private final long stock;
+    private final long ledgerStock;
+
+    public StockDrift(Long productId, String productName, long stock, long ledgerStock) {
+        this.productId = productId;
+        this.productName = productName;
+        this.stock = stock;
+        this.ledgerStock = ledgerStock;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public long getStock() {
+        return stock;
+    }
+
+    public long getLedgerStock() {
+        return ledgerStock;
+    }
+
+    public long getDifference() {
+        return stock - ledgerStock;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.demo.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A product's stock according to the ledger at a point in time.
+ */
+public class StockLevel {
+
+    private final Long productId;
+    private final LocalDateTime asOf;
+    private final long stock;
+
+    public StockLevel(Long productId, LocalDateTime asOf, long stock) {
+        this.productId = productId;
+        this.asOf = asOf;
+        this.stock = stock;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public LocalDateTime getAsOf() {
+        return asOf;
+    }
+
+    public long getStock() {
+        return stock;
+    }
+}
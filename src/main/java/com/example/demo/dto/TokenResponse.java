@@ -0,0 +1,37 @@
+package com.example.demo.dto;
+
+import java.time.Instant;
+
+/**
+ * A bearer token for the API, sent back as {@code Authorization: Bearer <accessToken>} until it expires.
+ */
+public class TokenResponse {
+
+    private final String accessToken;
+    private final String tokenType = "Bearer";
+    private final long expiresIn;
+    private final Instant expiresAt;
+
+    public TokenResponse(String accessToken, long expiresIn, Instant expiresAt) {
+        this.accessToken = accessToken;
+        this.expiresIn = expiresIn;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getAccessToken() {
+        return accessToken;
+    }
+
+    public String getTokenType() {
+        return tokenType;
+    }
+
+    /** Seconds until the token expires. */
+    public long getExpiresIn() {
+        return expiresIn;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.demo.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact form of a transaction list, sent instead of {@link TransactionResponse} rows when the client asks for
+ * {@value #MEDIA_TYPE} or CBOR: one array per field, products referenced by id and listed once in
+ * {@link #getProducts()}, and {@code createdAt} as epoch milliseconds in the server's time zone. Row {@code i} is
+ * {@code id[i]}, {@code productId[i]}, {@code quantity[i]} and so on.
+ */
+public class TransactionColumns {
+
+    public static final String MEDIA_TYPE = "application/vnd.kasir.columns+json";
+
+    private final long[] id;
+    private final Long[] productId;
+    private final Integer[] quantity;
+    private final BigDecimal[] totalPrice;
+    private final String[] transactionType;
+    private final Long[] createdAt;
+    private final String[] description;
+    private final List<TransactionResponse.ProductSummary> products;
+    private final String nextCursor;
+    private final boolean hasMore;
+
+    private TransactionColumns(List<TransactionResponse> rows, String nextCursor) {
+        int size = rows.size();
+        this.id = new long[size];
+        this.productId = new Long[size];
+        this.quantity = new Integer[size];
+        this.totalPrice = new BigDecimal[size];
+        this.transactionType = new String[size];
+        this.createdAt = new Long[size];
+        this.description = new String[size];
+        ZoneId zone = ZoneId.systemDefault();
+        Map<Long, TransactionResponse.ProductSummary> productsById = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            TransactionResponse row = rows.get(i);
+            id[i] = row.getId();
+            if (row.getProduct() != null) {
+                productId[i] = row.getProduct().getId();
+                productsById.putIfAbsent(productId[i], row.getProduct());
+            }
+            quantity[i] = row.getQuantity();
+            totalPrice[i] = row.getTotalPrice();
+            transactionType[i] = row.getTransactionType();
+            LocalDateTime at = row.getCreatedAt();
+            createdAt[i] = at != null ? at.atZone(zone).toInstant().toEpochMilli() : null;
+            description[i] = row.getDescription();
+        }
+        this.products = List.copyOf(productsById.values());
+        this.nextCursor = nextCursor;
+        this.hasMore = nextCursor != null;
+    }
+
+    public static TransactionColumns of(List<TransactionResponse> rows) {
+        return new TransactionColumns(rows, null);
+    }
+
+    public static TransactionColumns of(CursorPage<TransactionResponse> page) {
+        return new TransactionColumns(page.getItems(), page.getNextCursor());
+    }
+
+    public int getCount() {
+        return id.length;
+    }
+
+    public long[] getId() {
+        return id;
+    }
+
+    public Long[] getProductId() {
+        return productId;
+    }
+
+    public Integer[] getQuantity() {
+        return quantity;
+    }
+
+    public BigDecimal[] getTotalPrice() {
+        return totalPrice;
+    }
+
+    public String[] getTransactionType() {
+        return transactionType;
+    }
+
+    public Long[] getCreatedAt() {
+        return createdAt;
+    }
+
+    public String[] getDescription() {
+        return description;
+    }
+
+    public List<TransactionResponse.ProductSummary> getProducts() {
+        return products;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.Product;
+import com.example.demo.model.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Transaction as returned by the API: the product is reduced to the fields the UI shows.
+ */
+public class TransactionResponse {
+
+    private Long id;
+    private ProductSummary product;
+    private Integer quantity;
+    private BigDecimal totalPrice;
+    private String transactionType;
+    private LocalDateTime createdAt;
+    private String description;
+
+    public TransactionResponse() {}
+
+    public static TransactionResponse from(Transaction transaction) {
+        TransactionResponse response = new TransactionResponse();
+        response.setId(transaction.getId());
+        response.setProduct(ProductSummary.from(transaction.getProduct()));
+        response.setQuantity(transaction.getQuantity());
+        response.setTotalPrice(transaction.getTotalPrice());
+        response.setTransactionType(transaction.getTransactionType());
+        response.setCreatedAt(transaction.getCreatedAt());
+        response.setDescription(transaction.getDescription());
+        return response;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public ProductSummary getProduct() {
+        return product;
+    }
+
+    public void setProduct(ProductSummary product) {
+        this.product = product;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public BigDecimal getTotalPrice() {
+        return totalPrice;
+    }
+
+    public void setTotalPrice(BigDecimal totalPrice) {
+        this.totalPrice = totalPrice;
+    }
+
+    public String getTransactionType() {
+        return transactionType;
+    }
+
+    public void setTransactionType(String transactionType) {
+        this.transactionType = transactionType;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public static class ProductSummary {
+
+        private Long id;
+        private String name;
+        private Integer price;
+
+        public ProductSummary() {}
+
+        public ProductSummary(Long id, String name, Integer price) {
+            this.id = id;
+            this.name = name;
+            this.price = price;
+        }
+
+        public static ProductSummary from(Product product) {
+            return product != null ? new ProductSummary(product.getId(), product.getName(), product.getPrice()) : null;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Integer getPrice() {
+            return price;
+        }
+
+        public void setPrice(Integer price) {
+            this.price = price;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.demo.dto;
+
+import java.math.BigDecimal;
+
+public interface TransactionTypeSummary {
+
+    String getTransactionType();
+
+    Long getTransactionCount();
+
+    BigDecimal getTotalAmount();
+}
@@ -0,0 +1,48 @@
+package com.example.demo.event;
+
+import com.example.demo.dto.TransactionResponse;
+import com.example.demo.model.Transaction;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Published inside the transaction that changed stock or totals; listeners that want committed state subscribe
+ * with {@code @TransactionalEventListener}. Carries the new transactions, already reduced to their API form, and
+ * the ids of the products whose stock may have moved. Stock levels are deliberately not included: the values
+ * read inside concurrent transactions can commit out of order.
+ */
+public class InventoryChangedEvent {
+
+    private final List<TransactionResponse> transactions;
+    private final Set<Long> productIds;
+
+    private InventoryChangedEvent(List<TransactionResponse> transactions, Set<Long> productIds) {
+        this.transactions = transactions;
+        this.productIds = productIds;
+    }
+
+    public static InventoryChangedEvent recorded(Collection<Transaction> transactions) {
+        Set<Long> productIds = new LinkedHashSet<>();
+        for (Transaction transaction : transactions) {
+            if (transaction.getProduct() != null) {
+                productIds.add(transaction.getProduct().getId());
+            }
+        }
+        return new InventoryChangedEvent(transactions.stream().map(TransactionResponse::from).toList(), productIds);
+    }
+
+    public static InventoryChangedEvent changed(Long... productIds) {
+        return new InventoryChangedEvent(List.of(), new LinkedHashSet<>(List.of(productIds)));
+    }
+
+    public List<TransactionResponse> getTransactions() {
+        return transactions;
+    }
+
+    public Set<Long> getProductIds() {
+        return productIds;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.demo.exception;
+
+/**
+ * Thrown when a sale asks for more units than the product has in stock.
+ */
+public class InsufficientStockException extends RuntimeException {
+
+    public InsufficientStockException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.demo.exception;
+
+/**
+ * Thrown when a product or transaction referenced by id or name does not exist.
+ */
+public class ResourceNotFoundException extends RuntimeException {
+
+    public ResourceNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.demo.exception;
+
+/**
+ * Thrown when the write-behind sales queue is full; the sale was not accepted and can be retried.
+ */
+public class SalesBacklogFullException extends RuntimeException {
+
+    public SalesBacklogFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A transaction moved out of the hot {@code transactions} table by the archiver. Read-only: rows are written
+ * by a set-based INSERT ... SELECT and never changed afterwards.
+ */
+@Entity
+@Table(name = "transactions_archive", indexes = {
+        @Index(name = "idx_transactions_archive_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_transactions_archive_product_created_at_id", columnList = "product_id, created_at, id")
+})
+public class ArchivedTransaction {
+
+    @Id
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false, updatable = false)
+    private Product product;
+
+    @Column(nullable = false, updatable = false)
+    private Integer quantity;
+
+    @Column(nullable = false, updatable = false, precision = 10, scale = 2)
+    private BigDecimal totalPrice;
+
+    @Column(nullable = false, updatable = false)
+    private String transactionType;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(updatable = false)
+    private String description;
+
+    @Column(name = "journal_id", updatable = false)
+    private Long journalId;
+
+    @Column(name = "archived_at", nullable = false, updatable = false)
+    private LocalDateTime archivedAt;
+
+    public ArchivedTransaction() {}
+
+    /**
+     * The row as a detached {@link Transaction}, so archived and hot rows are served the same way.
+     */
+    public Transaction toTransaction() {
+        Transaction transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setProduct(product);
+        transaction.setQuantity(quantity);
+        transaction.setTotalPrice(totalPrice);
+        transaction.setTransactionType(transactionType);
+        transaction.setCreatedAt(createdAt);
+        transaction.setDescription(description);
+        transaction.setJournalId(journalId);
+        return transaction;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Product getProduct() {
+        return product;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public BigDecimal getTotalPrice() {
+        return totalPrice;
+    }
+
+    public String getTransactionType() {
+        return transactionType;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Long getJournalId() {
+        return journalId;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+}
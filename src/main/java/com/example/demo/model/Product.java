@@ -3,10 +3,13 @@ package com.example.demo.model;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products",
+       uniqueConstraints = @UniqueConstraint(name = "uk_products_name", columnNames = "name"),
+       indexes = @Index(name = "idx_products_stock", columnList = "stock"))
 public class Product {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -15,6 +18,10 @@ public class Product {
     private Integer price;
     private Integer stock;
 
+    // Stock level at or below which a low-stock alert fires; null falls back to app.alerts.default-reorder-threshold
+    @Column(name = "reorder_threshold")
+    private Integer reorderThreshold;
+
     // Constructor 
     public Product(){}
 
@@ -57,6 +64,14 @@ public class Product {
         this.stock = stock;
     }
 
+    public Integer getReorderThreshold() {
+        return reorderThreshold;
+    }
+
+    public void setReorderThreshold(Integer reorderThreshold) {
+        this.reorderThreshold = reorderThreshold;
+    }
+
     @Override
     public String toString() {
         return "Product{" +
@@ -64,6 +79,7 @@ public class Product {
                 ", name='" + name + '\'' +
                 ", price=" + price +
                 ", stock=" + stock +
+                ", reorderThreshold=" + reorderThreshold +
                 '}';
     }
 }
@@ -0,0 +1,77 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A write-behind sale that was acknowledged but could not be stored, keyed by its journal id.
+ */
+@Entity
+@Table(name = "rejected_sales")
+public class RejectedSale {
+
+    public static final int MAX_REASON_LENGTH = 1000;
+
+    @Id
+    @Column(name = "journal_id")
+    private Long journalId;
+
+    @Column(name = "product_id", nullable = false, updatable = false)
+    private Long productId;
+
+    @Column(nullable = false, updatable = false)
+    private Integer quantity;
+
+    @Column(name = "total_price", nullable = false, updatable = false, precision = 19, scale = 2)
+    private BigDecimal totalPrice;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false, updatable = false, length = MAX_REASON_LENGTH)
+    private String reason;
+
+    @Column(name = "rejected_at", nullable = false, updatable = false)
+    private LocalDateTime rejectedAt;
+
+    public RejectedSale() {}
+
+    public RejectedSale(Long journalId, Long productId, Integer quantity, BigDecimal totalPrice, LocalDateTime createdAt, String reason) {
+        this.journalId = journalId;
+        this.productId = productId;
+        this.quantity = quantity;
+        this.totalPrice = totalPrice;
+        this.createdAt = createdAt;
+        this.reason = reason.length() > MAX_REASON_LENGTH ? reason.substring(0, MAX_REASON_LENGTH) : reason;
+        this.rejectedAt = LocalDateTime.now();
+    }
+
+    public Long getJournalId() {
+        return journalId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public BigDecimal getTotalPrice() {
+        return totalPrice;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public LocalDateTime getRejectedAt() {
+        return rejectedAt;
+    }
+}
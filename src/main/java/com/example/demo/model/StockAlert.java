@@ -0,0 +1,81 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A product crossing its reorder threshold, in either direction. Raised once per crossing, not once per sale.
+ */
+@Entity
+@Table(name = "stock_alerts",
+       indexes = {
+           @Index(name = "idx_stock_alerts_created_at_id", columnList = "created_at, id"),
+           @Index(name = "idx_stock_alerts_product_created_at", columnList = "product_id, created_at")
+       })
+public class StockAlert {
+
+    public static final String LOW_STOCK = "LOW_STOCK";
+    public static final String OUT_OF_STOCK = "OUT_OF_STOCK";
+    public static final String RESTOCKED = "RESTOCKED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "product_name")
+    private String productName;
+
+    @Column(name = "alert_type", nullable = false, length = 16)
+    private String alertType;
+
+    @Column(nullable = false)
+    private Integer stock;
+
+    @Column(name = "reorder_threshold", nullable = false)
+    private Integer reorderThreshold;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public StockAlert() {}
+
+    public StockAlert(Long productId, String productName, String alertType, Integer stock, Integer reorderThreshold) {
+        this.productId = productId;
+        this.productName = productName;
+        this.alertType = alertType;
+        this.stock = stock;
+        this.reorderThreshold = reorderThreshold;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public String getAlertType() {
+        return alertType;
+    }
+
+    public Integer getStock() {
+        return stock;
+    }
+
+    public Integer getReorderThreshold() {
+        return reorderThreshold;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
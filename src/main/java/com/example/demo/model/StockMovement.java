@@ -0,0 +1,66 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One signed change to a product's stock. Rows are only ever inserted; a correction is a new movement.
+ */
+@Entity
+@Table(name = "stock_movements",
+       indexes = @Index(name = "idx_stock_movements_product_recorded_at", columnList = "product_id, recorded_at, id"))
+public class StockMovement {
+
+    public static final String OPENING = "OPENING";
+    public static final String SALE = "SALE";
+    public static final String PURCHASE = "PURCHASE";
+    public static final String REVERSAL = "REVERSAL";
+    public static final String ADJUSTMENT = "ADJUSTMENT";
+    public static final String RECONCILE = "RECONCILE";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false, updatable = false)
+    private Long productId;
+
+    @Column(nullable = false, updatable = false)
+    private Integer delta;
+
+    @Column(nullable = false, updatable = false, length = 16)
+    private String reason;
+
+    // The sale or purchase behind the movement; also set on the reversal when that transaction is edited or deleted
+    @Column(name = "transaction_id", updatable = false)
+    private Long transactionId;
+
+    @Column(name = "recorded_at", nullable = false, updatable = false)
+    private LocalDateTime recordedAt;
+
+    public StockMovement() {}
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public Integer getDelta() {
+        return delta;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public LocalDateTime getRecordedAt() {
+        return recordedAt;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A product's stock at {@code takenAt}: the previous snapshot plus every movement recorded after it, up to and
+ * including {@code takenAt}.
+ */
+@Entity
+@Table(name = "stock_snapshots",
+       uniqueConstraints = @UniqueConstraint(name = "uk_stock_snapshots_product_taken_at", columnNames = {"product_id", "taken_at"}))
+public class StockSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false, updatable = false)
+    private Long productId;
+
+    @Column(name = "taken_at", nullable = false, updatable = false)
+    private LocalDateTime takenAt;
+
+    @Column(nullable = false, updatable = false)
+    private Integer stock;
+
+    public StockSnapshot() {}
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public LocalDateTime getTakenAt() {
+        return takenAt;
+    }
+
+    public Integer getStock() {
+        return stock;
+    }
+}
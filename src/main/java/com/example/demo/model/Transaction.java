@@ -5,13 +5,20 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_transactions_type_created_at_id", columnList = "transaction_type, created_at, id"),
+        @Index(name = "idx_transactions_product_created_at_id", columnList = "product_id, created_at, id"),
+        @Index(name = "idx_transactions_product_type", columnList = "product_id, transaction_type"),
+        @Index(name = "uk_transactions_journal_id", columnList = "journal_id", unique = true)
+})
 public class Transaction {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_seq")
+    @SequenceGenerator(name = "transaction_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id", nullable = false)
     private Product product;
 
@@ -30,6 +37,10 @@ public class Transaction {
     @Column
     private String description;
 
+    // Set only for sales written from the write-behind journal
+    @Column(name = "journal_id", updatable = false)
+    private Long journalId;
+
     public Transaction() {}
 
     public Transaction(Product product, Integer quantity, BigDecimal totalPrice, String transactionType, String description) {
@@ -97,6 +108,14 @@ public class Transaction {
         this.description = description;
     }
 
+    public Long getJournalId() {
+        return journalId;
+    }
+
+    public void setJournalId(Long journalId) {
+        this.journalId = journalId;
+    }
+
     @Override
     public String toString() {
         return "Transaction{" +
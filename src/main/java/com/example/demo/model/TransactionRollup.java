@@ -0,0 +1,78 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Pre-aggregated transactions of one product and type within one hour or one day bucket.
+ */
+@Entity
+@Table(name = "transaction_rollups",
+       uniqueConstraints = @UniqueConstraint(name = "uk_transaction_rollups_bucket",
+               columnNames = {"granularity", "bucket_start", "product_id", "transaction_type"}),
+       indexes = @Index(name = "idx_transaction_rollups_product", columnList = "granularity, product_id, bucket_start"))
+public class TransactionRollup {
+
+    public static final String HOUR = "HOUR";
+    public static final String DAY = "DAY";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 8)
+    private String granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "transaction_type", nullable = false)
+    private String transactionType;
+
+    @Column(nullable = false)
+    private Long transactionCount;
+
+    @Column(nullable = false)
+    private Long totalQuantity;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalAmount;
+
+    public TransactionRollup() {}
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getGranularity() {
+        return granularity;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public String getTransactionType() {
+        return transactionType;
+    }
+
+    public Long getTransactionCount() {
+        return transactionCount;
+    }
+
+    public Long getTotalQuantity() {
+        return totalQuantity;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+}
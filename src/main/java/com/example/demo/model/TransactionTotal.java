@@ -0,0 +1,58 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+
+/**
+ * One stripe of the running count/quantity/amount for a transaction type. The totals of a type are the sum of
+ * its stripes; writers pick a stripe at random so concurrent sales do not all queue on the same row.
+ */
+@Entity
+@Table(name = "transaction_totals",
+       uniqueConstraints = @UniqueConstraint(name = "uk_transaction_totals_type_slot", columnNames = {"transaction_type", "slot"}))
+public class TransactionTotal {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "transaction_type", nullable = false)
+    private String transactionType;
+
+    @Column(nullable = false)
+    private Integer slot;
+
+    @Column(nullable = false)
+    private Long transactionCount;
+
+    @Column(nullable = false)
+    private Long totalQuantity;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalAmount;
+
+    public TransactionTotal() {}
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTransactionType() {
+        return transactionType;
+    }
+
+    public Integer getSlot() {
+        return slot;
+    }
+
+    public Long getTransactionCount() {
+        return transactionCount;
+    }
+
+    public Long getTotalQuantity() {
+        return totalQuantity;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.TransactionTypeSummary;
+import com.example.demo.model.ArchivedTransaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * The archive counterparts of the {@link TransactionRepository} reads that span hot and archived rows; see
+ * {@code TransactionArchiveService}.
+ */
+@Repository
+public interface ArchivedTransactionRepository extends JpaRepository<ArchivedTransaction, Long> {
+    
+    @Override
+    @EntityGraph(attributePaths = "product")
+    Optional<ArchivedTransaction> findById(Long id);
+    
+    @EntityGraph(attributePaths = "product")
+    @Query("SELECT t FROM ArchivedTransaction t WHERE t.createdAt BETWEEN :startDate AND :endDate " +
+           "AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id)) " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    List<ArchivedTransaction> findPageByCreatedAtBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate,
+                                                         @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+    
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + TransactionRepository.EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM ArchivedTransaction t JOIN FETCH t.product WHERE t.createdAt BETWEEN :startDate AND :endDate " +
+           "ORDER BY t.createdAt, t.id")
+    Stream<ArchivedTransaction> streamByCreatedAtBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    
+    @Query("SELECT t.transactionType AS transactionType, COUNT(t) AS transactionCount, SUM(t.totalPrice) AS totalAmount " +
+           "FROM ArchivedTransaction t GROUP BY t.transactionType")
+    List<TransactionTypeSummary> summarizeByTransactionType();
+    
+    // [productId, type, day, hour, count, quantity, amount]
+    @Query("SELECT t.product.id, t.transactionType, cast(t.createdAt as LocalDate), extract(hour from t.createdAt), " +
+           "COUNT(t), SUM(t.quantity), SUM(t.totalPrice) FROM ArchivedTransaction t " +
+           "GROUP BY t.product.id, t.transactionType, cast(t.createdAt as LocalDate), extract(hour from t.createdAt)")
+    List<Object[]> aggregateHourlyBuckets();
+    
+    // [type, count, quantity, amount]
+    @Query("SELECT t.transactionType, COUNT(t), SUM(t.quantity), SUM(t.totalPrice) FROM ArchivedTransaction t " +
+           "WHERE t.createdAt >= :start AND t.createdAt < :end GROUP BY t.transactionType")
+    List<Object[]> sumByTypeBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+    
+    @Query("SELECT t.transactionType, COUNT(t), SUM(t.quantity), SUM(t.totalPrice) FROM ArchivedTransaction t " +
+           "WHERE t.product.id = :productId AND t.createdAt >= :start AND t.createdAt < :end GROUP BY t.transactionType")
+    List<Object[]> sumByTypeBetweenForProduct(@Param("productId") Long productId,
+                                              @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+    
+    // [productId, count, quantity, amount]
+    @Query("SELECT t.product.id, COUNT(t), SUM(t.quantity), SUM(t.totalPrice) FROM ArchivedTransaction t " +
+           "WHERE t.transactionType = :type AND t.createdAt >= :start AND t.createdAt < :end GROUP BY t.product.id")
+    List<Object[]> sumByProductBetween(@Param("type") String type,
+                                       @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+    
+    @Query("SELECT MAX(t.journalId) FROM ArchivedTransaction t")
+    Long findMaxJournalId();
+    
+    @Query("SELECT MAX(t.createdAt) FROM ArchivedTransaction t")
+    LocalDateTime findMaxCreatedAt();
+}
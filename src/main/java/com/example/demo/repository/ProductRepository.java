@@ -1,11 +1,17 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.ProductStockSummary;
 import com.example.demo.model.Product;
+import org.springframework.data.domain.Limit;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +22,28 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     
     List<Product> findByNameContainingIgnoreCase(String name);
     
+    @Query("SELECT p.id, p.name FROM Product p")
+    List<Object[]> findAllIdsAndNames();
+    
+    // Import: [id, name, stock], locked until commit so the stock being overwritten is the stock the ledger sees
+    @Query(value = "SELECT id, name, stock FROM products WHERE name IN (:names) FOR UPDATE", nativeQuery = true)
+    List<Object[]> findStockByNameInForUpdate(@Param("names") Collection<String> names);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id = :id")
+    Optional<Product> findByIdForUpdate(@Param("id") Long id);
+    
+    // Low-stock monitor: [id, name, stock, reorderThreshold]
+    @Query("SELECT p.id, p.name, p.stock, p.reorderThreshold FROM Product p WHERE p.id IN :ids")
+    List<Object[]> findStockLevels(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT p.id, p.name, p.stock, p.reorderThreshold FROM Product p " +
+           "WHERE COALESCE(p.stock, 0) <= COALESCE(p.reorderThreshold, :defaultThreshold)")
+    List<Object[]> findStockLevelsAtOrBelowReorderThreshold(@Param("defaultThreshold") Integer defaultThreshold);
+    
+    @Query("SELECT p FROM Product p WHERE p.id > :afterId ORDER BY p.id")
+    List<Product> findPageAfter(@Param("afterId") Long afterId, Limit limit);
+    
     List<Product> findByPriceBetween(Integer minPrice, Integer maxPrice);
     
     List<Product> findByStockGreaterThan(Integer stock);
@@ -29,4 +57,19 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     long countInStockProducts();
     
     boolean existsByName(String name);
+    
+    // Conditional decrement: the row lock is held only for this statement, and 0 rows means not found or not enough stock
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE Product p SET p.stock = p.stock - :quantity WHERE p.id = :id AND p.stock >= :quantity")
+    int decrementStock(@Param("id") Long id, @Param("quantity") Integer quantity);
+    
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE Product p SET p.stock = p.stock + :quantity WHERE p.id = :id")
+    int incrementStock(@Param("id") Long id, @Param("quantity") Integer quantity);
+    
+    @Query("SELECT COUNT(p) AS totalProducts, " +
+           "COALESCE(SUM(CASE WHEN p.stock > 0 THEN 1 ELSE 0 END), 0) AS inStockProducts, " +
+           "COALESCE(SUM(CASE WHEN p.stock <= :threshold THEN 1 ELSE 0 END), 0) AS lowStockProducts " +
+           "FROM Product p")
+    ProductStockSummary summarizeStock(@Param("threshold") Integer threshold);
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.RejectedSale;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RejectedSaleRepository extends JpaRepository<RejectedSale, Long> {
+    
+    @Query("SELECT r.journalId FROM RejectedSale r WHERE r.journalId IN :journalIds")
+    List<Long> findExistingJournalIds(@Param("journalIds") Collection<Long> journalIds);
+}
@@ -0,0 +1,20 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.StockAlert;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface StockAlertRepository extends JpaRepository<StockAlert, Long> {
+    
+    @Query("SELECT a FROM StockAlert a ORDER BY a.createdAt DESC, a.id DESC")
+    List<StockAlert> findRecent(Limit limit);
+    
+    @Query("SELECT a FROM StockAlert a WHERE a.productId = :productId ORDER BY a.createdAt DESC, a.id DESC")
+    List<StockAlert> findRecentByProductId(@Param("productId") Long productId, Limit limit);
+}
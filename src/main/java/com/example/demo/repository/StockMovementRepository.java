@@ -0,0 +1,23 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.StockMovement;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
+    
+    @Query("SELECT m FROM StockMovement m WHERE m.productId = :productId ORDER BY m.recordedAt DESC, m.id DESC")
+    List<StockMovement> findRecentByProductId(@Param("productId") Long productId, Limit limit);
+    
+    // Movements in (after, upTo]; a null bound is open
+    @Query("SELECT COALESCE(SUM(m.delta), 0) FROM StockMovement m WHERE m.productId = :productId " +
+           "AND (:after IS NULL OR m.recordedAt > :after) AND (:upTo IS NULL OR m.recordedAt <= :upTo)")
+    long sumDelta(@Param("productId") Long productId, @Param("after") LocalDateTime after, @Param("upTo") LocalDateTime upTo);
+}
@@ -0,0 +1,20 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.StockSnapshot;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StockSnapshotRepository extends JpaRepository<StockSnapshot, Long> {
+    
+    // Latest first; a null bound means the latest overall
+    @Query("SELECT s FROM StockSnapshot s WHERE s.productId = :productId AND (:at IS NULL OR s.takenAt <= :at) " +
+           "ORDER BY s.takenAt DESC")
+    List<StockSnapshot> findLatest(@Param("productId") Long productId, @Param("at") LocalDateTime at, Limit limit);
+}
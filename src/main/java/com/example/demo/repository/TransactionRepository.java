@@ -1,30 +1,57 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.TransactionTypeSummary;
 import com.example.demo.model.Transaction;
 import com.example.demo.model.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
     
+    int EXPORT_FETCH_SIZE = 500;
+    
+    // Every read that returns transactions fetches the product in the same select (no N+1)
+    @Override
+    @EntityGraph(attributePaths = "product")
+    Optional<Transaction> findById(Long id);
+    
+    @Override
+    @EntityGraph(attributePaths = "product")
+    List<Transaction> findAll();
+    
+    @EntityGraph(attributePaths = "product")
     List<Transaction> findByProductId(Long productId);
     
+    @EntityGraph(attributePaths = "product")
     List<Transaction> findByProduct(Product product);
     
+    @EntityGraph(attributePaths = "product")
     List<Transaction> findByTransactionType(String transactionType);
     
+    @EntityGraph(attributePaths = "product")
     List<Transaction> findByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate);
     
+    @EntityGraph(attributePaths = "product")
     List<Transaction> findByCreatedAtAfter(LocalDateTime startDate);
     
+    @EntityGraph(attributePaths = "product")
     List<Transaction> findByCreatedAtBefore(LocalDateTime endDate);
     
+    @EntityGraph(attributePaths = "product")
     @Query("SELECT t FROM Transaction t WHERE t.product.id = :productId AND t.transactionType = :type")
     List<Transaction> findByProductAndTransactionType(@Param("productId") Long productId, @Param("type") String type);
     
@@ -37,5 +64,81 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     @Query("SELECT SUM(t.totalPrice) FROM Transaction t WHERE t.transactionType = 'PURCHASE'")
     java.math.BigDecimal sumTotalPurchases();
     
+    @EntityGraph(attributePaths = "product")
     List<Transaction> findTop10ByOrderByCreatedAtDesc();
+    
+    // Keyset pages ordered by (createdAt DESC, id DESC); rows strictly after the given position
+    @EntityGraph(attributePaths = "product")
+    @Query("SELECT t FROM Transaction t " +
+           "WHERE t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id) " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    List<Transaction> findPage(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+    
+    @EntityGraph(attributePaths = "product")
+    @Query("SELECT t FROM Transaction t WHERE t.transactionType = :type " +
+           "AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id)) " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    List<Transaction> findPageByTransactionType(@Param("type") String type,
+                                                @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+    
+    @EntityGraph(attributePaths = "product")
+    @Query("SELECT t FROM Transaction t WHERE t.product.id = :productId " +
+           "AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id)) " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    List<Transaction> findPageByProductId(@Param("productId") Long productId,
+                                          @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+    
+    @EntityGraph(attributePaths = "product")
+    @Query("SELECT t FROM Transaction t WHERE t.createdAt BETWEEN :startDate AND :endDate " +
+           "AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id)) " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    List<Transaction> findPageByCreatedAtBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate,
+                                                 @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+    
+    @Query("SELECT t.transactionType AS transactionType, COUNT(t) AS transactionCount, SUM(t.totalPrice) AS totalAmount " +
+           "FROM Transaction t GROUP BY t.transactionType")
+    List<TransactionTypeSummary> summarizeByTransactionType();
+    
+    // Hourly buckets per product and type, used to rebuild the running totals and rollups from scratch:
+    // [productId, type, day, hour, count, quantity, amount]
+    @Query("SELECT t.product.id, t.transactionType, cast(t.createdAt as LocalDate), extract(hour from t.createdAt), " +
+           "COUNT(t), SUM(t.quantity), SUM(t.totalPrice) FROM Transaction t " +
+           "GROUP BY t.product.id, t.transactionType, cast(t.createdAt as LocalDate), extract(hour from t.createdAt)")
+    List<Object[]> aggregateHourlyBuckets();
+    
+    // Analytics over the partial-hour edges of a range that the rollups cannot answer: [type, count, quantity, amount]
+    @Query("SELECT t.transactionType, COUNT(t), SUM(t.quantity), SUM(t.totalPrice) FROM Transaction t " +
+           "WHERE t.createdAt >= :start AND t.createdAt < :end GROUP BY t.transactionType")
+    List<Object[]> sumByTypeBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+    
+    @Query("SELECT t.transactionType, COUNT(t), SUM(t.quantity), SUM(t.totalPrice) FROM Transaction t " +
+           "WHERE t.product.id = :productId AND t.createdAt >= :start AND t.createdAt < :end GROUP BY t.transactionType")
+    List<Object[]> sumByTypeBetweenForProduct(@Param("productId") Long productId,
+                                              @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+    
+    // [productId, count, quantity, amount]
+    @Query("SELECT t.product.id, COUNT(t), SUM(t.quantity), SUM(t.totalPrice) FROM Transaction t " +
+           "WHERE t.transactionType = :type AND t.createdAt >= :start AND t.createdAt < :end GROUP BY t.product.id")
+    List<Object[]> sumByProductBetween(@Param("type") String type,
+                                       @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+    
+    // Export: rows in (createdAt, id) order, pulled from the driver a batch at a time and not tracked for dirty checking.
+    // The caller must consume the stream inside a transaction and close it.
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Transaction t JOIN FETCH t.product WHERE t.createdAt BETWEEN :startDate AND :endDate " +
+           "ORDER BY t.createdAt, t.id")
+    Stream<Transaction> streamByCreatedAtBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    
+    // Write-behind journal: which entries already reached the table, and the sale written for an entry
+    @Query("SELECT t.journalId FROM Transaction t WHERE t.journalId IN :journalIds")
+    List<Long> findExistingJournalIds(@Param("journalIds") Collection<Long> journalIds);
+    
+    @Query("SELECT MAX(t.journalId) FROM Transaction t")
+    Long findMaxJournalId();
+    
+    @EntityGraph(attributePaths = "product")
+    Optional<Transaction> findByJournalId(Long journalId);
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.TransactionRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TransactionRollupRepository extends JpaRepository<TransactionRollup, Long> {
+    
+    @Query("SELECT COALESCE(SUM(r.totalAmount), 0) FROM TransactionRollup r " +
+           "WHERE r.granularity = :granularity AND r.transactionType = :type")
+    BigDecimal sumTotalAmount(@Param("granularity") String granularity, @Param("type") String type);
+    
+    @Query("SELECT COALESCE(SUM(r.transactionCount), 0) FROM TransactionRollup r " +
+           "WHERE r.granularity = :granularity AND r.transactionType = :type")
+    long sumTransactionCount(@Param("granularity") String granularity, @Param("type") String type);
+    
+    // Analytics over whole buckets in [start, end): [bucketStart, type, count, quantity, amount]
+    @Query("SELECT r.bucketStart, r.transactionType, SUM(r.transactionCount), SUM(r.totalQuantity), SUM(r.totalAmount) " +
+           "FROM TransactionRollup r WHERE r.granularity = :granularity AND r.bucketStart >= :start AND r.bucketStart < :end " +
+           "GROUP BY r.bucketStart, r.transactionType")
+    List<Object[]> sumByBucket(@Param("granularity") String granularity,
+                               @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+    
+    @Query("SELECT r.bucketStart, r.transactionType, r.transactionCount, r.totalQuantity, r.totalAmount " +
+           "FROM TransactionRollup r WHERE r.granularity = :granularity AND r.productId = :productId " +
+           "AND r.bucketStart >= :start AND r.bucketStart < :end")
+    List<Object[]> findProductBuckets(@Param("granularity") String granularity, @Param("productId") Long productId,
+                                      @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+    
+    // [productId, count, quantity, amount]
+    @Query("SELECT r.productId, SUM(r.transactionCount), SUM(r.totalQuantity), SUM(r.totalAmount) FROM TransactionRollup r " +
+           "WHERE r.granularity = :granularity AND r.transactionType = :type AND r.bucketStart >= :start AND r.bucketStart < :end " +
+           "GROUP BY r.productId")
+    List<Object[]> sumByProduct(@Param("granularity") String granularity, @Param("type") String type,
+                                @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+}
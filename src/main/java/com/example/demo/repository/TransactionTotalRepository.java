@@ -0,0 +1,22 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.TransactionTotal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+
+@Repository
+public interface TransactionTotalRepository extends JpaRepository<TransactionTotal, Long> {
+    
+    @Query("SELECT COALESCE(SUM(t.transactionCount), 0) FROM TransactionTotal t WHERE t.transactionType = :type")
+    long sumTransactionCount(@Param("type") String type);
+    
+    @Query("SELECT COALESCE(SUM(t.totalAmount), 0) FROM TransactionTotal t WHERE t.transactionType = :type")
+    BigDecimal sumTotalAmount(@Param("type") String type);
+    
+    @Query("SELECT COALESCE(SUM(t.transactionCount), 0) FROM TransactionTotal t")
+    long sumAllTransactionCount();
+}
@@ -0,0 +1,181 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.TokenResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Issues and verifies the bearer tokens of the stateless API filter chain. A client proves its password once,
+ * at {@code POST /api/auth/token}, and then sends a short-lived token signed with HMAC-SHA256, so a request
+ * costs one MAC over a few dozen bytes instead of a user lookup and a password hash check, and no HTTP session
+ * is created or looked up.
+ *
+ * <p>A token is {@code base64url(expiry \n username \n authorities) "." base64url(mac)}. The roles are fixed when
+ * the token is issued; role changes and password resets take effect when it expires ({@code app.auth.token.ttl}).
+ * Verified tokens are cached with their {@link Authentication}, so a till's repeated requests skip even the MAC.
+ */
+@Service
+public class ApiTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(ApiTokenService.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final Duration ttl;
+    private final Cache<String, VerifiedToken> verified;
+    private final AuthenticationProvider passwordCheck;
+
+    private Clock clock = Clock.systemUTC();
+
+    private record VerifiedToken(Authentication authentication, Instant expiresAt) {
+    }
+
+    // lazy: the user store is only auto-configured for web applications, and only needed to log in
+    @Autowired
+    public ApiTokenService(@Lazy UserDetailsService userDetailsService,
+                           @Value("${app.auth.token.secret:}") String secret,
+                           @Value("${app.auth.token.ttl:15m}") Duration ttl,
+                           @Value("${app.auth.token.cache-size:10000}") long cacheSize) {
+        byte[] keyBytes;
+        if (secret.isBlank()) {
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+            log.warn("app.auth.token.secret is not set; using a random key, so API tokens do not survive a restart "
+                    + "and are not accepted by other instances");
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+            if (keyBytes.length < 32) {
+                throw new IllegalStateException("app.auth.token.secret must be at least 32 bytes");
+            }
+        }
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+        this.ttl = ttl;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.passwordCheck = new DaoAuthenticationProvider(userDetailsService);
+    }
+
+    @Autowired
+    public void bindMetrics(MeterRegistry meterRegistry) {
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, "auth.tokens");
+    }
+
+    void setClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Checks the password and issues a token for the user.
+     *
+     * @throws AuthenticationException if the credentials are wrong
+     */
+    public TokenResponse login(String username, String password) {
+        if (username == null || username.isBlank() || password == null) {
+            throw new IllegalArgumentException("username and password are required");
+        }
+        Authentication authentication = passwordCheck.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated(username, password));
+        return issue(authentication);
+    }
+
+    /**
+     * Issues a token for an already authenticated user, e.g. the form-login session of the web UI.
+     */
+    public TokenResponse issue(Authentication authentication) {
+        Instant expiresAt = clock.instant().plus(ttl);
+        List<String> authorities = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+        String payload = expiresAt.getEpochSecond() + "\n" + authentication.getName() + "\n" + String.join(",", authorities);
+        String encodedPayload = ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        String token = encodedPayload + "." + ENCODER.encodeToString(mac(encodedPayload));
+        return new TokenResponse(token, ttl.toSeconds(), expiresAt);
+    }
+
+    /**
+     * Returns the authentication the token was issued for, or {@code null} if it is malformed, forged or expired.
+     */
+    public Authentication authenticate(String token) {
+        VerifiedToken entry = verified.getIfPresent(token);
+        if (entry == null) {
+            entry = verify(token);
+            if (entry == null) {
+                return null;
+            }
+            verified.put(token, entry);
+        }
+        if (!clock.instant().isBefore(entry.expiresAt())) {
+            verified.invalidate(token);
+            return null;
+        }
+        return entry.authentication();
+    }
+
+    private VerifiedToken verify(String token) {
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot != token.lastIndexOf('.')) {
+            return null;
+        }
+        String encodedPayload = token.substring(0, dot);
+        try {
+            if (!MessageDigest.isEqual(mac(encodedPayload), DECODER.decode(token.substring(dot + 1)))) {
+                return null;
+            }
+            String[] fields = new String(DECODER.decode(encodedPayload), StandardCharsets.UTF_8).split("\n", -1);
+            if (fields.length != 3) {
+                return null;
+            }
+            Instant expiresAt = Instant.ofEpochSecond(Long.parseLong(fields[0]));
+            Authentication authentication = UsernamePasswordAuthenticationToken.authenticated(fields[1], null,
+                    fields[2].isEmpty() ? List.of() : AuthorityUtils.commaSeparatedStringToAuthorityList(fields[2]));
+            return new VerifiedToken(authentication, expiresAt);
+        } catch (IllegalArgumentException e) {
+            // not base64, or a non-numeric expiry
+            return null;
+        }
+    }
+
+    private byte[] mac(String encodedPayload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(encodedPayload.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+}
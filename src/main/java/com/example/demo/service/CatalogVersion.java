@@ -0,0 +1,57 @@
+package com.example.demo.service;
+
+import com.example.demo.event.InventoryChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A counter that moves whenever anything behind the catalog and stats endpoints may have changed, used as their
+ * ETag. Every product or transaction write already publishes an {@link InventoryChangedEvent}; it is heard
+ * here synchronously, inside the writing transaction, and the counter is bumped then and again after commit, the
+ * same way {@link ProductCache} evicts. A reader that reads the version before its query can then never pair a new
+ * version with pre-commit data. The ETag also carries a random per-start epoch, so a tag issued before a restart
+ * never matches a counter that has started over. The tag is weak: it names the data, not the bytes, and Tomcat
+ * will not gzip a response that carries a strong one.
+ */
+@Component
+public class CatalogVersion {
+
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() >>> 1, 36);
+    private final AtomicLong version = new AtomicLong();
+
+    @EventListener
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        bump();
+    }
+
+    /**
+     * For writes that change catalog or totals state without an {@link InventoryChangedEvent}.
+     */
+    public void bump() {
+        version.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    version.incrementAndGet();
+                }
+            });
+        }
+    }
+
+    public long get() {
+        return version.get();
+    }
+
+    /**
+     * The current version as a weak entity tag; {@code If-None-Match} compares weakly, so it still yields 304s.
+     */
+    public String etag() {
+        return "W/\"" + epoch + "-" + version.get() + "\"";
+    }
+}
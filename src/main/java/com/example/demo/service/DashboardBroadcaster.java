@@ -0,0 +1,222 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.DashboardDelta;
+import com.example.demo.dto.TransactionResponse;
+import com.example.demo.event.InventoryChangedEvent;
+import com.example.demo.model.Product;
+import com.example.demo.model.StockAlert;
+import com.example.demo.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fans committed inventory changes out to every open dashboard stream. Changes are collected as they commit and
+ * pushed once per {@code flush-interval}: each tick reads the touched products' stock and the dashboard totals
+ * once, however many dashboards are connected, and sends every client the same small delta.
+ *
+ * <p>Writes to the clients run on a pool of their own rather than the application task executor, which blocks
+ * its caller when it is at its limit (as under the {@code vthreads} profile) and would stall the flush. The pool
+ * is bounded and refuses work instead of queueing without limit; a client whose write is refused is dropped.
+ */
+@Service
+public class DashboardBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardBroadcaster.class);
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Value("${app.dashboard.stream.max-transactions:20}")
+    private int maxTransactions;
+
+    @Value("${app.dashboard.stream.timeout:30m}")
+    private Duration timeout;
+
+    @Value("${app.dashboard.stream.heartbeat:20s}")
+    private Duration heartbeat;
+
+    @Value("${app.dashboard.stream.stall-timeout:30s}")
+    private Duration stallTimeout;
+
+    @Value("${app.dashboard.stream.send-threads:8}")
+    private int sendThreads;
+
+    @Value("${app.dashboard.stream.send-queue:1000}")
+    private int sendQueue;
+
+    private ThreadPoolExecutor executor;
+
+    private final List<DashboardSubscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    private final Object lock = new Object();
+    private List<TransactionResponse> pendingTransactions = new ArrayList<>();
+    private Set<Long> pendingProductIds = new LinkedHashSet<>();
+    private List<StockAlert> pendingAlerts = new ArrayList<>();
+    private int pendingSkipped;
+
+    @PostConstruct
+    void start() {
+        executor = new ThreadPoolExecutor(sendThreads, sendThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(sendQueue), new CustomizableThreadFactory("dashboard-stream-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    @Autowired
+    void bindMetrics(MeterRegistry meterRegistry) {
+        Gauge.builder("kasir.dashboard.subscribers", subscribers, List::size)
+                .description("Dashboards connected to the event stream")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream that starts with the current totals and then receives a delta whenever inventory changes.
+     */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        DashboardSubscriber subscriber = new DashboardSubscriber(emitter, executor, maxTransactions);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        subscribers.add(subscriber);
+
+        DashboardDelta snapshot = new DashboardDelta();
+        snapshot.setStats(dashboardService.getDashboardStats(DashboardService.DEFAULT_LOW_STOCK_THRESHOLD));
+        subscriber.offer(snapshot);
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        synchronized (lock) {
+            pendingTransactions.addAll(event.getTransactions());
+            int excess = pendingTransactions.size() - maxTransactions;
+            if (excess > 0) {
+                pendingTransactions.subList(0, excess).clear();
+                pendingSkipped += excess;
+            }
+            pendingProductIds.addAll(event.getProductIds());
+        }
+    }
+
+    /**
+     * Queues alerts for the next push; alerts raised while no dashboard is connected are not replayed.
+     */
+    public void publishAlerts(List<StockAlert> alerts) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        synchronized (lock) {
+            pendingAlerts.addAll(alerts);
+            int excess = pendingAlerts.size() - DashboardDelta.MAX_ALERTS;
+            if (excess > 0) {
+                pendingAlerts.subList(0, excess).clear();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.dashboard.stream.flush-interval:500ms}")
+    public void flush() {
+        List<TransactionResponse> transactions;
+        Set<Long> productIds;
+        List<StockAlert> alerts;
+        int skipped;
+        synchronized (lock) {
+            transactions = pendingTransactions;
+            productIds = pendingProductIds;
+            alerts = pendingAlerts;
+            skipped = pendingSkipped;
+            pendingTransactions = new ArrayList<>();
+            pendingProductIds = new LinkedHashSet<>();
+            pendingAlerts = new ArrayList<>();
+            pendingSkipped = 0;
+        }
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        dropStalledSubscribers();
+
+        if (transactions.isEmpty() && productIds.isEmpty() && alerts.isEmpty()) {
+            long idle = heartbeat.toNanos();
+            for (DashboardSubscriber subscriber : subscribers) {
+                if (subscriber.nanosSinceLastSend() > idle) {
+                    subscriber.heartbeat();
+                }
+            }
+            return;
+        }
+
+        DashboardDelta delta = new DashboardDelta();
+        delta.setTransactions(transactions);
+        delta.setSkippedTransactions(skipped);
+        delta.setAlerts(alerts);
+        delta.setStock(currentStock(productIds));
+        delta.setStats(dashboardService.getDashboardStats(DashboardService.DEFAULT_LOW_STOCK_THRESHOLD));
+        for (DashboardSubscriber subscriber : subscribers) {
+            subscriber.offer(delta);
+        }
+    }
+
+    private Map<Long, Integer> currentStock(Set<Long> productIds) {
+        Map<Long, Integer> stock = new LinkedHashMap<>();
+        productIds.forEach(id -> stock.put(id, null));
+        for (Product product : productRepository.findAllById(productIds)) {
+            stock.put(product.getId(), product.getStock());
+        }
+        return stock;
+    }
+
+    private void dropStalledSubscribers() {
+        long stalled = stallTimeout.toNanos();
+        for (DashboardSubscriber subscriber : subscribers) {
+            if (subscriber.stalledFor(stalled)) {
+                log.warn("Dropping dashboard stream that has not accepted a write for {} or could not be scheduled", stallTimeout);
+                remove(subscriber);
+                subscriber.emitter().complete();
+            }
+        }
+    }
+
+    private void remove(DashboardSubscriber subscriber) {
+        subscriber.close();
+        subscribers.remove(subscriber);
+    }
+}
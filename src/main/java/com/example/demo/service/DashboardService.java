@@ -0,0 +1,40 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.DashboardStats;
+import com.example.demo.dto.ProductStockSummary;
+import com.example.demo.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class DashboardService {
+
+    public static final int DEFAULT_LOW_STOCK_THRESHOLD = 10;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTotalsService transactionTotalsService;
+
+    @Transactional(readOnly = true)
+    public DashboardStats getDashboardStats(Integer lowStockThreshold) {
+        DashboardStats stats = new DashboardStats();
+
+        ProductStockSummary stock = productRepository.summarizeStock(lowStockThreshold);
+        stats.setTotalProducts(stock.getTotalProducts());
+        stats.setInStockProducts(stock.getInStockProducts());
+        stats.setLowStockProducts(stock.getLowStockProducts());
+        stats.setOutOfStockProducts(stock.getTotalProducts() - stock.getInStockProducts());
+
+        stats.setSales(transactionTotalsService.getTransactionCount("SALE"));
+        stats.setTotalSales(transactionTotalsService.getTotalAmount("SALE"));
+        stats.setPurchases(transactionTotalsService.getTransactionCount("PURCHASE"));
+        stats.setTotalPurchases(transactionTotalsService.getTotalAmount("PURCHASE"));
+        stats.setTotalTransactions(transactionTotalsService.getTotalTransactionCount());
+        stats.setNetRevenue(stats.getTotalSales().subtract(stats.getTotalPurchases()));
+
+        return stats;
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.DashboardDelta;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * One connected dashboard. At most one write is in flight per client; pushes that arrive meanwhile are
+ * coalesced into a single pending delta, so a slow client receives fewer, larger updates and never holds up
+ * the broadcaster or the other clients. Writes run on a bounded executor; when it refuses one, the client is
+ * treated as stalled and dropped at the next flush.
+ */
+class DashboardSubscriber {
+
+    private final SseEmitter emitter;
+    private final Executor executor;
+    private final int maxTransactions;
+
+    private DashboardDelta pending;
+    private boolean heartbeatPending;
+    private boolean sending;
+    private boolean closed;
+    private boolean rejected;
+    private long busySince;
+    private volatile long lastSentAt = System.nanoTime();
+
+    DashboardSubscriber(SseEmitter emitter, Executor executor, int maxTransactions) {
+        this.emitter = emitter;
+        this.executor = executor;
+        this.maxTransactions = maxTransactions;
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    void offer(DashboardDelta delta) {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            pending = pending == null ? delta : DashboardDelta.coalesce(pending, delta, maxTransactions);
+            if (!startSending()) {
+                return;
+            }
+        }
+        schedule();
+    }
+
+    void heartbeat() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            heartbeatPending = true;
+            if (!startSending()) {
+                return;
+            }
+        }
+        schedule();
+    }
+
+    /**
+     * True when a write has been in flight for longer than {@code nanos}, or could not be scheduled at all.
+     */
+    synchronized boolean stalledFor(long nanos) {
+        return rejected || (sending && System.nanoTime() - busySince > nanos);
+    }
+
+    long nanosSinceLastSend() {
+        return System.nanoTime() - lastSentAt;
+    }
+
+    synchronized void close() {
+        closed = true;
+        pending = null;
+    }
+
+    private void schedule() {
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            // sending stays set, so nothing else is scheduled for this client until it is dropped
+            synchronized (this) {
+                rejected = true;
+                pending = null;
+            }
+        }
+    }
+
+    private boolean startSending() {
+        if (sending) {
+            return false;
+        }
+        sending = true;
+        busySince = System.nanoTime();
+        return true;
+    }
+
+    private void drain() {
+        while (true) {
+            DashboardDelta delta;
+            boolean heartbeat;
+            synchronized (this) {
+                if (closed || (pending == null && !heartbeatPending)) {
+                    sending = false;
+                    return;
+                }
+                delta = pending;
+                heartbeat = heartbeatPending;
+                pending = null;
+                heartbeatPending = false;
+                busySince = System.nanoTime();
+            }
+            try {
+                if (delta != null) {
+                    emitter.send(SseEmitter.event().name("delta").data(delta, MediaType.APPLICATION_JSON));
+                } else if (heartbeat) {
+                    emitter.send(SseEmitter.event().comment("keep-alive"));
+                }
+                lastSentAt = System.nanoTime();
+            } catch (IOException | IllegalStateException e) {
+                close();
+                emitter.completeWithError(e);
+                synchronized (this) {
+                    sending = false;
+                }
+                return;
+            }
+        }
+    }
+}
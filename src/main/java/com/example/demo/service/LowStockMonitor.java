@@ -0,0 +1,174 @@
+package com.example.demo.service;
+
+import com.example.demo.event.InventoryChangedEvent;
+import com.example.demo.model.StockAlert;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.StockAlertRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the set of products at or below their reorder threshold in memory and raises an alert each time a
+ * product crosses it. Only products named by a committed {@link InventoryChangedEvent} are re-evaluated: their
+ * ids are collected as changes commit and their stock is read once per {@code app.alerts.flush-interval},
+ * so a sale costs one set insert plus its share of one indexed lookup, never a scan of the products table.
+ * The full scan happens once, at startup, to seed the set.
+ */
+@Service
+public class LowStockMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(LowStockMonitor.class);
+
+    private static final int LOOKUP_CHUNK = 1000;
+
+    enum Level { OK, LOW, OUT }
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockAlertRepository stockAlertRepository;
+
+    @Autowired
+    private DashboardBroadcaster dashboardBroadcaster;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.alerts.default-reorder-threshold:" + DashboardService.DEFAULT_LOW_STOCK_THRESHOLD + "}")
+    private int defaultReorderThreshold;
+
+    // products that are not OK; absent means OK
+    private final Map<Long, Level> levels = new ConcurrentHashMap<>();
+
+    private final Object lock = new Object();
+    private Set<Long> pendingProductIds = new LinkedHashSet<>();
+
+    private Counter alertCounter;
+
+    @PostConstruct
+    void start() {
+        for (Object[] row : productRepository.findStockLevelsAtOrBelowReorderThreshold(defaultReorderThreshold)) {
+            Level level = level((Integer) row[2], (Integer) row[3]);
+            if (level != Level.OK) {
+                levels.put((Long) row[0], level);
+            }
+        }
+        Gauge.builder("kasir.stock.low", levels, map -> map.values().stream().filter(Level.LOW::equals).count())
+                .description("Products at or below their reorder threshold but not sold out")
+                .register(meterRegistry);
+        Gauge.builder("kasir.stock.out", levels, map -> map.values().stream().filter(Level.OUT::equals).count())
+                .description("Products with no stock left")
+                .register(meterRegistry);
+        alertCounter = Counter.builder("kasir.stock.alerts")
+                .description("Low-stock, out-of-stock and restock alerts raised")
+                .register(meterRegistry);
+        log.info("Low-stock monitor started with {} products at or below their reorder threshold", levels.size());
+    }
+
+    @TransactionalEventListener
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        synchronized (lock) {
+            pendingProductIds.addAll(event.getProductIds());
+        }
+    }
+
+    /**
+     * Ids of the products currently at or below their reorder threshold, sold-out ones included.
+     */
+    public Set<Long> getLowStockProductIds() {
+        return new HashSet<>(levels.keySet());
+    }
+
+    public List<StockAlert> getRecentAlerts(Long productId, int limit) {
+        return productId == null
+                ? stockAlertRepository.findRecent(Limit.of(limit))
+                : stockAlertRepository.findRecentByProductId(productId, Limit.of(limit));
+    }
+
+    /**
+     * Re-reads the stock of every product changed since the last run and records one alert per threshold
+     * crossing; products that stay low, or sell out further, do not alert again.
+     */
+    @Scheduled(fixedDelayString = "${app.alerts.flush-interval:500ms}")
+    public synchronized void flush() {
+        Set<Long> productIds;
+        synchronized (lock) {
+            if (pendingProductIds.isEmpty()) {
+                return;
+            }
+            productIds = pendingProductIds;
+            pendingProductIds = new LinkedHashSet<>();
+        }
+
+        List<StockAlert> alerts = new ArrayList<>();
+        Set<Long> missing = new HashSet<>(productIds);
+        List<Object[]> rows = new ArrayList<>(productIds.size());
+        List<Long> ids = new ArrayList<>(productIds);
+        for (int from = 0; from < ids.size(); from += LOOKUP_CHUNK) {
+            rows.addAll(productRepository.findStockLevels(ids.subList(from, Math.min(from + LOOKUP_CHUNK, ids.size()))));
+        }
+        for (Object[] row : rows) {
+            Long id = (Long) row[0];
+            missing.remove(id);
+            Integer stock = (Integer) row[2];
+            Integer threshold = threshold((Integer) row[3]);
+            Level level = level(stock, (Integer) row[3]);
+            Level previous = level == Level.OK ? levels.remove(id) : levels.put(id, level);
+            String alertType = alertType(previous != null ? previous : Level.OK, level);
+            if (alertType != null) {
+                alerts.add(new StockAlert(id, (String) row[1], alertType, stock != null ? stock : 0, threshold));
+            }
+        }
+        // deleted products
+        missing.forEach(levels::remove);
+
+        if (!alerts.isEmpty()) {
+            List<StockAlert> saved = stockAlertRepository.saveAll(alerts);
+            alertCounter.increment(saved.size());
+            dashboardBroadcaster.publishAlerts(saved);
+        }
+    }
+
+    private static String alertType(Level previous, Level level) {
+        if (previous == level) {
+            return null;
+        }
+        return switch (level) {
+            case OUT -> StockAlert.OUT_OF_STOCK;
+            case OK -> StockAlert.RESTOCKED;
+            // a partial restock of a sold-out product is still low; it was already alerted when it went out
+            case LOW -> previous == Level.OK ? StockAlert.LOW_STOCK : null;
+        };
+    }
+
+    private Level level(Integer stock, Integer reorderThreshold) {
+        int units = stock != null ? stock : 0;
+        if (units <= 0) {
+            return Level.OUT;
+        }
+        return units <= threshold(reorderThreshold) ? Level.LOW : Level.OK;
+    }
+
+    private int threshold(Integer reorderThreshold) {
+        return reorderThreshold != null ? reorderThreshold : defaultReorderThreshold;
+    }
+}
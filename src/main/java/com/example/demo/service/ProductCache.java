@@ -0,0 +1,219 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.CacheStats;
+import com.example.demo.model.Product;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bounded read cache for the product catalog: lookups by id and by name plus the in-stock / out-of-stock lists.
+ *
+ * <p>Every write that touches a product must call {@link #evict(Long)} (or {@link #evictViews()} for catalog-wide
+ * changes). Entries are dropped immediately and again after the surrounding transaction commits. Each eviction
+ * also bumps a stamp, and a loaded value is only stored if no eviction touched it while it was being read; otherwise
+ * a reader that fetched the pre-commit row could put it back after the post-commit eviction and serve stale stock
+ * until expiry. The sale path never reads from here; it checks stock with a conditional UPDATE.
+ */
+@Component
+public class ProductCache {
+
+    public static final String IN_STOCK = "in-stock";
+    public static final String OUT_OF_STOCK = "out-of-stock";
+
+    private static final int STAMP_STRIPES = 1024;
+
+    private final Cache<Long, Product> byId;
+    private final Cache<String, Long> idsByName;
+    private final Cache<String, List<Product>> views;
+    /** Bumped when a product in the stripe is evicted; guards loads by id. */
+    private final AtomicLongArray idStamps = new AtomicLongArray(STAMP_STRIPES);
+    /** Bumped on every eviction; guards loads whose key is not known up front (by name) and the views. */
+    private final AtomicLong generation = new AtomicLong();
+
+    public ProductCache(@Value("${app.cache.products.max-size:10000}") long maxSize,
+                        @Value("${app.cache.products.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.idsByName = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.views = Caffeine.newBuilder()
+                .maximumSize(8)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Publishes hit/miss/eviction counters and sizes as {@code cache.*} meters tagged {@code cache=products.<name>}.
+     */
+    @Autowired
+    public void bindMetrics(MeterRegistry meterRegistry) {
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "products.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, idsByName, "products.byName");
+        CaffeineCacheMetrics.monitor(meterRegistry, views, "products.views");
+    }
+
+    public Optional<Product> getById(Long id, Function<Long, Optional<Product>> loader) {
+        Product cached = byId.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long stamp = idStamps.get(stripe(id));
+        Optional<Product> loaded = loader.apply(id);
+        loaded.ifPresent(product -> putIfNotEvicted(product, () -> idStamps.get(stripe(id)) == stamp));
+        return loaded;
+    }
+
+    /**
+     * Looks up several products at once, loading all misses with a single call; keeps the order of {@code ids}
+     * and skips ids that do not exist.
+     */
+    public List<Product> getAllById(List<Long> ids, Function<List<Long>, List<Product>> loader) {
+        Map<Long, Product> found = new HashMap<>(byId.getAllPresent(ids));
+        List<Long> missing = ids.stream().filter(id -> !found.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            Map<Long, Long> stamps = new HashMap<>();
+            missing.forEach(id -> stamps.put(id, idStamps.get(stripe(id))));
+            for (Product product : loader.apply(missing)) {
+                Long stamp = stamps.get(product.getId());
+                putIfNotEvicted(product, () -> stamp != null && idStamps.get(stripe(product.getId())) == stamp);
+                found.put(product.getId(), product);
+            }
+        }
+        List<Product> products = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Product product = found.get(id);
+            if (product != null) {
+                products.add(product);
+            }
+        }
+        return products;
+    }
+
+    public Optional<Product> getByName(String name, Function<String, Optional<Product>> loader) {
+        Long id = idsByName.getIfPresent(name);
+        if (id != null) {
+            Product cached = byId.getIfPresent(id);
+            if (cached != null && name.equals(cached.getName())) {
+                return Optional.of(cached);
+            }
+        }
+        long stamp = generation.get();
+        Optional<Product> loaded = loader.apply(name);
+        loaded.ifPresent(product -> {
+            idsByName.put(name, product.getId());
+            putIfNotEvicted(product, () -> generation.get() == stamp);
+        });
+        return loaded;
+    }
+
+    public List<Product> getView(String view, Supplier<List<Product>> loader) {
+        List<Product> cached = views.getIfPresent(view);
+        if (cached != null) {
+            return cached;
+        }
+        long stamp = generation.get();
+        List<Product> loaded = List.copyOf(loader.get());
+        views.asMap().compute(view, (key, existing) -> generation.get() == stamp ? loaded : existing);
+        return loaded;
+    }
+
+    /**
+     * Drops one product and the stock views. Name lookups resolve through the id entry, so they miss too.
+     */
+    public void evict(Long id) {
+        runNowAndAfterCommit(() -> {
+            idStamps.incrementAndGet(stripe(id));
+            generation.incrementAndGet();
+            byId.invalidate(id);
+            views.invalidateAll();
+        });
+    }
+
+    /**
+     * Drops a name mapping; needed when a product is renamed or deleted.
+     */
+    public void evictName(String name) {
+        runNowAndAfterCommit(() -> {
+            generation.incrementAndGet();
+            idsByName.invalidate(name);
+        });
+    }
+
+    public void evictViews() {
+        runNowAndAfterCommit(() -> {
+            generation.incrementAndGet();
+            views.invalidateAll();
+        });
+    }
+
+    public void clear() {
+        runNowAndAfterCommit(() -> {
+            for (int i = 0; i < STAMP_STRIPES; i++) {
+                idStamps.incrementAndGet(i);
+            }
+            generation.incrementAndGet();
+            byId.invalidateAll();
+            idsByName.invalidateAll();
+            views.invalidateAll();
+        });
+    }
+
+    public Map<String, CacheStats> stats() {
+        Map<String, CacheStats> stats = new LinkedHashMap<>();
+        stats.put("byId", new CacheStats(byId.estimatedSize(), byId.stats()));
+        stats.put("byName", new CacheStats(idsByName.estimatedSize(), idsByName.stats()));
+        stats.put("views", new CacheStats(views.estimatedSize(), views.stats()));
+        return stats;
+    }
+
+    /**
+     * Stores a loaded product unless an eviction happened since the load started. The check runs inside the
+     * map's compute for that key, so it is atomic with respect to {@code invalidate(id)}.
+     */
+    private void putIfNotEvicted(Product product, BooleanSupplier unchanged) {
+        byId.asMap().compute(product.getId(), (key, existing) -> unchanged.getAsBoolean() ? product : existing);
+    }
+
+    private static int stripe(Long id) {
+        return Math.floorMod(id.hashCode(), STAMP_STRIPES);
+    }
+
+    private static void runNowAndAfterCommit(Runnable invalidation) {
+        invalidation.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidation.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ProductImportReport;
+import com.example.demo.event.InventoryChangedEvent;
+import com.example.demo.model.Product;
+import com.example.demo.model.StockMovement;
+import com.example.demo.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Creates or updates products from a CSV upload with a {@code name,price,stock} header. The input is read as a
+ * stream and written in chunks, each in its own transaction: one {@code IN} query resolves which names already
+ * exist, existing rows are updated with a single JDBC batch and new rows are inserted through Hibernate's
+ * batched, sequence-allocated inserts. A chunk that fails is retried once and then reported row by row; chunks
+ * already committed stay committed.
+ */
+@Service
+public class ProductImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductImportService.class);
+
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final int MAX_RECORD_LENGTH = 64 * 1024;
+    private static final String UPDATE_SQL = "UPDATE products SET price = ?, stock = ? WHERE id = ?";
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private StockMovementService stockMovementService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.import.products.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.import.products.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Imports every row of {@code csv}. A row whose name already exists updates that product's price and stock;
+     * when a name repeats, the later row wins. Throws {@link IllegalArgumentException} if the header is missing
+     * a required column.
+     */
+    public ProductImportReport importCsv(InputStream csv) throws IOException {
+        ProductImportReport report = new ProductImportReport(maxReportedErrors);
+        CsvRecordReader reader = new CsvRecordReader(
+                new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8), 64 * 1024), MAX_RECORD_LENGTH);
+        Columns columns = Columns.of(reader.next());
+
+        Map<String, Row> chunk = new LinkedHashMap<>();
+        while (true) {
+            List<String> record;
+            try {
+                record = reader.next();
+            } catch (IllegalArgumentException e) {
+                // the reader cannot find the next record boundary, so nothing after this point is imported
+                report.addError(reader.recordLine(), null, e.getMessage());
+                break;
+            }
+            if (record == null) {
+                break;
+            }
+            report.rowRead();
+            Row row = columns.parse(reader.recordLine(), record, report);
+            if (row == null) {
+                continue;
+            }
+            if (chunk.containsKey(row.name())) {
+                // written first, so the repeat resolves as an update of it
+                writeChunk(chunk, report);
+            }
+            chunk.put(row.name(), row);
+            if (chunk.size() >= chunkSize) {
+                writeChunk(chunk, report);
+            }
+        }
+        writeChunk(chunk, report);
+        log.info("Product import: {} rows read, {} created, {} updated, {} failed",
+                report.getRowsRead(), report.getCreated(), report.getUpdated(), report.getFailed());
+        return report;
+    }
+
+    private void writeChunk(Map<String, Row> chunk, ProductImportReport report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<Row> rows = new ArrayList<>(chunk.values());
+        chunk.clear();
+        RuntimeException failure = null;
+        for (int attempt = 0; attempt < 2; attempt++) {
+            try {
+                Written written = transactionTemplate.execute(status -> upsert(rows));
+                afterCommit(written);
+                report.addCreated(written.created().size());
+                report.addUpdated(written.updatedIds().size());
+                return;
+            } catch (RuntimeException e) {
+                // typically a name inserted or a product deleted concurrently; the retry resolves names again
+                failure = e;
+            }
+        }
+        log.warn("Product import chunk of {} rows failed", rows.size(), failure);
+        String message = "Not imported: " + NestedExceptionUtils.getMostSpecificCause(failure).getMessage();
+        for (Row row : rows) {
+            report.addError(row.line(), row.name(), message);
+        }
+    }
+
+    private Written upsert(List<Row> rows) {
+        Map<String, Long> existing = new HashMap<>();
+        Map<Long, Integer> previousStock = new HashMap<>();
+        for (Object[] current : productRepository.findStockByNameInForUpdate(rows.stream().map(Row::name).toList())) {
+            Long id = ((Number) current[0]).longValue();
+            existing.put((String) current[1], id);
+            previousStock.put(id, current[2] == null ? 0 : ((Number) current[2]).intValue());
+        }
+
+        List<Object[]> updates = new ArrayList<>(existing.size());
+        List<Long> updatedIds = new ArrayList<>(existing.size());
+        List<Product> created = new ArrayList<>(rows.size() - existing.size());
+        Map<Long, Integer> adjustments = new HashMap<>();
+        for (Row row : rows) {
+            Long id = existing.get(row.name());
+            if (id != null) {
+                updates.add(new Object[] {row.price(), row.stock(), id});
+                updatedIds.add(id);
+                adjustments.put(id, row.stock() - previousStock.get(id));
+            } else {
+                Product product = new Product(row.name(), row.price(), row.stock());
+                entityManager.persist(product);
+                created.add(product);
+            }
+        }
+        if (!updates.isEmpty()) {
+            int[] counts = jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+            for (int count : counts) {
+                if (count == 0) {
+                    throw new IllegalStateException("A product was deleted while the import was updating it");
+                }
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Map<Long, Integer> openings = new HashMap<>();
+        created.forEach(product -> openings.put(product.getId(), product.getStock()));
+        stockMovementService.recordAll(adjustments, StockMovement.ADJUSTMENT);
+        stockMovementService.recordAll(openings, StockMovement.OPENING);
+
+        List<Long> changed = new ArrayList<>(updatedIds);
+        created.forEach(product -> changed.add(product.getId()));
+        eventPublisher.publishEvent(InventoryChangedEvent.changed(changed.toArray(Long[]::new)));
+        return new Written(created, updatedIds);
+    }
+
+    private void afterCommit(Written written) {
+        for (Product product : written.created()) {
+            productSearchIndex.put(product.getId(), product.getName());
+        }
+        for (Long id : written.updatedIds()) {
+            productCache.evict(id);
+        }
+        productCache.evictViews();
+    }
+
+    private record Row(long line, String name, int price, int stock) {
+    }
+
+    private record Written(List<Product> created, List<Long> updatedIds) {
+    }
+
+    private record Columns(int name, int price, int stock) {
+
+        static Columns of(List<String> header) {
+            if (header == null) {
+                throw new IllegalArgumentException("The file is empty; expected a name,price,stock header");
+            }
+            List<String> normalized = header.stream().map(column -> column.trim().toLowerCase(Locale.ROOT)).toList();
+            int name = normalized.indexOf("name");
+            int price = normalized.indexOf("price");
+            int stock = normalized.indexOf("stock");
+            if (name < 0 || price < 0 || stock < 0) {
+                throw new IllegalArgumentException("The header must contain name, price and stock columns");
+            }
+            return new Columns(name, price, stock);
+        }
+
+        Row parse(long line, List<String> record, ProductImportReport report) {
+            String name = field(record, this.name).trim();
+            // undo the formula guard the transaction export puts in front of =, +, - and @
+            if (name.length() > 1 && name.charAt(0) == '\'' && "=+-@".indexOf(name.charAt(1)) >= 0) {
+                name = name.substring(1);
+            }
+            if (name.isEmpty()) {
+                report.addError(line, null, "Name is required");
+                return null;
+            }
+            if (name.length() > MAX_NAME_LENGTH) {
+                report.addError(line, name.substring(0, 40) + "...", "Name is longer than " + MAX_NAME_LENGTH + " characters");
+                return null;
+            }
+            Integer price = nonNegative(field(record, this.price));
+            if (price == null) {
+                report.addError(line, name, "Price must be a whole number of zero or more");
+                return null;
+            }
+            Integer stock = nonNegative(field(record, this.stock));
+            if (stock == null) {
+                report.addError(line, name, "Stock must be a whole number of zero or more");
+                return null;
+            }
+            return new Row(line, name, price, stock);
+        }
+
+        private static String field(List<String> record, int index) {
+            return index < record.size() ? record.get(index) : "";
+        }
+
+        private static Integer nonNegative(String value) {
+            try {
+                int parsed = Integer.parseInt(value.trim());
+                return parsed >= 0 ? parsed : null;
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Product;
+import com.example.demo.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory name index for product search-as-you-type.
+ *
+ * <p>Names are normalized (lower case, single spaces) and indexed twice: a sorted map keyed by every word
+ * suffix of the name answers full-name and word prefixes, and a trigram posting list over the
+ * {@code $word$}-padded words answers infix lookups and supplies candidates for typo-tolerant matching.
+ * Results are ranked exact, name prefix, word prefix, infix, then fuzzy by edit distance.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final int EXACT = 0;
+    private static final int NAME_PREFIX = 1;
+    private static final int WORD_PREFIX = 2;
+    private static final int INFIX = 3;
+    private static final int FUZZY = 4;
+
+    private static final int MAX_FUZZY_CANDIDATES = 200;
+
+    private final Map<Long, String> names = new HashMap<>();
+    private final NavigableMap<String, Set<Long>> wordSuffixes = new TreeMap<>();
+    private final Map<String, Set<Long>> trigrams = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Object[]> rows = productRepository.findAllIdsAndNames();
+        lock.writeLock().lock();
+        try {
+            names.clear();
+            wordSuffixes.clear();
+            trigrams.clear();
+            for (Object[] row : rows) {
+                add((Long) row[0], (String) row[1]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(Long id, String name) {
+        lock.writeLock().lock();
+        try {
+            remove(id);
+            add(id, name);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void delete(Long id) {
+        lock.writeLock().lock();
+        try {
+            remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies {@link #put} once the surrounding transaction commits, or immediately outside a transaction.
+     */
+    public void putAfterCommit(Product product) {
+        Long id = product.getId();
+        String name = product.getName();
+        afterCommit(() -> put(id, name));
+    }
+
+    public void deleteAfterCommit(Long id) {
+        afterCommit(() -> delete(id));
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return names.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of the best matches for {@code query}, best first, at most {@code limit} of them.
+     */
+    public List<Long> search(String query, int limit, boolean fuzzy) {
+        String q = normalize(query);
+        if (q.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> ranks = new HashMap<>();
+
+            for (Set<Long> ids : wordSuffixes.subMap(q, true, q + Character.MAX_VALUE, false).values()) {
+                for (Long id : ids) {
+                    String name = names.get(id);
+                    int rank = name.equals(q) ? EXACT : name.startsWith(q) ? NAME_PREFIX : WORD_PREFIX;
+                    ranks.merge(id, rank, Math::min);
+                }
+            }
+
+            if (q.length() >= 3) {
+                for (Long id : infixCandidates(q)) {
+                    if (names.get(id).contains(q)) {
+                        ranks.putIfAbsent(id, INFIX);
+                    }
+                }
+            }
+
+            if (fuzzy && ranks.size() < limit && q.length() >= 3) {
+                int maxEdits = q.length() <= 5 ? 1 : 2;
+                for (Long id : fuzzyCandidates(q)) {
+                    if (!ranks.containsKey(id)) {
+                        int distance = fuzzyDistance(q, names.get(id), maxEdits);
+                        if (distance <= maxEdits) {
+                            ranks.put(id, FUZZY + distance);
+                        }
+                    }
+                }
+            }
+
+            List<Long> ids = new ArrayList<>(ranks.keySet());
+            ids.sort(Comparator.<Long>comparingInt(ranks::get)
+                    .thenComparingInt(id -> names.get(id).length())
+                    .thenComparing(names::get));
+            return ids.size() > limit ? List.copyOf(ids.subList(0, limit)) : ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    private void add(Long id, String rawName) {
+        String name = normalize(rawName);
+        names.put(id, name);
+        for (String suffix : wordSuffixesOf(name)) {
+            wordSuffixes.computeIfAbsent(suffix, key -> new HashSet<>()).add(id);
+        }
+        for (String gram : paddedTrigrams(name)) {
+            trigrams.computeIfAbsent(gram, key -> new HashSet<>()).add(id);
+        }
+    }
+
+    private void remove(Long id) {
+        String name = names.remove(id);
+        if (name == null) {
+            return;
+        }
+        for (String suffix : wordSuffixesOf(name)) {
+            removePosting(wordSuffixes, suffix, id);
+        }
+        for (String gram : paddedTrigrams(name)) {
+            removePosting(trigrams, gram, id);
+        }
+    }
+
+    private Set<Long> infixCandidates(String q) {
+        Set<Long> candidates = null;
+        for (String word : q.split(" ")) {
+            for (int i = 0; i + 3 <= word.length(); i++) {
+                Set<Long> posting = trigrams.getOrDefault(word.substring(i, i + 3), Set.of());
+                if (candidates == null) {
+                    candidates = new HashSet<>(posting);
+                } else {
+                    candidates.retainAll(posting);
+                }
+                if (candidates.isEmpty()) {
+                    return candidates;
+                }
+            }
+        }
+        return candidates != null ? candidates : Set.of();
+    }
+
+    private Set<Long> fuzzyCandidates(String q) {
+        Map<Long, Integer> overlap = new HashMap<>();
+        for (String gram : paddedTrigrams(q)) {
+            for (Long id : trigrams.getOrDefault(gram, Set.of())) {
+                overlap.merge(id, 1, Integer::sum);
+            }
+        }
+        Set<Long> best = new LinkedHashSet<>();
+        overlap.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed())
+                .limit(MAX_FUZZY_CANDIDATES)
+                .forEach(entry -> best.add(entry.getKey()));
+        return best;
+    }
+
+    /**
+     * Smallest edit distance between the query and the name, a word of the name, or the start of a word
+     * (so a mistyped prefix still matches while the user is typing).
+     */
+    private static int fuzzyDistance(String q, String name, int maxEdits) {
+        int best = editDistance(q, name, maxEdits);
+        if (q.indexOf(' ') < 0) {
+            for (String word : name.split(" ")) {
+                best = Math.min(best, editDistance(q, word, maxEdits));
+                if (word.length() > q.length()) {
+                    best = Math.min(best, editDistance(q, word.substring(0, q.length()), maxEdits));
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Levenshtein distance with adjacent transpositions, giving up (returning {@code maxEdits + 1}) as soon
+     * as it cannot stay within {@code maxEdits}.
+     */
+    static int editDistance(String a, String b, int maxEdits) {
+        if (Math.abs(a.length() - b.length()) > maxEdits) {
+            return maxEdits + 1;
+        }
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    current[j] = Math.min(current[j], previous2[j - 2] + 1);
+                }
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxEdits) {
+                return maxEdits + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[b.length()], maxEdits + 1);
+    }
+
+    private static List<String> wordSuffixesOf(String name) {
+        List<String> suffixes = new ArrayList<>();
+        suffixes.add(name);
+        for (int i = name.indexOf(' '); i >= 0; i = name.indexOf(' ', i + 1)) {
+            suffixes.add(name.substring(i + 1));
+        }
+        return suffixes;
+    }
+
+    private static Set<String> paddedTrigrams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (String word : text.split(" ")) {
+            String padded = "$" + word + "$";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(padded.substring(i, i + 3));
+            }
+        }
+        return grams;
+    }
+
+    private static <K> void removePosting(Map<K, Set<Long>> postings, K key, Long id) {
+        Set<Long> ids = postings.get(key);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(key);
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -1,11 +1,24 @@
 package com.example.demo.service;
 
+import com.example.demo.config.PaginationProperties;
+import com.example.demo.dto.CacheStats;
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.ProductCursor;
+import com.example.demo.event.InventoryChangedEvent;
+import com.example.demo.exception.InsufficientStockException;
+import com.example.demo.exception.ResourceNotFoundException;
 import com.example.demo.model.Product;
+import com.example.demo.model.StockMovement;
 import com.example.demo.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -14,45 +27,109 @@ public class ProductService {
     @Autowired
     private ProductRepository productRepository;
 
-    public List<Product> getAllProducts() {
-        return productRepository.findAll();
+    @Autowired
+    private PaginationProperties paginationProperties;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private LowStockMonitor lowStockMonitor;
+
+    @Autowired
+    private StockMovementService stockMovementService;
+
+    public CursorPage<Product> getProducts(String cursor, Integer size) {
+        ProductCursor position = ProductCursor.decode(cursor);
+        int pageSize = paginationProperties.resolveSize(size);
+        List<Product> fetched = productRepository.findPageAfter(position.getId(), Limit.of(pageSize + 1));
+        return CursorPage.of(fetched, pageSize, product -> ProductCursor.of(product).encode());
     }
 
     public Optional<Product> getProductById(Long id) {
-        return productRepository.findById(id);
+        return productCache.getById(id, productRepository::findById);
     }
 
+    public Optional<Product> getProductByName(String name) {
+        return productCache.getByName(name, productRepository::findByName);
+    }
+
+    @Transactional
     public Product createProduct(Product product) {
         if (productRepository.existsByName(product.getName())) {
             throw new RuntimeException("Product with name '" + product.getName() + "' already exists");
         }
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        stockMovementService.record(saved.getId(), stockOf(saved), StockMovement.OPENING);
+        productCache.evictViews();
+        productSearchIndex.putAfterCommit(saved);
+        eventPublisher.publishEvent(InventoryChangedEvent.changed(saved.getId()));
+        return saved;
     }
 
+    @Transactional
     public Product updateProduct(Long id, Product productDetails) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
+        // locked, so a sale cannot slip in between reading the old stock and recording the adjustment
+        Product product = productRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
 
         if (!product.getName().equals(productDetails.getName()) && 
             productRepository.existsByName(productDetails.getName())) {
             throw new RuntimeException("Product with name '" + productDetails.getName() + "' already exists");
         }
 
+        productCache.evict(id);
+        productCache.evictName(product.getName());
+
+        stockMovementService.record(id, stockOf(productDetails) - stockOf(product), StockMovement.ADJUSTMENT);
         product.setName(productDetails.getName());
         product.setPrice(productDetails.getPrice());
         product.setStock(productDetails.getStock());
+        product.setReorderThreshold(productDetails.getReorderThreshold());
 
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        productSearchIndex.putAfterCommit(saved);
+        eventPublisher.publishEvent(InventoryChangedEvent.changed(id));
+        return saved;
     }
 
+    @Transactional
     public void deleteProduct(Long id) {
         Product product = productRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+        productCache.evict(id);
+        productCache.evictName(product.getName());
+        stockMovementService.record(id, -stockOf(product), StockMovement.ADJUSTMENT);
         productRepository.delete(product);
+        productSearchIndex.deleteAfterCommit(id);
+        eventPublisher.publishEvent(InventoryChangedEvent.changed(id));
     }
 
-    public List<Product> searchProductsByName(String name) {
-        return productRepository.findByNameContainingIgnoreCase(name);
+    /**
+     * Ranked prefix, infix and (optionally) typo-tolerant matches from the in-memory name index; only the
+     * matched products are fetched, through the product cache.
+     */
+    public List<Product> searchProductsByName(String name, int limit, boolean fuzzy) {
+        List<Long> ids = productSearchIndex.search(name, limit, fuzzy);
+        return productCache.getAllById(ids, productRepository::findAllById);
+    }
+
+    /**
+     * Products currently at or below their reorder threshold, lowest stock first; read from the low-stock
+     * monitor's live set rather than by scanning the table.
+     */
+    public List<Product> getProductsBelowReorderThreshold() {
+        List<Long> ids = List.copyOf(lowStockMonitor.getLowStockProductIds());
+        return productCache.getAllById(ids, productRepository::findAllById).stream()
+                .sorted(Comparator.comparing(Product::getStock, Comparator.nullsFirst(Comparator.naturalOrder()))
+                        .thenComparing(Product::getId))
+                .toList();
     }
 
     public List<Product> getProductsByPriceRange(Integer minPrice, Integer maxPrice) {
@@ -60,7 +137,7 @@ public class ProductService {
     }
 
     public List<Product> getInStockProducts() {
-        return productRepository.findByStockGreaterThan(0);
+        return productCache.getView(ProductCache.IN_STOCK, () -> productRepository.findByStockGreaterThan(0));
     }
 
     public List<Product> getLowStockProducts(Integer threshold) {
@@ -68,7 +145,7 @@ public class ProductService {
     }
 
     public List<Product> getOutOfStockProducts() {
-        return productRepository.findOutOfStockProducts();
+        return productCache.getView(ProductCache.OUT_OF_STOCK, productRepository::findOutOfStockProducts);
     }
 
     public long getInStockCount() {
@@ -76,19 +153,33 @@ public class ProductService {
     }
 
     public boolean isProductAvailable(Long id, Integer quantity) {
-        Optional<Product> product = productRepository.findById(id);
+        Optional<Product> product = getProductById(id);
         return product.isPresent() && product.get().getStock() >= quantity;
     }
 
+    public Map<String, CacheStats> getCacheStats() {
+        return productCache.stats();
+    }
+
+    @Transactional
     public void updateStock(Long id, Integer quantity) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
-        
-        if (product.getStock() + quantity < 0) {
-            throw new RuntimeException("Insufficient stock");
+        int updated = quantity < 0
+                ? productRepository.decrementStock(id, -quantity)
+                : productRepository.incrementStock(id, quantity);
+
+        productCache.evict(id);
+
+        if (updated == 0) {
+            if (!productRepository.existsById(id)) {
+                throw new ResourceNotFoundException("Product not found with id: " + id);
+            }
+            throw new InsufficientStockException("Insufficient stock");
         }
-        
-        product.setStock(product.getStock() + quantity);
-        productRepository.save(product);
+        stockMovementService.record(id, quantity, StockMovement.ADJUSTMENT);
+        eventPublisher.publishEvent(InventoryChangedEvent.changed(id));
+    }
+
+    private static int stockOf(Product product) {
+        return product.getStock() == null ? 0 : product.getStock();
     }
-}
\ No newline at end of file
+}
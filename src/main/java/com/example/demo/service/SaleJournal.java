@@ -0,0 +1,199 @@
+package com.example.demo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only file of accepted sales, one tab-separated line per sale. Appends only reach the page cache;
+ * {@link #sync} forces them to disk and is shared by concurrent callers, so a burst of sales costs one fsync
+ * rather than one per sale. The file is emptied once every entry in it has been written to the database.
+ */
+final class SaleJournal implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(SaleJournal.class);
+
+    private static final String NULL = "\\N";
+
+    private final FileChannel channel;
+    private final boolean fsync;
+    private final Object syncLock = new Object();
+
+    private long written;
+    private volatile long synced;
+
+    SaleJournal(Path path, boolean fsync) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        this.fsync = fsync;
+        this.written = channel.size();
+        this.synced = written;
+        channel.position(written);
+    }
+
+    /**
+     * Reads every complete entry; a torn last line left by a crash mid-append is skipped.
+     */
+    static List<Entry> read(Path path) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        if (!Files.exists(path)) {
+            return entries;
+        }
+        String content = Files.readString(path, StandardCharsets.UTF_8);
+        int start = 0;
+        int end;
+        while ((end = content.indexOf('\n', start)) >= 0) {
+            String line = content.substring(start, end);
+            start = end + 1;
+            try {
+                entries.add(Entry.parse(line));
+            } catch (RuntimeException e) {
+                log.warn("Skipping unreadable sale journal line: {}", line);
+            }
+        }
+        if (start < content.length()) {
+            log.warn("Skipping incomplete last line of the sale journal ({} bytes)", content.length() - start);
+        }
+        return entries;
+    }
+
+    /**
+     * Writes the entry and returns the journal position to pass to {@link #sync}.
+     */
+    synchronized long append(Entry entry) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap((entry.format() + "\n").getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer);
+        }
+        return written;
+    }
+
+    void sync(long position) throws IOException {
+        if (!fsync || synced >= position) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (synced >= position) {
+                return;
+            }
+            long target;
+            synchronized (this) {
+                target = written;
+            }
+            channel.force(false);
+            synced = target;
+        }
+    }
+
+    synchronized void truncate() throws IOException {
+        channel.truncate(0);
+        channel.position(0);
+        channel.force(false);
+        written = 0;
+        synced = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    static final class Entry {
+
+        private final long id;
+        private final long productId;
+        private final int quantity;
+        private final int unitPrice;
+        private final LocalDateTime createdAt;
+        private final String description;
+
+        Entry(long id, long productId, int quantity, int unitPrice, LocalDateTime createdAt, String description) {
+            this.id = id;
+            this.productId = productId;
+            this.quantity = quantity;
+            this.unitPrice = unitPrice;
+            this.createdAt = createdAt;
+            this.description = description;
+        }
+
+        long id() {
+            return id;
+        }
+
+        long productId() {
+            return productId;
+        }
+
+        int quantity() {
+            return quantity;
+        }
+
+        int unitPrice() {
+            return unitPrice;
+        }
+
+        LocalDateTime createdAt() {
+            return createdAt;
+        }
+
+        String description() {
+            return description;
+        }
+
+        String format() {
+            return id + "\t" + productId + "\t" + quantity + "\t" + unitPrice + "\t" + createdAt + "\t" + escape(description);
+        }
+
+        static Entry parse(String line) {
+            String[] fields = line.split("\t", -1);
+            if (fields.length != 6) {
+                throw new IllegalArgumentException("Expected 6 fields, got " + fields.length);
+            }
+            return new Entry(Long.parseLong(fields[0]), Long.parseLong(fields[1]), Integer.parseInt(fields[2]),
+                    Integer.parseInt(fields[3]), LocalDateTime.parse(fields[4]), unescape(fields[5]));
+        }
+
+        private static String escape(String value) {
+            if (value == null) {
+                return NULL;
+            }
+            return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+        }
+
+        private static String unescape(String value) {
+            if (value.equals(NULL)) {
+                return null;
+            }
+            StringBuilder result = new StringBuilder(value.length());
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '\\' && i + 1 < value.length()) {
+                    char next = value.charAt(++i);
+                    result.append(switch (next) {
+                        case 't' -> '\t';
+                        case 'n' -> '\n';
+                        case 'r' -> '\r';
+                        default -> next;
+                    });
+                } else {
+                    result.append(c);
+                }
+            }
+            return result.toString();
+        }
+    }
+}
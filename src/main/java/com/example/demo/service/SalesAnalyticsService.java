@@ -0,0 +1,360 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ProductSales;
+import com.example.demo.dto.SalesBucket;
+import com.example.demo.model.Product;
+import com.example.demo.model.TransactionRollup;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.TransactionRollupRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * Time-bucketed sales figures, top sellers and slow movers. Ranges are half-open {@code [start, end)} and are
+ * answered mostly from the hour/day rollups that {@link TransactionTotalsService} keeps in step with the
+ * transactions table: whole days come from day buckets, whole hours from hour buckets, and only the partial
+ * hours at either edge are summed from the transactions themselves. Results are cached for
+ * {@code app.analytics.cache.ttl}, so they can trail the latest sales by that much.
+ */
+@Service
+public class SalesAnalyticsService {
+
+    public static final String HOUR = "hour";
+    public static final String DAY = "day";
+    public static final String MONTH = "month";
+
+    public static final String REVENUE = "revenue";
+    public static final String QUANTITY = "quantity";
+
+    static final String RAW = "RAW";
+    static final int MAX_BUCKETS = 5000;
+    static final int MAX_LIMIT = 500;
+
+    private static final String SALE = "SALE";
+    private static final String PURCHASE = "PURCHASE";
+    private static final int PRODUCT_PAGE = 500;
+
+    @Autowired
+    private TransactionRollupRepository transactionRollupRepository;
+
+    @Autowired
+    private TransactionArchiveService transactionArchiveService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.analytics.cache.max-size:500}")
+    private long cacheMaxSize;
+
+    @Value("${app.analytics.cache.ttl:30s}")
+    private Duration cacheTtl;
+
+    private Cache<Object, Object> results;
+
+    @PostConstruct
+    void init() {
+        results = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, results, "analytics");
+    }
+
+    public static boolean isGranularity(String granularity) {
+        return HOUR.equals(granularity) || DAY.equals(granularity) || MONTH.equals(granularity);
+    }
+
+    /**
+     * One bucket per hour, day or month from the bucket containing {@code start} up to {@code end}, including
+     * empty ones; limited to one product when {@code productId} is set.
+     */
+    public List<SalesBucket> getSalesSeries(String granularity, LocalDateTime start, LocalDateTime end, Long productId) {
+        if (!isGranularity(granularity)) {
+            throw new IllegalArgumentException("Unsupported granularity: " + granularity);
+        }
+        checkRange(start, end);
+        if (bucketCount(granularity, start, end) > MAX_BUCKETS) {
+            throw new IllegalArgumentException("The range spans more than " + MAX_BUCKETS + " " + granularity + " buckets");
+        }
+        return cached(new SeriesKey(granularity, start, end, productId), () -> computeSeries(granularity, start, end, productId));
+    }
+
+    /**
+     * Best-selling products in the range by {@link #REVENUE} or {@link #QUANTITY}.
+     */
+    public List<ProductSales> getTopProducts(LocalDateTime start, LocalDateTime end, String metric, int limit) {
+        if (!REVENUE.equals(metric) && !QUANTITY.equals(metric)) {
+            throw new IllegalArgumentException("Unsupported metric: " + metric);
+        }
+        checkRange(start, end);
+        checkLimit(limit);
+        return cached(new RankingKey("top-" + metric, start, end, limit), () -> computeTopProducts(start, end, metric, limit));
+    }
+
+    /**
+     * In-stock products that sold the fewest units in the range, those with no sales at all first.
+     */
+    public List<ProductSales> getSlowMovers(LocalDateTime start, LocalDateTime end, int limit) {
+        checkRange(start, end);
+        checkLimit(limit);
+        return cached(new RankingKey("slow", start, end, limit), () -> computeSlowMovers(start, end, limit));
+    }
+
+    private List<SalesBucket> computeSeries(String granularity, LocalDateTime start, LocalDateTime end, Long productId) {
+        Map<LocalDateTime, Totals> buckets = new TreeMap<>();
+        for (Segment segment : plan(start, end, !HOUR.equals(granularity))) {
+            List<Object[]> rows;
+            if (RAW.equals(segment.source())) {
+                // a raw segment lies within one hour, so all of it falls into the bucket of its start
+                rows = productId == null
+                        ? transactionArchiveService.sumByTypeBetween(segment.start(), segment.end())
+                        : transactionArchiveService.sumByTypeBetweenForProduct(productId, segment.start(), segment.end());
+                for (Object[] row : rows) {
+                    buckets.computeIfAbsent(truncate(segment.start(), granularity), key -> new Totals())
+                            .add((String) row[0], row[1], row[2], row[3]);
+                }
+            } else {
+                rows = productId == null
+                        ? transactionRollupRepository.sumByBucket(segment.source(), segment.start(), segment.end())
+                        : transactionRollupRepository.findProductBuckets(segment.source(), productId, segment.start(), segment.end());
+                for (Object[] row : rows) {
+                    buckets.computeIfAbsent(truncate((LocalDateTime) row[0], granularity), key -> new Totals())
+                            .add((String) row[1], row[2], row[3], row[4]);
+                }
+            }
+        }
+
+        List<SalesBucket> series = new ArrayList<>();
+        for (LocalDateTime bucket = truncate(start, granularity); bucket.isBefore(end); bucket = next(bucket, granularity)) {
+            series.add(buckets.getOrDefault(bucket, Totals.EMPTY).toBucket(bucket));
+        }
+        return List.copyOf(series);
+    }
+
+    private List<ProductSales> computeTopProducts(LocalDateTime start, LocalDateTime end, String metric, int limit) {
+        Comparator<Map.Entry<Long, Totals>> order = REVENUE.equals(metric)
+                ? Comparator.comparing((Map.Entry<Long, Totals> entry) -> entry.getValue().salesAmount).reversed()
+                : Comparator.comparingLong((Map.Entry<Long, Totals> entry) -> entry.getValue().salesQuantity).reversed();
+        List<Map.Entry<Long, Totals>> top = salesByProduct(start, end).entrySet().stream()
+                .sorted(order.thenComparing(Map.Entry::getKey))
+                .limit(limit)
+                .toList();
+
+        Map<Long, Product> products = productsById(top.stream().map(Map.Entry::getKey).toList());
+        List<ProductSales> ranking = new ArrayList<>(top.size());
+        for (Map.Entry<Long, Totals> entry : top) {
+            ranking.add(entry.getValue().toProductSales(entry.getKey(), products.get(entry.getKey())));
+        }
+        return List.copyOf(ranking);
+    }
+
+    private List<ProductSales> computeSlowMovers(LocalDateTime start, LocalDateTime end, int limit) {
+        Map<Long, Totals> sold = salesByProduct(start, end);
+        List<ProductSales> ranking = new ArrayList<>(limit);
+
+        // products that did not sell at all, in id order
+        Long afterId = 0L;
+        while (ranking.size() < limit) {
+            List<Product> page = productRepository.findPageAfter(afterId, Limit.of(PRODUCT_PAGE));
+            for (Product product : page) {
+                if (product.getStock() != null && product.getStock() > 0 && !sold.containsKey(product.getId())) {
+                    ranking.add(Totals.EMPTY.toProductSales(product.getId(), product));
+                    if (ranking.size() == limit) {
+                        break;
+                    }
+                }
+            }
+            if (page.size() < PRODUCT_PAGE) {
+                break;
+            }
+            afterId = page.get(page.size() - 1).getId();
+        }
+
+        // then the ones that sold least, skipping products that have since sold out or been deleted
+        List<Map.Entry<Long, Totals>> leastSold = sold.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<Long, Totals> entry) -> entry.getValue().salesQuantity)
+                        .thenComparing(Map.Entry::getKey))
+                .toList();
+        for (int from = 0; from < leastSold.size() && ranking.size() < limit; from += limit) {
+            List<Map.Entry<Long, Totals>> candidates = leastSold.subList(from, Math.min(from + limit, leastSold.size()));
+            Map<Long, Product> products = productsById(candidates.stream().map(Map.Entry::getKey).toList());
+            for (Map.Entry<Long, Totals> entry : candidates) {
+                Product product = products.get(entry.getKey());
+                if (product != null && product.getStock() != null && product.getStock() > 0) {
+                    ranking.add(entry.getValue().toProductSales(entry.getKey(), product));
+                    if (ranking.size() == limit) {
+                        break;
+                    }
+                }
+            }
+        }
+        return List.copyOf(ranking);
+    }
+
+    private Map<Long, Totals> salesByProduct(LocalDateTime start, LocalDateTime end) {
+        Map<Long, Totals> totals = new HashMap<>();
+        for (Segment segment : plan(start, end, true)) {
+            List<Object[]> rows = RAW.equals(segment.source())
+                    ? transactionArchiveService.sumByProductBetween(SALE, segment.start(), segment.end())
+                    : transactionRollupRepository.sumByProduct(segment.source(), SALE, segment.start(), segment.end());
+            for (Object[] row : rows) {
+                totals.computeIfAbsent((Long) row[0], key -> new Totals()).add(SALE, row[1], row[2], row[3]);
+            }
+        }
+        return totals;
+    }
+
+    private Map<Long, Product> productsById(List<Long> ids) {
+        Map<Long, Product> products = new HashMap<>();
+        for (Product product : productCache.getAllById(ids, productRepository::findAllById)) {
+            products.put(product.getId(), product);
+        }
+        return products;
+    }
+
+    /**
+     * Splits {@code [start, end)} into the pieces each source can answer exactly: raw transactions for the
+     * partial hours at the edges, hour buckets for whole hours and, when {@code useDays} is set, day buckets
+     * for whole days.
+     */
+    static List<Segment> plan(LocalDateTime start, LocalDateTime end, boolean useDays) {
+        List<Segment> segments = new ArrayList<>();
+        LocalDateTime firstHour = ceil(start, ChronoUnit.HOURS);
+        LocalDateTime lastHour = end.truncatedTo(ChronoUnit.HOURS);
+        if (!firstHour.isBefore(lastHour)) {
+            segments.add(new Segment(RAW, start, end));
+            return segments;
+        }
+        addSegment(segments, RAW, start, firstHour);
+        LocalDateTime firstDay = ceil(firstHour, ChronoUnit.DAYS);
+        LocalDateTime lastDay = lastHour.truncatedTo(ChronoUnit.DAYS);
+        if (useDays && firstDay.isBefore(lastDay)) {
+            addSegment(segments, TransactionRollup.HOUR, firstHour, firstDay);
+            addSegment(segments, TransactionRollup.DAY, firstDay, lastDay);
+            addSegment(segments, TransactionRollup.HOUR, lastDay, lastHour);
+        } else {
+            addSegment(segments, TransactionRollup.HOUR, firstHour, lastHour);
+        }
+        addSegment(segments, RAW, lastHour, end);
+        return segments;
+    }
+
+    private static void addSegment(List<Segment> segments, String source, LocalDateTime start, LocalDateTime end) {
+        if (start.isBefore(end)) {
+            segments.add(new Segment(source, start, end));
+        }
+    }
+
+    private static LocalDateTime ceil(LocalDateTime time, ChronoUnit unit) {
+        LocalDateTime truncated = time.truncatedTo(unit);
+        return truncated.equals(time) ? time : truncated.plus(1, unit);
+    }
+
+    private static LocalDateTime truncate(LocalDateTime time, String granularity) {
+        return switch (granularity) {
+            case HOUR -> time.truncatedTo(ChronoUnit.HOURS);
+            case DAY -> time.truncatedTo(ChronoUnit.DAYS);
+            default -> time.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+        };
+    }
+
+    private static LocalDateTime next(LocalDateTime bucket, String granularity) {
+        return switch (granularity) {
+            case HOUR -> bucket.plusHours(1);
+            case DAY -> bucket.plusDays(1);
+            default -> bucket.plusMonths(1);
+        };
+    }
+
+    private static long bucketCount(String granularity, LocalDateTime start, LocalDateTime end) {
+        ChronoUnit unit = HOUR.equals(granularity) ? ChronoUnit.HOURS : DAY.equals(granularity) ? ChronoUnit.DAYS : ChronoUnit.MONTHS;
+        return unit.between(truncate(start, granularity), end) + 1;
+    }
+
+    private static void checkRange(LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new IllegalArgumentException("startDate must be before endDate");
+        }
+    }
+
+    private static void checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T cached(Object key, Supplier<T> loader) {
+        return (T) results.get(key, k -> loader.get());
+    }
+
+    record Segment(String source, LocalDateTime start, LocalDateTime end) {
+    }
+
+    private record SeriesKey(String granularity, LocalDateTime start, LocalDateTime end, Long productId) {
+    }
+
+    private record RankingKey(String ranking, LocalDateTime start, LocalDateTime end, int limit) {
+    }
+
+    private static final class Totals {
+
+        static final Totals EMPTY = new Totals();
+
+        long salesCount;
+        long salesQuantity;
+        BigDecimal salesAmount = BigDecimal.ZERO;
+        long purchaseCount;
+        long purchaseQuantity;
+        BigDecimal purchaseAmount = BigDecimal.ZERO;
+
+        void add(String type, Object count, Object quantity, Object amount) {
+            BigDecimal sum = amount != null ? (BigDecimal) amount : BigDecimal.ZERO;
+            if (SALE.equals(type)) {
+                salesCount += ((Number) count).longValue();
+                salesQuantity += quantity != null ? ((Number) quantity).longValue() : 0;
+                salesAmount = salesAmount.add(sum);
+            } else if (PURCHASE.equals(type)) {
+                purchaseCount += ((Number) count).longValue();
+                purchaseQuantity += quantity != null ? ((Number) quantity).longValue() : 0;
+                purchaseAmount = purchaseAmount.add(sum);
+            }
+        }
+
+        SalesBucket toBucket(LocalDateTime bucketStart) {
+            return new SalesBucket(bucketStart, salesCount, salesQuantity, salesAmount,
+                    purchaseCount, purchaseQuantity, purchaseAmount);
+        }
+
+        ProductSales toProductSales(Long productId, Product product) {
+            return new ProductSales(productId, product != null ? product.getName() : null,
+                    product != null ? product.getStock() : null, salesCount, salesQuantity, salesAmount);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.demo.service;
+
+import com.example.demo.exception.InsufficientStockException;
+import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.model.Product;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * In-memory stock counters for write-behind sales. Each product's counter is seeded from {@code products.stock}
+ * minus the units reserved but not yet written, and a reservation is a check-and-decrement under that product's
+ * own monitor, so sales of different products never contend and no sale waits for the database.
+ *
+ * <p>The writer holds {@link #commitLock()} while it commits a batch and settles its reservations, which keeps
+ * seeding from reading a stock level that already includes a batch whose units are still counted as pending.
+ */
+final class StockLedger {
+
+    private final ConcurrentHashMap<Long, Slot> slots = new ConcurrentHashMap<>();
+    private final ReadWriteLock seedLock = new ReentrantReadWriteLock();
+    private final Function<Long, Optional<Product>> loader;
+
+    StockLedger(Function<Long, Optional<Product>> loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Takes {@code quantity} units of the product and returns its unit price.
+     */
+    int reserve(Long productId, int quantity) {
+        Slot slot = slots.computeIfAbsent(productId, id -> new Slot());
+        synchronized (slot) {
+            if (!slot.isSeeded()) {
+                seed(productId, slot);
+            }
+            if (slot.available < quantity) {
+                throw new InsufficientStockException("Insufficient stock. Available: " + slot.available + ", Requested: " + quantity);
+            }
+            slot.available -= quantity;
+            slot.pending.addAndGet(quantity);
+            return slot.price;
+        }
+    }
+
+    /**
+     * Returns a reservation that was never handed to the writer.
+     */
+    void cancel(Long productId, int quantity) {
+        Slot slot = slots.get(productId);
+        if (slot != null) {
+            synchronized (slot) {
+                slot.available += quantity;
+                slot.pending.addAndGet(-quantity);
+            }
+        }
+    }
+
+    /**
+     * Marks reserved units as written; {@code products.stock} now reflects them. Call while holding the commit lock.
+     */
+    void settle(Long productId, int quantity) {
+        Slot slot = slots.get(productId);
+        if (slot != null) {
+            slot.pending.addAndGet(-quantity);
+        }
+    }
+
+    /**
+     * Forgets the counter so the next reservation reseeds it from the database. Never blocks.
+     */
+    void invalidate(Long productId) {
+        Slot slot = slots.get(productId);
+        if (slot != null) {
+            slot.invalidations.incrementAndGet();
+        }
+    }
+
+    Lock commitLock() {
+        return seedLock.writeLock();
+    }
+
+    int pendingUnits() {
+        return slots.values().stream().mapToInt(slot -> slot.pending.get()).sum();
+    }
+
+    private void seed(Long productId, Slot slot) {
+        Lock lock = seedLock.readLock();
+        lock.lock();
+        try {
+            int generation = slot.invalidations.get();
+            Product product = loader.apply(productId).orElse(null);
+            if (product == null) {
+                slots.remove(productId, slot);
+                throw new ResourceNotFoundException("Product not found with id: " + productId);
+            }
+            int stock = product.getStock() != null ? product.getStock() : 0;
+            slot.available = stock - slot.pending.get();
+            slot.price = product.getPrice() != null ? product.getPrice() : 0;
+            slot.seededGeneration = generation;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class Slot {
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicInteger invalidations = new AtomicInteger();
+        private int seededGeneration = -1;
+        private int available;
+        private int price;
+
+        private boolean isSeeded() {
+            return seededGeneration == invalidations.get();
+        }
+    }
+}
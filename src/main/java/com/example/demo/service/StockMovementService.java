@@ -0,0 +1,217 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.StockDrift;
+import com.example.demo.dto.StockLevel;
+import com.example.demo.model.StockMovement;
+import com.example.demo.model.StockSnapshot;
+import com.example.demo.model.Transaction;
+import com.example.demo.repository.StockMovementRepository;
+import com.example.demo.repository.StockSnapshotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only history of every stock change. Whatever writes {@code products.stock} records the same change here
+ * as a signed movement, inside its own database transaction, so the two commit or roll back together;
+ * {@code products.stock} stays the running balance that sales check with their conditional UPDATE and that the
+ * product cache serves. Every stock write therefore pays one more insert while it holds the product's row lock;
+ * the ledger adds history and audit, not throughput. A scheduled job folds movements into per-product
+ * snapshots, so "stock as of" reads one snapshot and at most one interval of movements instead of replaying the
+ * history. {@link #audit()} lists products whose balance no longer matches the ledger, and {@link #reconcile()}
+ * records the difference.
+ */
+@Service
+public class StockMovementService {
+
+    private static final Logger log = LoggerFactory.getLogger(StockMovementService.class);
+
+    private static final String INSERT_SQL = "INSERT INTO stock_movements (product_id, delta, reason, transaction_id, recorded_at) " +
+            "VALUES (?, ?, ?, ?, ?)";
+
+    // Ledger balance of every product: latest snapshot plus the movements recorded after it
+    private static final String BALANCES_SQL = "SELECT p.id, p.name, COALESCE(p.stock, 0), " +
+            "COALESCE((SELECT s.stock FROM stock_snapshots s WHERE s.product_id = p.id ORDER BY s.taken_at DESC LIMIT 1), 0) + " +
+            "COALESCE((SELECT SUM(m.delta) FROM stock_movements m WHERE m.product_id = p.id AND m.recorded_at > " +
+            "COALESCE((SELECT MAX(s.taken_at) FROM stock_snapshots s WHERE s.product_id = p.id), TIMESTAMP '1970-01-01 00:00:00')), 0) " +
+            "FROM products p";
+
+    // One snapshot per product with movements between its latest snapshot and the cutoff
+    private static final String SNAPSHOT_SQL = "INSERT INTO stock_snapshots (product_id, taken_at, stock) " +
+            "SELECT m.product_id, ?, COALESCE(l.stock, 0) + SUM(m.delta) FROM stock_movements m " +
+            "LEFT JOIN (SELECT s.product_id, s.taken_at, s.stock FROM stock_snapshots s WHERE s.taken_at = " +
+            "(SELECT MAX(s2.taken_at) FROM stock_snapshots s2 WHERE s2.product_id = s.product_id)) l ON l.product_id = m.product_id " +
+            "WHERE m.recorded_at <= ? AND (l.taken_at IS NULL OR m.recorded_at > l.taken_at) " +
+            "GROUP BY m.product_id, l.stock";
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @Autowired
+    private StockSnapshotRepository stockSnapshotRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Movements younger than this are left out of a snapshot, so one whose transaction is still open when the
+    // snapshot runs is not skipped by it
+    @Value("${app.stock.snapshot-lag:5m}")
+    private Duration snapshotLag;
+
+    /**
+     * Signed change a transaction makes to its product's stock: sales take units out, purchases put them back.
+     */
+    public static int stockDelta(String transactionType, Integer quantity) {
+        if (quantity == null) {
+            return 0;
+        }
+        if ("SALE".equals(transactionType)) {
+            return -quantity;
+        }
+        if ("PURCHASE".equals(transactionType)) {
+            return quantity;
+        }
+        return 0;
+    }
+
+    /**
+     * Records the stock effect of newly written sales and purchases with one batched insert.
+     */
+    public void recordTransactions(Collection<Transaction> transactions) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            int delta = stockDelta(transaction.getTransactionType(), transaction.getQuantity());
+            if (delta != 0) {
+                rows.add(row(transaction.getProduct().getId(), delta, transaction.getTransactionType(), transaction.getId(), now));
+            }
+        }
+        insert(rows);
+    }
+
+    /**
+     * Records that the stock effect of a transaction was undone, before it is edited or deleted.
+     */
+    public void reverseTransaction(Transaction transaction) {
+        int delta = stockDelta(transaction.getTransactionType(), transaction.getQuantity());
+        if (delta != 0) {
+            insert(Collections.singletonList(row(transaction.getProduct().getId(), -delta, StockMovement.REVERSAL, transaction.getId(), LocalDateTime.now())));
+        }
+    }
+
+    public void record(Long productId, int delta, String reason) {
+        if (delta != 0) {
+            insert(Collections.singletonList(row(productId, delta, reason, null, LocalDateTime.now())));
+        }
+    }
+
+    public void recordAll(Map<Long, Integer> deltas, String reason) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((productId, delta) -> {
+            if (delta != 0) {
+                rows.add(row(productId, delta, reason, null, now));
+            }
+        });
+        insert(rows);
+    }
+
+    public List<StockMovement> getMovements(Long productId, int limit) {
+        return stockMovementRepository.findRecentByProductId(productId, Limit.of(limit));
+    }
+
+    /**
+     * Stock after every movement recorded up to and including {@code at}: the latest snapshot taken by then plus
+     * the movements since.
+     */
+    public StockLevel getStockAsOf(Long productId, LocalDateTime at) {
+        return new StockLevel(productId, at, balance(productId, at));
+    }
+
+    /**
+     * Snapshots every product that moved since its latest snapshot, as of {@code app.stock.snapshot-lag} ago.
+     *
+     * @return the number of snapshots taken
+     */
+    @Scheduled(cron = "${app.stock.snapshot-cron:0 30 2 * * *}")
+    @Transactional
+    public int takeSnapshots() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(snapshotLag));
+        int taken = jdbcTemplate.update(SNAPSHOT_SQL, cutoff, cutoff);
+        log.info("Stock snapshots taken for {} products as of {}", taken, cutoff);
+        return taken;
+    }
+
+    /**
+     * Products whose {@code products.stock} differs from their ledger balance. Read-only.
+     */
+    @Transactional(readOnly = true)
+    public List<StockDrift> audit() {
+        return jdbcTemplate.query(BALANCES_SQL, (rs, rowNum) ->
+                        new StockDrift(rs.getLong(1), rs.getString(2), rs.getLong(3), rs.getLong(4)))
+                .stream()
+                .filter(drift -> drift.getDifference() != 0)
+                .toList();
+    }
+
+    /**
+     * Brings the ledger in line with {@code products.stock} by appending a {@link StockMovement#RECONCILE} movement
+     * for each drifted product, so the difference stays visible in the history. Each product is re-checked under
+     * its row lock first, so a sale committing meanwhile is not counted twice.
+     *
+     * @return the drift that was corrected
+     */
+    @Transactional
+    public List<StockDrift> reconcile() {
+        List<StockDrift> corrected = new ArrayList<>();
+        for (StockDrift drift : audit()) {
+            Integer stock = jdbcTemplate.query("SELECT COALESCE(stock, 0) FROM products WHERE id = ? FOR UPDATE",
+                    rs -> rs.next() ? rs.getInt(1) : null, drift.getProductId());
+            if (stock == null) {
+                continue;
+            }
+            long ledger = balance(drift.getProductId(), null);
+            if (stock != ledger) {
+                record(drift.getProductId(), Math.toIntExact(stock - ledger), StockMovement.RECONCILE);
+                corrected.add(new StockDrift(drift.getProductId(), drift.getProductName(), stock, ledger));
+            }
+        }
+        if (!corrected.isEmpty()) {
+            log.warn("Stock ledger reconciled for {} products", corrected.size());
+        }
+        return corrected;
+    }
+
+    private long balance(Long productId, LocalDateTime at) {
+        List<StockSnapshot> snapshot = stockSnapshotRepository.findLatest(productId, at, Limit.of(1));
+        if (snapshot.isEmpty()) {
+            return stockMovementRepository.sumDelta(productId, null, at);
+        }
+        return snapshot.get(0).getStock() + stockMovementRepository.sumDelta(productId, snapshot.get(0).getTakenAt(), at);
+    }
+
+    private void insert(List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        }
+    }
+
+    private static Object[] row(Long productId, int delta, String reason, Long transactionId, LocalDateTime recordedAt) {
+        return new Object[] {productId, delta, reason, transactionId, Timestamp.valueOf(recordedAt)};
+    }
+}
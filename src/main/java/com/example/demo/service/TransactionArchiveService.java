@@ -0,0 +1,348 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.TransactionTypeSummary;
+import com.example.demo.model.ArchivedTransaction;
+import com.example.demo.model.Transaction;
+import com.example.demo.repository.ArchivedTransactionRepository;
+import com.example.demo.repository.TransactionRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Keeps the {@code transactions} table down to the last {@code app.transactions.archive.retain} of activity.
+ * A nightly job moves everything created before the horizon (midnight, that long ago) to
+ * {@code transactions_archive} in batches, each batch its own database transaction. Totals and rollups are
+ * written when a transaction is recorded, so the archived rows are already folded into them and the move leaves
+ * the stats untouched.
+ *
+ * <p>The reads below answer for both tables. The archive is only queried when a range reaches back to its newest
+ * row, tracked as {@link #getArchivedThrough()}; ranges after it are answered from the hot table alone. The
+ * horizon itself is not used for this: raising {@code retain} moves it back past rows that are already archived.
+ * Archived transactions are read-only: they can be fetched by id and show up in date-range lists, exports and
+ * analytics, but are no longer listed by product or type, and cannot be edited or deleted.
+ */
+@Service
+public class TransactionArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionArchiveService.class);
+
+    private static final String COLUMNS = "id, product_id, quantity, total_price, transaction_type, created_at, description, journal_id";
+
+    private static final Comparator<Transaction> NEWEST_FIRST =
+            Comparator.comparing(Transaction::getCreatedAt).thenComparing(Transaction::getId).reversed();
+    private static final Comparator<Transaction> OLDEST_FIRST =
+            Comparator.comparing(Transaction::getCreatedAt).thenComparing(Transaction::getId);
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ArchivedTransactionRepository archivedTransactionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.transactions.archive.retain:365d}")
+    private Duration retain;
+
+    @Value("${app.transactions.archive.batch-size:1000}")
+    private int batchSize;
+
+    private TransactionTemplate transactionTemplate;
+
+    // MAX(created_at) of the archive, null while it is empty; raised before each batch commits
+    private volatile LocalDateTime archivedThrough;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        archivedThrough = archivedTransactionRepository.findMaxCreatedAt();
+    }
+
+    /**
+     * Start of the day {@code app.transactions.archive.retain} ago. Only transactions created before it are
+     * archived.
+     */
+    public LocalDateTime getHorizon() {
+        return LocalDateTime.now().minus(retain).truncatedTo(ChronoUnit.DAYS);
+    }
+
+    /**
+     * Creation time of the newest archived transaction, or {@code null} when nothing is archived.
+     */
+    public LocalDateTime getArchivedThrough() {
+        return archivedThrough;
+    }
+
+    /**
+     * Moves every transaction created before the horizon to the archive, oldest first.
+     *
+     * @return the number of transactions moved
+     */
+    @Scheduled(cron = "${app.transactions.archive.cron:0 0 4 * * *}")
+    public int archive() {
+        LocalDateTime horizon = getHorizon();
+        int moved = 0;
+        int batch;
+        do {
+            batch = transactionTemplate.execute(status -> moveBatch(horizon));
+            moved += batch;
+        } while (batch == batchSize);
+        if (moved > 0) {
+            log.info("Archived {} transactions created before {}", moved, horizon);
+        }
+        return moved;
+    }
+
+    public Optional<Transaction> findById(Long id) {
+        Optional<Transaction> hot = transactionRepository.findById(id);
+        return hot.isPresent() ? hot : archivedTransactionRepository.findById(id).map(ArchivedTransaction::toTransaction);
+    }
+
+    /**
+     * A keyset page ordered by {@code (createdAt DESC, id DESC)} over both tables. When the hot page is full and
+     * ends after the newest archived row, no archived row can belong on it and the archive is not read.
+     */
+    public List<Transaction> findPageByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate,
+                                                        LocalDateTime createdAt, Long id, Limit limit) {
+        List<Transaction> hot = transactionRepository.findPageByCreatedAtBetween(startDate, endDate, createdAt, id, limit);
+        LocalDateTime through = archivedThrough;
+        if (!reachesArchive(startDate, through)
+                || (hot.size() == limit.max() && hot.get(hot.size() - 1).getCreatedAt().isAfter(through))) {
+            return hot;
+        }
+        List<Transaction> page = new ArrayList<>(hot);
+        archivedTransactionRepository.findPageByCreatedAtBetween(startDate, endDate, createdAt, id, limit)
+                .forEach(archived -> page.add(archived.toTransaction()));
+        page.sort(NEWEST_FIRST);
+        return page.size() > limit.max() ? page.subList(0, limit.max()) : page;
+    }
+
+    /**
+     * Both tables' rows in {@code (createdAt, id)} order, merged as they are read. The same contract as
+     * {@link TransactionRepository#streamByCreatedAtBetween}: consume inside a transaction and close the stream.
+     */
+    public Stream<Transaction> streamByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate) {
+        Stream<Transaction> hot = transactionRepository.streamByCreatedAtBetween(startDate, endDate);
+        if (!reachesArchive(startDate, archivedThrough)) {
+            return hot;
+        }
+        Stream<ArchivedTransaction> archived = archivedTransactionRepository.streamByCreatedAtBetween(startDate, endDate);
+        Iterator<Transaction> merged = new MergingIterator(archived.map(ArchivedTransaction::toTransaction).iterator(),
+                hot.iterator(), OLDEST_FIRST);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    try {
+                        archived.close();
+                    } finally {
+                        hot.close();
+                    }
+                });
+    }
+
+    // Analytics over range edges: [type, count, quantity, amount]; a type may appear once per table
+    public List<Object[]> sumByTypeBetween(LocalDateTime start, LocalDateTime end) {
+        return withArchive(start, transactionRepository.sumByTypeBetween(start, end),
+                () -> archivedTransactionRepository.sumByTypeBetween(start, end));
+    }
+
+    public List<Object[]> sumByTypeBetweenForProduct(Long productId, LocalDateTime start, LocalDateTime end) {
+        return withArchive(start, transactionRepository.sumByTypeBetweenForProduct(productId, start, end),
+                () -> archivedTransactionRepository.sumByTypeBetweenForProduct(productId, start, end));
+    }
+
+    // [productId, count, quantity, amount]; a product may appear once per table
+    public List<Object[]> sumByProductBetween(String type, LocalDateTime start, LocalDateTime end) {
+        return withArchive(start, transactionRepository.sumByProductBetween(type, start, end),
+                () -> archivedTransactionRepository.sumByProductBetween(type, start, end));
+    }
+
+    /**
+     * Hourly buckets over both tables, one row per bucket: [productId, type, day, hour, count, quantity, amount].
+     */
+    public List<Object[]> aggregateHourlyBuckets() {
+        Map<List<Object>, Object[]> buckets = new LinkedHashMap<>();
+        for (List<Object[]> rows : List.of(transactionRepository.aggregateHourlyBuckets(),
+                archivedTransactionRepository.aggregateHourlyBuckets())) {
+            for (Object[] row : rows) {
+                int hour = ((Number) row[3]).intValue();
+                Object[] sums = buckets.computeIfAbsent(List.of(row[0], row[1], row[2], hour),
+                        key -> new Object[]{row[0], row[1], row[2], hour, 0L, 0L, BigDecimal.ZERO});
+                sums[4] = (Long) sums[4] + ((Number) row[4]).longValue();
+                sums[5] = (Long) sums[5] + ((Number) row[5]).longValue();
+                sums[6] = ((BigDecimal) sums[6]).add((BigDecimal) row[6]);
+            }
+        }
+        return new ArrayList<>(buckets.values());
+    }
+
+    public List<TransactionTypeSummary> summarizeByTransactionType() {
+        Map<String, TypeSummary> summaries = new LinkedHashMap<>();
+        for (List<TransactionTypeSummary> rows : List.of(transactionRepository.summarizeByTransactionType(),
+                archivedTransactionRepository.summarizeByTransactionType())) {
+            for (TransactionTypeSummary row : rows) {
+                summaries.computeIfAbsent(row.getTransactionType(), TypeSummary::new).add(row);
+            }
+        }
+        return new ArrayList<>(summaries.values());
+    }
+
+    public Long findMaxJournalId() {
+        Long hot = transactionRepository.findMaxJournalId();
+        Long archived = archivedTransactionRepository.findMaxJournalId();
+        if (hot == null || archived == null) {
+            return hot != null ? hot : archived;
+        }
+        return Math.max(hot, archived);
+    }
+
+    private <T> List<T> withArchive(LocalDateTime start, List<T> hot, Supplier<List<T>> archived) {
+        if (!reachesArchive(start, archivedThrough)) {
+            return hot;
+        }
+        List<T> rows = new ArrayList<>(hot);
+        rows.addAll(archived.get());
+        return rows;
+    }
+
+    // ranges include their start, so a range starting at the newest archived row still reads the archive
+    private static boolean reachesArchive(LocalDateTime start, LocalDateTime through) {
+        return through != null && !start.isAfter(through);
+    }
+
+    private int moveBatch(LocalDateTime before) {
+        // locked, so an edit or delete racing the move waits for it and then finds the row gone
+        // [id, createdAt]
+        List<Object[]> rows = jdbcTemplate.query("SELECT id, created_at FROM transactions WHERE created_at < ? " +
+                        "ORDER BY created_at, id LIMIT ? FOR UPDATE",
+                (rs, rowNum) -> new Object[]{rs.getLong(1), rs.getTimestamp(2).toLocalDateTime()},
+                Timestamp.valueOf(before), batchSize);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = rows.stream().map(row -> (Long) row[0]).toList();
+        // raised before the rows leave the hot table, so no read in between skips the archive they land in
+        LocalDateTime newest = (LocalDateTime) rows.get(rows.size() - 1)[1];
+        LocalDateTime through = archivedThrough;
+        if (through == null || newest.isAfter(through)) {
+            archivedThrough = newest;
+        }
+        String in = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        List<Object> insertArgs = new ArrayList<>(ids.size() + 1);
+        insertArgs.add(Timestamp.valueOf(LocalDateTime.now()));
+        insertArgs.addAll(ids);
+        jdbcTemplate.update("INSERT INTO transactions_archive (" + COLUMNS + ", archived_at) SELECT " + COLUMNS + ", ? " +
+                "FROM transactions WHERE id IN (" + in + ")", insertArgs.toArray());
+        int deleted = jdbcTemplate.update("DELETE FROM transactions WHERE id IN (" + in + ")", ids.toArray());
+        if (deleted != ids.size()) {
+            throw new IllegalStateException("Archived " + ids.size() + " transactions but deleted " + deleted);
+        }
+        return deleted;
+    }
+
+    /**
+     * Merges two iterators that are each sorted by the same order.
+     */
+    private static final class MergingIterator implements Iterator<Transaction> {
+
+        private final Iterator<Transaction> first;
+        private final Iterator<Transaction> second;
+        private final Comparator<Transaction> order;
+        private Transaction nextFirst;
+        private Transaction nextSecond;
+
+        MergingIterator(Iterator<Transaction> first, Iterator<Transaction> second, Comparator<Transaction> order) {
+            this.first = first;
+            this.second = second;
+            this.order = order;
+            nextFirst = first.hasNext() ? first.next() : null;
+            nextSecond = second.hasNext() ? second.next() : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextFirst != null || nextSecond != null;
+        }
+
+        @Override
+        public Transaction next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Transaction next;
+            if (nextSecond == null || (nextFirst != null && order.compare(nextFirst, nextSecond) <= 0)) {
+                next = nextFirst;
+                nextFirst = first.hasNext() ? first.next() : null;
+            } else {
+                next = nextSecond;
+                nextSecond = second.hasNext() ? second.next() : null;
+            }
+            return next;
+        }
+    }
+
+    private static final class TypeSummary implements TransactionTypeSummary {
+
+        private final String transactionType;
+        private long transactionCount;
+        private BigDecimal totalAmount = BigDecimal.ZERO;
+
+        TypeSummary(String transactionType) {
+            this.transactionType = transactionType;
+        }
+
+        void add(TransactionTypeSummary row) {
+            transactionCount += row.getTransactionCount();
+            if (row.getTotalAmount() != null) {
+                totalAmount = totalAmount.add(row.getTotalAmount());
+            }
+        }
+
+        @Override
+        public String getTransactionType() {
+            return transactionType;
+        }
+
+        @Override
+        public Long getTransactionCount() {
+            return transactionCount;
+        }
+
+        @Override
+        public BigDecimal getTotalAmount() {
+            return totalAmount;
+        }
+    }
+}
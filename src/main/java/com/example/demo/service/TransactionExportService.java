@@ -0,0 +1,127 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.TransactionResponse;
+import com.example.demo.model.Transaction;
+import com.example.demo.repository.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.SequenceWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes every transaction in a date range straight to an output stream, oldest first. Rows are read through a
+ * forward-only cursor and the persistence context is cleared after each fetch-size chunk, so memory use does
+ * not depend on how many rows the range holds.
+ */
+@Service
+public class TransactionExportService {
+
+    public static final String CSV = "csv";
+    public static final String NDJSON = "ndjson";
+
+    private static final String CSV_HEADER = "id,created_at,transaction_type,product_id,product_name,quantity,total_price,description";
+
+    @Autowired
+    private TransactionArchiveService transactionArchiveService;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public static boolean isSupported(String format) {
+        return CSV.equals(format) || NDJSON.equals(format);
+    }
+
+    /**
+     * Returns the number of rows written. The stream is flushed but not closed.
+     */
+    @Transactional(readOnly = true)
+    public long export(LocalDateTime startDate, LocalDateTime endDate, String format, OutputStream out) throws IOException {
+        if (!isSupported(format)) {
+            throw new IllegalArgumentException("Unsupported export format: " + format);
+        }
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        try (Stream<Transaction> rows = transactionArchiveService.streamByCreatedAtBetween(startDate, endDate)) {
+            long count = CSV.equals(format) ? writeCsv(rows.iterator(), writer) : writeNdjson(rows.iterator(), writer);
+            writer.flush();
+            return count;
+        }
+    }
+
+    private long writeCsv(Iterator<Transaction> rows, Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        long count = 0;
+        StringBuilder line = new StringBuilder(128);
+        while (rows.hasNext()) {
+            Transaction transaction = rows.next();
+            line.setLength(0);
+            line.append(transaction.getId()).append(',')
+                    .append(transaction.getCreatedAt()).append(',')
+                    .append(transaction.getTransactionType()).append(',')
+                    .append(transaction.getProduct().getId()).append(',');
+            appendCsvText(line, transaction.getProduct().getName());
+            line.append(',').append(transaction.getQuantity())
+                    .append(',').append(transaction.getTotalPrice().toPlainString())
+                    .append(',');
+            appendCsvText(line, transaction.getDescription());
+            line.append('\n');
+            writer.append(line);
+            count = afterRow(count);
+        }
+        return count;
+    }
+
+    private long writeNdjson(Iterator<Transaction> rows, Writer writer) throws IOException {
+        long count = 0;
+        // the sequence writer is not closed: that would close the response stream underneath it
+        SequenceWriter lines = jsonMapper.writer().withRootValueSeparator("\n").writeValues(writer);
+        while (rows.hasNext()) {
+            lines.write(TransactionResponse.from(rows.next()));
+            count = afterRow(count);
+        }
+        lines.flush();
+        if (count > 0) {
+            writer.write('\n');
+        }
+        return count;
+    }
+
+    private long afterRow(long count) {
+        count++;
+        if (count % TransactionRepository.EXPORT_FETCH_SIZE == 0) {
+            entityManager.clear();
+        }
+        return count;
+    }
+
+    /**
+     * Quotes a free-text field when needed and defuses leading characters that spreadsheets treat as formulas.
+     */
+    private static void appendCsvText(StringBuilder line, String value) {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        String text = "=+-@".indexOf(value.charAt(0)) >= 0 ? "'" + value : value;
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            line.append(text);
+            return;
+        }
+        line.append('"').append(text.replace("\"", "\"\"")).append('"');
+    }
+}
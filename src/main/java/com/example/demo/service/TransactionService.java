@@ -1,16 +1,32 @@
 package com.example.demo.service;
 
+import com.example.demo.config.PaginationProperties;
+import com.example.demo.dto.CheckoutRequest;
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.TransactionCursor;
+import com.example.demo.dto.TransactionRequest;
+import com.example.demo.event.InventoryChangedEvent;
+import com.example.demo.exception.InsufficientStockException;
+import com.example.demo.exception.ResourceNotFoundException;
 import com.example.demo.model.Transaction;
 import com.example.demo.model.Product;
 import com.example.demo.repository.TransactionRepository;
 import com.example.demo.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class TransactionService {
@@ -21,21 +37,37 @@ public class TransactionService {
     @Autowired
     private ProductRepository productRepository;
 
-    public List<Transaction> getAllTransactions() {
-        return transactionRepository.findAll();
+    @Autowired
+    private PaginationProperties paginationProperties;
+
+    @Autowired
+    private TransactionTotalsService transactionTotalsService;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private StockMovementService stockMovementService;
+
+    @Autowired
+    private TransactionArchiveService transactionArchiveService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    public CursorPage<Transaction> getTransactions(String cursor, Integer size) {
+        TransactionCursor position = TransactionCursor.decode(cursor);
+        int pageSize = paginationProperties.resolveSize(size);
+        return toPage(transactionRepository.findPage(position.getCreatedAt(), position.getId(), Limit.of(pageSize + 1)), pageSize);
     }
 
     public Optional<Transaction> getTransactionById(Long id) {
-        return transactionRepository.findById(id);
+        return transactionArchiveService.findById(id);
     }
 
+    @Transactional
     public Transaction createSale(Long productId, Integer quantity, String description) {
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("Product not found with id: " + productId));
-
-        if (product.getStock() < quantity) {
-            throw new RuntimeException("Insufficient stock. Available: " + product.getStock() + ", Requested: " + quantity);
-        }
+        Product product = reserveStock(productId, quantity);
 
         BigDecimal totalPrice = BigDecimal.valueOf(product.getPrice()).multiply(BigDecimal.valueOf(quantity));
         
@@ -47,15 +79,12 @@ public class TransactionService {
         transaction.setDescription(description);
         transaction.setCreatedAt(LocalDateTime.now());
 
-        product.setStock(product.getStock() - quantity);
-        productRepository.save(product);
-
-        return transactionRepository.save(transaction);
+        return saveAndRecord(transaction);
     }
 
+    @Transactional
     public Transaction createPurchase(Long productId, Integer quantity, String description) {
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("Product not found with id: " + productId));
+        Product product = restock(productId, quantity);
 
         BigDecimal totalPrice = BigDecimal.valueOf(product.getPrice()).multiply(BigDecimal.valueOf(quantity));
         
@@ -67,68 +96,142 @@ public class TransactionService {
         transaction.setDescription(description);
         transaction.setCreatedAt(LocalDateTime.now());
 
-        product.setStock(product.getStock() + quantity);
-        productRepository.save(product);
-
-        return transactionRepository.save(transaction);
+        return saveAndRecord(transaction);
     }
 
+    @Transactional
     public Transaction createTransaction(Transaction transaction) {
         if (transaction.getProduct() == null || transaction.getProduct().getId() == null) {
             throw new RuntimeException("Product is required");
         }
 
-        Product product = productRepository.findById(transaction.getProduct().getId())
-                .orElseThrow(() -> new RuntimeException("Product not found with id: " + transaction.getProduct().getId()));
+        transaction.setProduct(applyStock(transaction.getTransactionType(), transaction.getProduct().getId(), transaction.getQuantity()));
 
-        transaction.setProduct(product);
-        
-        if ("SALE".equals(transaction.getTransactionType())) {
-            if (product.getStock() < transaction.getQuantity()) {
-                throw new RuntimeException("Insufficient stock for sale");
+        if (transaction.getCreatedAt() == null) {
+            transaction.setCreatedAt(LocalDateTime.now());
+        }
+
+        return saveAndRecord(transaction);
+    }
+
+    /**
+     * Sells a whole basket in one database transaction: one select for every product in the basket, one
+     * conditional stock update per distinct product and a single batched insert of all sale rows.
+     * Any failing line rolls back the entire basket.
+     */
+    @Transactional
+    public List<Transaction> checkout(CheckoutRequest request) {
+        if (request.getItems() == null || request.getItems().isEmpty()) {
+            throw new RuntimeException("Checkout requires at least one item");
+        }
+
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (TransactionRequest item : request.getItems()) {
+            if (item.getProductId() == null) {
+                throw new RuntimeException("Product is required");
             }
-            product.setStock(product.getStock() - transaction.getQuantity());
-        } else if ("PURCHASE".equals(transaction.getTransactionType())) {
-            product.setStock(product.getStock() + transaction.getQuantity());
+            requirePositive(item.getQuantity());
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
         }
 
-        if (transaction.getCreatedAt() == null) {
-            transaction.setCreatedAt(LocalDateTime.now());
+        Map<Long, Product> products = loadProducts(quantities.keySet());
+        for (Long productId : quantities.keySet()) {
+            if (!products.containsKey(productId)) {
+                throw new ResourceNotFoundException("Product not found with id: " + productId);
+            }
         }
 
-        productRepository.save(product);
-        return transactionRepository.save(transaction);
+        // the conditional UPDATE is the only stock check; a short line throws and rolls back the lines before it
+        quantities.forEach((productId, quantity) -> {
+            productCache.evict(productId);
+            if (productRepository.decrementStock(productId, quantity) == 0) {
+                throw new InsufficientStockException("Insufficient stock for product " + productId + ", Requested: " + quantity);
+            }
+        });
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Transaction> transactions = new ArrayList<>();
+        for (TransactionRequest item : request.getItems()) {
+            Product product = products.get(item.getProductId());
+
+            Transaction transaction = new Transaction();
+            transaction.setProduct(product);
+            transaction.setQuantity(item.getQuantity());
+            transaction.setTotalPrice(BigDecimal.valueOf(product.getPrice()).multiply(BigDecimal.valueOf(item.getQuantity())));
+            transaction.setTransactionType("SALE");
+            transaction.setDescription(request.getDescription());
+            transaction.setCreatedAt(now);
+            transactions.add(transaction);
+        }
+
+        List<Transaction> saved = transactionRepository.saveAll(transactions);
+        saved.forEach(transactionTotalsService::record);
+        stockMovementService.recordTransactions(saved);
+        eventPublisher.publishEvent(InventoryChangedEvent.recorded(saved));
+        return saved;
     }
 
+    /**
+     * Replaces a transaction, moving stock with it: the old sale or purchase is undone first, then the new one
+     * is applied with the same conditional updates as a new transaction.
+     */
+    @Transactional
     public Transaction updateTransaction(Long id, Transaction transactionDetails) {
         Transaction transaction = transactionRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Transaction not found with id: " + id));
+                .orElseThrow(() -> new ResourceNotFoundException("Transaction not found with id: " + id));
+        if (transactionDetails.getProduct() == null || transactionDetails.getProduct().getId() == null) {
+            throw new RuntimeException("Product is required");
+        }
+        Long previousProductId = transaction.getProduct().getId();
+        transactionTotalsService.reverse(transaction);
+        undoStock(transaction);
 
-        transaction.setProduct(transactionDetails.getProduct());
+        transaction.setProduct(applyStock(transactionDetails.getTransactionType(), transactionDetails.getProduct().getId(),
+                transactionDetails.getQuantity()));
         transaction.setQuantity(transactionDetails.getQuantity());
         transaction.setTotalPrice(transactionDetails.getTotalPrice());
         transaction.setTransactionType(transactionDetails.getTransactionType());
         transaction.setDescription(transactionDetails.getDescription());
 
-        return transactionRepository.save(transaction);
+        Transaction saved = saveAndRecord(transaction);
+        eventPublisher.publishEvent(InventoryChangedEvent.changed(previousProductId));
+        return saved;
     }
 
+    /**
+     * Deletes a transaction and gives back its stock: a deleted sale returns its units, a deleted purchase takes
+     * them out again, and fails if they have been sold since.
+     */
+    @Transactional
     public void deleteTransaction(Long id) {
         Transaction transaction = transactionRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Transaction not found with id: " + id));
+                .orElseThrow(() -> new ResourceNotFoundException("Transaction not found with id: " + id));
+        transactionTotalsService.reverse(transaction);
+        undoStock(transaction);
         transactionRepository.delete(transaction);
+        eventPublisher.publishEvent(InventoryChangedEvent.changed(transaction.getProduct().getId()));
     }
 
-    public List<Transaction> getTransactionsByProductId(Long productId) {
-        return transactionRepository.findByProductId(productId);
+    public CursorPage<Transaction> getTransactionsByProductId(Long productId, String cursor, Integer size) {
+        TransactionCursor position = TransactionCursor.decode(cursor);
+        int pageSize = paginationProperties.resolveSize(size);
+        return toPage(transactionRepository.findPageByProductId(productId,
+                position.getCreatedAt(), position.getId(), Limit.of(pageSize + 1)), pageSize);
     }
 
-    public List<Transaction> getTransactionsByType(String transactionType) {
-        return transactionRepository.findByTransactionType(transactionType);
+    public CursorPage<Transaction> getTransactionsByType(String transactionType, String cursor, Integer size) {
+        TransactionCursor position = TransactionCursor.decode(cursor);
+        int pageSize = paginationProperties.resolveSize(size);
+        return toPage(transactionRepository.findPageByTransactionType(transactionType,
+                position.getCreatedAt(), position.getId(), Limit.of(pageSize + 1)), pageSize);
     }
 
-    public List<Transaction> getTransactionsByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        return transactionRepository.findByCreatedAtBetween(startDate, endDate);
+    public CursorPage<Transaction> getTransactionsByDateRange(LocalDateTime startDate, LocalDateTime endDate,
+                                                              String cursor, Integer size) {
+        TransactionCursor position = TransactionCursor.decode(cursor);
+        int pageSize = paginationProperties.resolveSize(size);
+        return toPage(transactionArchiveService.findPageByCreatedAtBetween(startDate, endDate,
+                position.getCreatedAt(), position.getId(), Limit.of(pageSize + 1)), pageSize);
     }
 
     public List<Transaction> getRecentTransactions() {
@@ -136,20 +239,97 @@ public class TransactionService {
     }
 
     public long getTransactionCountByType(String transactionType) {
-        return transactionRepository.countByTransactionType(transactionType);
+        return transactionTotalsService.getTransactionCount(transactionType);
     }
 
     public BigDecimal getTotalSales() {
-        return transactionRepository.sumTotalSales();
+        return transactionTotalsService.getTotalAmount("SALE");
     }
 
     public BigDecimal getTotalPurchases() {
-        return transactionRepository.sumTotalPurchases();
+        return transactionTotalsService.getTotalAmount("PURCHASE");
     }
 
     public BigDecimal getNetRevenue() {
-        BigDecimal totalSales = getTotalSales();
-        BigDecimal totalPurchases = getTotalPurchases();
-        return totalSales != null && totalPurchases != null ? totalSales.subtract(totalPurchases) : BigDecimal.ZERO;
+        return getTotalSales().subtract(getTotalPurchases());
+    }
+
+    /**
+     * Takes {@code quantity} units out of stock with a single conditional UPDATE, so concurrent sales of the
+     * same product cannot oversell. The row lock it takes is held until the surrounding transaction commits,
+     * so sales of one product still queue behind each other for the rest of that transaction (the sale insert,
+     * totals, rollups and ledger entry); they just never read stock that another sale is about to change.
+     */
+    private Product reserveStock(Long productId, Integer quantity) {
+        requirePositive(quantity);
+        boolean reserved = productRepository.decrementStock(productId, quantity) > 0;
+        productCache.evict(productId);
+
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + productId));
+        if (!reserved) {
+            throw new InsufficientStockException("Insufficient stock. Available: " + product.getStock() + ", Requested: " + quantity);
+        }
+        return product;
+    }
+
+    private Product applyStock(String transactionType, Long productId, Integer quantity) {
+        if ("SALE".equals(transactionType)) {
+            return reserveStock(productId, quantity);
+        }
+        if ("PURCHASE".equals(transactionType)) {
+            return restock(productId, quantity);
+        }
+        return productRepository.findById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + productId));
+    }
+
+    private void undoStock(Transaction transaction) {
+        Long productId = transaction.getProduct().getId();
+        int delta = -StockMovementService.stockDelta(transaction.getTransactionType(), transaction.getQuantity());
+        if (delta == 0) {
+            return;
+        }
+        productCache.evict(productId);
+        if (delta > 0) {
+            productRepository.incrementStock(productId, delta);
+        } else if (productRepository.decrementStock(productId, -delta) == 0) {
+            throw new InsufficientStockException("Cannot undo purchase " + transaction.getId()
+                    + ": fewer than " + -delta + " units of product " + productId + " left in stock");
+        }
+        stockMovementService.reverseTransaction(transaction);
+    }
+
+    private Product restock(Long productId, Integer quantity) {
+        requirePositive(quantity);
+        productCache.evict(productId);
+        if (productRepository.incrementStock(productId, quantity) == 0) {
+            throw new ResourceNotFoundException("Product not found with id: " + productId);
+        }
+        return productRepository.findById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + productId));
+    }
+
+    private Transaction saveAndRecord(Transaction transaction) {
+        Transaction saved = transactionRepository.save(transaction);
+        transactionTotalsService.record(saved);
+        stockMovementService.recordTransactions(List.of(saved));
+        eventPublisher.publishEvent(InventoryChangedEvent.recorded(List.of(saved)));
+        return saved;
+    }
+
+    private Map<Long, Product> loadProducts(Iterable<Long> productIds) {
+        return productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+    }
+
+    private void requirePositive(Integer quantity) {
+        if (quantity == null || quantity <= 0) {
+            throw new RuntimeException("Quantity must be greater than zero");
+        }
+    }
+
+    private CursorPage<Transaction> toPage(List<Transaction> fetched, int pageSize) {
+        return CursorPage.of(fetched, pageSize, transaction -> TransactionCursor.of(transaction).encode());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,296 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.TransactionTypeSummary;
+import com.example.demo.model.Transaction;
+import com.example.demo.model.TransactionRollup;
+import com.example.demo.repository.TransactionTotalRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.sql.Savepoint;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps per-type running totals and per-product hourly/daily rollups in step with the transactions table, so
+ * the stats endpoints read a handful of rows instead of summing every transaction.
+ *
+ * <p>Callers must invoke {@link #record} / {@link #reverse} inside the same database transaction that writes
+ * the {@link Transaction} row, so the totals commit or roll back together with it. That transaction holds a
+ * shared lock until it completes, and {@link #rebuild} takes it exclusively, so a rebuild never replaces rows
+ * that an in-flight transaction has already incremented, nor misses a transaction that commits during it.
+ */
+@Service
+public class TransactionTotalsService {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionTotalsService.class);
+
+    private static final int MAX_UPSERT_ATTEMPTS = 3;
+
+    @Autowired
+    private TransactionTotalRepository transactionTotalRepository;
+
+    @Autowired
+    private TransactionArchiveService transactionArchiveService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Value("${app.totals.stripes:8}")
+    private int stripes;
+
+    @Value("${app.totals.reconcile-on-startup:false}")
+    private boolean reconcileOnStartup;
+
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    public void record(Transaction transaction) {
+        holdUntilCompletion();
+        apply(transaction.getProduct().getId(), transaction.getTransactionType(), transaction.getCreatedAt(),
+                1, transaction.getQuantity(), transaction.getTotalPrice());
+    }
+
+    public void reverse(Transaction transaction) {
+        holdUntilCompletion();
+        apply(transaction.getProduct().getId(), transaction.getTransactionType(), transaction.getCreatedAt(),
+                -1, -transaction.getQuantity(), transaction.getTotalPrice().negate());
+    }
+
+    public long getTransactionCount(String transactionType) {
+        return transactionTotalRepository.sumTransactionCount(transactionType);
+    }
+
+    public long getTotalTransactionCount() {
+        return transactionTotalRepository.sumAllTransactionCount();
+    }
+
+    public BigDecimal getTotalAmount(String transactionType) {
+        return transactionTotalRepository.sumTotalAmount(transactionType);
+    }
+
+    /**
+     * Recomputes every total and rollup from the transactions, hot and archived. Waits for transactions that have
+     * recorded totals to complete and holds off new ones until this transaction completes.
+     */
+    @Transactional
+    public void rebuild() {
+        Lock lock = rebuildLock.writeLock();
+        lock.lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+
+        jdbcTemplate.update("DELETE FROM transaction_totals");
+        jdbcTemplate.update("DELETE FROM transaction_rollups");
+
+        Map<String, Object[]> totals = new HashMap<>();
+        Map<List<Object>, Object[]> daily = new HashMap<>();
+        List<Object[]> rollupRows = new ArrayList<>();
+
+        for (Object[] row : transactionArchiveService.aggregateHourlyBuckets()) {
+            Long productId = (Long) row[0];
+            String type = (String) row[1];
+            LocalDate day = (LocalDate) row[2];
+            int hour = ((Number) row[3]).intValue();
+            long count = ((Number) row[4]).longValue();
+            long quantity = ((Number) row[5]).longValue();
+            BigDecimal amount = (BigDecimal) row[6];
+
+            rollupRows.add(rollupRow(TransactionRollup.HOUR, day.atTime(hour, 0), productId, type, count, quantity, amount));
+            accumulate(daily.computeIfAbsent(List.of(day, productId, type), key -> new Object[]{0L, 0L, BigDecimal.ZERO}),
+                    count, quantity, amount);
+            accumulate(totals.computeIfAbsent(type, key -> new Object[]{0L, 0L, BigDecimal.ZERO}), count, quantity, amount);
+        }
+        daily.forEach((key, sums) -> rollupRows.add(rollupRow(TransactionRollup.DAY, ((LocalDate) key.get(0)).atStartOfDay(),
+                (Long) key.get(1), (String) key.get(2), (Long) sums[0], (Long) sums[1], (BigDecimal) sums[2])));
+
+        jdbcTemplate.batchUpdate("INSERT INTO transaction_rollups (granularity, bucket_start, product_id, transaction_type, " +
+                "transaction_count, total_quantity, total_amount) VALUES (?, ?, ?, ?, ?, ?, ?)", rollupRows);
+        List<Object[]> totalRows = new ArrayList<>();
+        totals.forEach((type, sums) -> totalRows.add(new Object[]{type, 0, sums[0], sums[1], sums[2]}));
+        jdbcTemplate.batchUpdate("INSERT INTO transaction_totals (transaction_type, slot, transaction_count, total_quantity, total_amount) " +
+                "VALUES (?, ?, ?, ?, ?)", totalRows);
+        catalogVersion.bump();
+    }
+
+    /**
+     * Compares the running totals with a full SUM over the transactions, hot and archived, and rebuilds them on drift.
+     *
+     * @return {@code true} if the totals were already consistent
+     */
+    @Transactional
+    public boolean reconcile() {
+        List<TransactionTypeSummary> expected = transactionArchiveService.summarizeByTransactionType();
+        long expectedCount = 0;
+        boolean consistent = true;
+        for (TransactionTypeSummary summary : expected) {
+            expectedCount += summary.getTransactionCount();
+            BigDecimal expectedAmount = summary.getTotalAmount() != null ? summary.getTotalAmount() : BigDecimal.ZERO;
+            if (getTransactionCount(summary.getTransactionType()) != summary.getTransactionCount()
+                    || getTotalAmount(summary.getTransactionType()).compareTo(expectedAmount) != 0) {
+                consistent = false;
+            }
+        }
+        if (getTotalTransactionCount() != expectedCount) {
+            consistent = false;
+        }
+
+        if (!consistent) {
+            log.warn("Running transaction totals drifted from the transactions table, rebuilding");
+            rebuild();
+        }
+        return consistent;
+    }
+
+    /**
+     * Runs on {@code app.totals.reconcile-cron}; it scans the whole transactions and archive tables, so schedule
+     * it off-peak.
+     */
+    @Scheduled(cron = "${app.totals.reconcile-cron:0 0 3 * * *}")
+    @Transactional
+    public void scheduledReconcile() {
+        reconcile();
+    }
+
+    /**
+     * Off unless {@code app.totals.reconcile-on-startup} is set, so restarting a till during trading does not
+     * scan every transaction; turn it on once after loading data the totals have not seen.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void reconcileOnStartup() {
+        if (reconcileOnStartup) {
+            reconcile();
+        }
+    }
+
+    /**
+     * Takes the shared side of the rebuild lock for the rest of the caller's transaction, once per transaction.
+     */
+    private void holdUntilCompletion() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(rebuildLock)) {
+            return;
+        }
+        Lock lock = rebuildLock.readLock();
+        lock.lock();
+        TransactionSynchronizationManager.bindResource(rebuildLock, lock);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(rebuildLock);
+                lock.unlock();
+            }
+        });
+    }
+
+    private void apply(Long productId, String type, LocalDateTime createdAt, int count, long quantity, BigDecimal amount) {
+        Objects.requireNonNull(productId, "productId");
+        int slot = ThreadLocalRandom.current().nextInt(stripes);
+        upsert("UPDATE transaction_totals SET transaction_count = transaction_count + ?, total_quantity = total_quantity + ?, " +
+                        "total_amount = total_amount + ? WHERE transaction_type = ? AND slot = ?",
+                new Object[]{count, quantity, amount, type, slot},
+                "INSERT INTO transaction_totals (transaction_type, slot, transaction_count, total_quantity, total_amount) " +
+                        "VALUES (?, ?, ?, ?, ?)",
+                new Object[]{type, slot, count, quantity, amount});
+
+        upsertRollup(TransactionRollup.HOUR, createdAt.truncatedTo(ChronoUnit.HOURS), productId, type, count, quantity, amount);
+        upsertRollup(TransactionRollup.DAY, createdAt.toLocalDate().atStartOfDay(), productId, type, count, quantity, amount);
+    }
+
+    private void upsertRollup(String granularity, LocalDateTime bucketStart, Long productId, String type,
+                              int count, long quantity, BigDecimal amount) {
+        Timestamp bucket = Timestamp.valueOf(bucketStart);
+        upsert("UPDATE transaction_rollups SET transaction_count = transaction_count + ?, total_quantity = total_quantity + ?, " +
+                        "total_amount = total_amount + ? " +
+                        "WHERE granularity = ? AND bucket_start = ? AND product_id = ? AND transaction_type = ?",
+                new Object[]{count, quantity, amount, granularity, bucket, productId, type},
+                "INSERT INTO transaction_rollups (granularity, bucket_start, product_id, transaction_type, " +
+                        "transaction_count, total_quantity, total_amount) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                new Object[]{granularity, bucket, productId, type, count, quantity, amount});
+    }
+
+    /**
+     * Portable upsert: update the row if it exists, otherwise insert it. A concurrent writer that inserted
+     * the same key first surfaces as a duplicate key, after which the update is retried against its row. The
+     * insert runs under a savepoint, so on databases where a failed statement aborts the transaction (PostgreSQL)
+     * only the insert is rolled back.
+     */
+    private void upsert(String updateSql, Object[] updateArgs, String insertSql, Object[] insertArgs) {
+        for (int attempt = 1; attempt <= MAX_UPSERT_ATTEMPTS; attempt++) {
+            if (jdbcTemplate.update(updateSql, updateArgs) > 0) {
+                return;
+            }
+            try {
+                insertUnderSavepoint(insertSql, insertArgs);
+                return;
+            } catch (DuplicateKeyException e) {
+                if (attempt == MAX_UPSERT_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private void insertUnderSavepoint(String sql, Object[] args) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            jdbcTemplate.update(sql, args);
+            return;
+        }
+        // the caller's transactional connection, so the savepoint and the insert share it
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            Savepoint savepoint = connection.setSavepoint();
+            try {
+                jdbcTemplate.update(sql, args);
+            } catch (DuplicateKeyException e) {
+                connection.rollback(savepoint);
+                throw e;
+            }
+            connection.releaseSavepoint(savepoint);
+            return null;
+        });
+    }
+
+    private static Object[] rollupRow(String granularity, LocalDateTime bucketStart, Long productId, String type,
+                                      long count, long quantity, BigDecimal amount) {
+        return new Object[]{granularity, Timestamp.valueOf(bucketStart), productId, type, count, quantity, amount};
+    }
+
+    private static void accumulate(Object[] sums, long count, long quantity, BigDecimal amount) {
+        sums[0] = (Long) sums[0] + count;
+        sums[1] = (Long) sums[1] + quantity;
+        sums[2] = ((BigDecimal) sums[2]).add(amount);
+    }
+}
@@ -0,0 +1,572 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ProvisionalSale;
+import com.example.demo.event.InventoryChangedEvent;
+import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.exception.SalesBacklogFullException;
+import com.example.demo.model.Product;
+import com.example.demo.model.RejectedSale;
+import com.example.demo.model.Transaction;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.RejectedSaleRepository;
+import com.example.demo.repository.TransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.dao.NonTransientDataAccessResourceException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * High-throughput sale ingestion. A sale is checked and taken out of an in-memory {@link StockLedger}, appended
+ * to the {@link SaleJournal} and queued; the caller gets a provisional id as soon as the journal line is on disk.
+ * A single writer thread drains the queue and stores each batch in one database transaction: one conditional
+ * stock UPDATE per product, a batched insert of the sale rows and the running totals.
+ *
+ * <p>At startup, journal entries whose {@code journal_id} is not in the transactions table yet are written
+ * before any new sale is accepted, so a crash loses nothing that was acknowledged.
+ *
+ * <p>Stock changes made through the synchronous endpoints reach the ledger after they commit. A sale accepted
+ * in that window can find the stock gone when it is written; it is then recorded in {@code rejected_sales}, in
+ * the same database transaction as the rest of its batch and before its journal line can be dropped, and reported
+ * by {@link #getStatus}. A batch the database refuses for good (a constraint rather than a lost connection) is
+ * written again one sale at a time, and only the sales that still fail are rejected.
+ */
+@Service
+@ConditionalOnProperty(name = "app.sales.write-behind.enabled", havingValue = "true")
+public class WriteBehindSaleService {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindSaleService.class);
+
+    private static final int REPLAY_CHUNK = 500;
+    private static final int MAX_DESCRIPTION_LENGTH = 255;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private RejectedSaleRepository rejectedSaleRepository;
+
+    @Autowired
+    private TransactionTotalsService transactionTotalsService;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private StockMovementService stockMovementService;
+
+    @Autowired
+    private TransactionArchiveService transactionArchiveService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.sales.write-behind.journal:./data/sales.journal}")
+    private Path journalPath;
+
+    @Value("${app.sales.write-behind.fsync:true}")
+    private boolean fsync;
+
+    @Value("${app.sales.write-behind.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.sales.write-behind.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.sales.write-behind.retry-delay:1s}")
+    private Duration retryDelay;
+
+    private TransactionTemplate transactionTemplate;
+    private StockLedger ledger;
+    private SaleJournal journal;
+    private BlockingQueue<SaleJournal.Entry> queue;
+    private Thread writer;
+
+    private final Object appendLock = new Object();
+    private long nextJournalId;
+    private long appended;
+    private long truncatedAt;
+    private boolean accepting;
+    private final AtomicLong written = new AtomicLong();
+
+    private final Map<Long, SaleJournal.Entry> pending = new ConcurrentHashMap<>();
+
+    private Counter rejectedCounter;
+    private DistributionSummary batchSizes;
+
+    @PostConstruct
+    void start() throws IOException {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        ledger = new StockLedger(productRepository::findById);
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        bindMetrics();
+
+        List<SaleJournal.Entry> journaled = SaleJournal.read(journalPath);
+        Long maxStored = transactionArchiveService.findMaxJournalId();
+        long maxId = maxStored != null ? maxStored : 0;
+        for (SaleJournal.Entry entry : journaled) {
+            maxId = Math.max(maxId, entry.id());
+        }
+        replay(journaled);
+
+        journal = new SaleJournal(journalPath, fsync);
+        journal.truncate();
+        nextJournalId = maxId + 1;
+        accepting = true;
+
+        writer = new Thread(this::drainQueue, "sale-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Write-behind sales enabled: journal {}, queue capacity {}, batch size {}, fsync {}",
+                journalPath.toAbsolutePath(), queueCapacity, batchSize, fsync);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException, IOException {
+        synchronized (appendLock) {
+            accepting = false;
+        }
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        truncateJournalIfWritten();
+        if (!queue.isEmpty()) {
+            log.warn("{} accepted sales were not written before shutdown; they will be replayed from the journal", queue.size());
+        }
+        journal.close();
+    }
+
+    /**
+     * Accepts a sale once its journal entry is durable; the returned sale is {@code PENDING}. The sale is checked
+     * here against everything the transactions table enforces, so an accepted sale can only be rejected later
+     * for lack of stock.
+     *
+     * <p>If forcing the journal to disk fails the sale is still queued and still answered with 202: it will be
+     * written like any other, and {@link #getStatus} reports the outcome. Refusing it instead would make the
+     * till retry a sale that is already on its way to the database.
+     */
+    public ProvisionalSale acceptSale(Long productId, Integer quantity, String description) {
+        if (quantity == null || quantity <= 0) {
+            throw new RuntimeException("Quantity must be greater than zero");
+        }
+        if (description != null && description.length() > MAX_DESCRIPTION_LENGTH) {
+            throw new RuntimeException("Description is longer than " + MAX_DESCRIPTION_LENGTH + " characters");
+        }
+        // throws ResourceNotFoundException when the product does not exist
+        int unitPrice = ledger.reserve(productId, quantity);
+
+        SaleJournal.Entry entry;
+        long position;
+        synchronized (appendLock) {
+            if (!accepting || queue.remainingCapacity() == 0) {
+                ledger.cancel(productId, quantity);
+                throw new SalesBacklogFullException("Sales backlog is full (" + queueCapacity + " sales waiting to be written)");
+            }
+            entry = new SaleJournal.Entry(nextJournalId, productId, quantity, unitPrice, LocalDateTime.now(), description);
+            try {
+                position = journal.append(entry);
+            } catch (IOException e) {
+                ledger.cancel(productId, quantity);
+                throw new UncheckedIOException("Could not append to the sale journal", e);
+            }
+            nextJournalId++;
+            appended++;
+            pending.put(entry.id(), entry);
+            // only producers add, under this lock, so the capacity checked above is still there
+            queue.add(entry);
+        }
+
+        try {
+            journal.sync(position);
+        } catch (IOException e) {
+            log.error("Could not sync the sale journal; sale {} is queued but may be lost if the application stops before it is written",
+                    entry.id(), e);
+        }
+        return toProvisionalSale(entry, ProvisionalSale.PENDING);
+    }
+
+    public ProvisionalSale getStatus(Long provisionalId) {
+        SaleJournal.Entry entry = pending.get(provisionalId);
+        if (entry != null) {
+            return toProvisionalSale(entry, ProvisionalSale.PENDING);
+        }
+        RejectedSale rejection = rejectedSaleRepository.findById(provisionalId).orElse(null);
+        if (rejection != null) {
+            ProvisionalSale sale = new ProvisionalSale();
+            sale.setProvisionalId(provisionalId);
+            sale.setStatus(ProvisionalSale.REJECTED);
+            sale.setProductId(rejection.getProductId());
+            sale.setQuantity(rejection.getQuantity());
+            sale.setTotalPrice(rejection.getTotalPrice());
+            sale.setCreatedAt(rejection.getCreatedAt());
+            sale.setReason(rejection.getReason());
+            return sale;
+        }
+        Transaction transaction = transactionRepository.findByJournalId(provisionalId)
+                .orElseThrow(() -> new ResourceNotFoundException("Provisional sale not found with id: " + provisionalId));
+        ProvisionalSale sale = new ProvisionalSale();
+        sale.setProvisionalId(provisionalId);
+        sale.setStatus(ProvisionalSale.COMMITTED);
+        sale.setTransactionId(transaction.getId());
+        sale.setProductId(transaction.getProduct().getId());
+        sale.setQuantity(transaction.getQuantity());
+        sale.setTotalPrice(transaction.getTotalPrice());
+        sale.setCreatedAt(transaction.getCreatedAt());
+        return sale;
+    }
+
+    public int getBacklog() {
+        return queue.size();
+    }
+
+    /**
+     * Reseeds the counters of products changed by the synchronous endpoints. The writer's own batches are
+     * skipped: the ledger already accounts for them when they are settled.
+     */
+    @TransactionalEventListener
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        if (Thread.currentThread() == writer) {
+            return;
+        }
+        event.getProductIds().forEach(ledger::invalidate);
+    }
+
+    private void drainQueue() {
+        List<SaleJournal.Entry> batch = new ArrayList<>(batchSize);
+        while (true) {
+            boolean stopping;
+            synchronized (appendLock) {
+                stopping = !accepting;
+            }
+            if (stopping && queue.isEmpty()) {
+                return;
+            }
+            try {
+                SaleJournal.Entry first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    truncateJournalIfWritten();
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeWithRetry(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void writeWithRetry(List<SaleJournal.Entry> batch) throws InterruptedException {
+        while (true) {
+            try {
+                write(batch);
+                return;
+            } catch (RuntimeException e) {
+                boolean stopping;
+                synchronized (appendLock) {
+                    stopping = !accepting;
+                }
+                if (stopping) {
+                    log.error("Giving up on {} journaled sales at shutdown; they will be replayed at startup", batch.size(), e);
+                    return;
+                }
+                log.error("Writing {} journaled sales failed; retrying in {}", batch.size(), retryDelay, e);
+                Thread.sleep(retryDelay.toMillis());
+            }
+        }
+    }
+
+    /**
+     * Writes the batch, removing each entry from it once it is stored or rejected, so a retry after a lost
+     * connection only sees what is left.
+     */
+    private void write(List<SaleJournal.Entry> batch) {
+        try {
+            finish(batch, commit(batch));
+            batch.clear();
+            return;
+        } catch (RuntimeException e) {
+            if (!isPermanent(e)) {
+                throw e;
+            }
+            log.warn("Writing {} journaled sales failed; writing them one at a time", batch.size(), e);
+        }
+        for (Iterator<SaleJournal.Entry> it = batch.iterator(); it.hasNext(); ) {
+            List<SaleJournal.Entry> single = List.of(it.next());
+            Map<SaleJournal.Entry, String> failures;
+            try {
+                failures = commit(single);
+            } catch (RuntimeException e) {
+                if (!isPermanent(e)) {
+                    throw e;
+                }
+                failures = recordAlone(single.get(0), reason(e));
+                release(single.get(0));
+            }
+            finish(single, failures);
+            it.remove();
+        }
+    }
+
+    private Map<SaleJournal.Entry, String> commit(List<SaleJournal.Entry> entries) {
+        Lock lock = ledger.commitLock();
+        lock.lock();
+        try {
+            Map<SaleJournal.Entry, String> failures = transactionTemplate.execute(status -> insertBatch(entries));
+            for (SaleJournal.Entry entry : entries) {
+                ledger.settle(entry.productId(), entry.quantity());
+            }
+            failures.keySet().forEach(entry -> ledger.invalidate(entry.productId()));
+            return failures;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops the reservation of a sale the database refused; the product is reseeded on its next sale.
+     */
+    private void release(SaleJournal.Entry entry) {
+        Lock lock = ledger.commitLock();
+        lock.lock();
+        try {
+            ledger.settle(entry.productId(), entry.quantity());
+            ledger.invalidate(entry.productId());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void finish(List<SaleJournal.Entry> entries, Map<SaleJournal.Entry, String> failures) {
+        failures.forEach((entry, reason) ->
+                log.warn("Journaled sale {} of product {} rejected: {}", entry.id(), entry.productId(), reason));
+        rejectedCounter.increment(failures.size());
+        batchSizes.record(entries.size());
+        for (SaleJournal.Entry entry : entries) {
+            pending.remove(entry.id());
+        }
+        written.addAndGet(entries.size());
+    }
+
+    /**
+     * Records a sale whose own transaction the database refused, in a transaction of its own.
+     */
+    private Map<SaleJournal.Entry, String> recordAlone(SaleJournal.Entry entry, String reason) {
+        Map<SaleJournal.Entry, String> failures = Map.of(entry, reason);
+        transactionTemplate.executeWithoutResult(status -> recordRejections(failures));
+        return failures;
+    }
+
+    private void recordRejections(Map<SaleJournal.Entry, String> failures) {
+        if (failures.isEmpty()) {
+            return;
+        }
+        List<RejectedSale> rows = new ArrayList<>(failures.size());
+        failures.forEach((entry, reason) -> rows.add(new RejectedSale(entry.id(), entry.productId(), entry.quantity(),
+                totalPrice(entry), entry.createdAt(), reason)));
+        rejectedSaleRepository.saveAll(rows);
+    }
+
+    /**
+     * Stores a batch inside the caller's transaction and returns the entries that could not be stored; those are
+     * recorded in {@code rejected_sales} in the same transaction. Stock is
+     * taken with one conditional UPDATE per product; only when that fails are the product's sales applied one
+     * by one, in journal order, to find which of them no longer fit.
+     */
+    private Map<SaleJournal.Entry, String> insertBatch(List<SaleJournal.Entry> batch) {
+        Map<Long, List<SaleJournal.Entry>> byProduct = batch.stream()
+                .collect(Collectors.groupingBy(SaleJournal.Entry::productId, LinkedHashMap::new, Collectors.toList()));
+
+        List<SaleJournal.Entry> accepted = new ArrayList<>(batch.size());
+        Map<SaleJournal.Entry, String> failures = new LinkedHashMap<>();
+        byProduct.forEach((productId, entries) -> {
+            productCache.evict(productId);
+            int total = entries.stream().mapToInt(SaleJournal.Entry::quantity).sum();
+            if (productRepository.decrementStock(productId, total) > 0) {
+                accepted.addAll(entries);
+                return;
+            }
+            if (!productRepository.existsById(productId)) {
+                entries.forEach(entry -> failures.put(entry, "Product not found with id: " + productId));
+                return;
+            }
+            for (SaleJournal.Entry entry : entries) {
+                if (productRepository.decrementStock(productId, entry.quantity()) > 0) {
+                    accepted.add(entry);
+                } else {
+                    failures.put(entry, "Insufficient stock for product " + productId + ", Requested: " + entry.quantity());
+                }
+            }
+        });
+        recordRejections(failures);
+        if (accepted.isEmpty()) {
+            return failures;
+        }
+
+        Set<Long> productIds = new HashSet<>();
+        accepted.forEach(entry -> productIds.add(entry.productId()));
+        Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        List<Transaction> transactions = new ArrayList<>(accepted.size());
+        for (SaleJournal.Entry entry : accepted) {
+            Transaction transaction = new Transaction();
+            transaction.setProduct(products.get(entry.productId()));
+            transaction.setQuantity(entry.quantity());
+            transaction.setTotalPrice(totalPrice(entry));
+            transaction.setTransactionType("SALE");
+            transaction.setDescription(entry.description());
+            transaction.setCreatedAt(entry.createdAt());
+            transaction.setJournalId(entry.id());
+            transactions.add(transaction);
+        }
+        List<Transaction> saved = transactionRepository.saveAll(transactions);
+        saved.forEach(transactionTotalsService::record);
+        stockMovementService.recordTransactions(saved);
+        eventPublisher.publishEvent(InventoryChangedEvent.recorded(saved));
+        return failures;
+    }
+
+    private void replay(List<SaleJournal.Entry> journaled) {
+        if (journaled.isEmpty()) {
+            return;
+        }
+        int replayed = 0;
+        int failed = 0;
+        for (int from = 0; from < journaled.size(); from += REPLAY_CHUNK) {
+            List<SaleJournal.Entry> chunk = journaled.subList(from, Math.min(from + REPLAY_CHUNK, journaled.size()));
+            List<Long> ids = chunk.stream().map(SaleJournal.Entry::id).toList();
+            Set<Long> stored = new HashSet<>(transactionRepository.findExistingJournalIds(ids));
+            stored.addAll(rejectedSaleRepository.findExistingJournalIds(ids));
+            List<SaleJournal.Entry> missing = chunk.stream().filter(entry -> !stored.contains(entry.id())).toList();
+            if (missing.isEmpty()) {
+                continue;
+            }
+            Map<SaleJournal.Entry, String> failures = replayChunk(missing);
+            failures.forEach((entry, reason) -> log.warn("Journaled sale {} of product {} could not be replayed: {}",
+                    entry.id(), entry.productId(), reason));
+            replayed += missing.size() - failures.size();
+            failed += failures.size();
+        }
+        log.info("Sale journal replay: {} entries, {} written now, {} rejected", journaled.size(), replayed, failed);
+    }
+
+    private Map<SaleJournal.Entry, String> replayChunk(List<SaleJournal.Entry> entries) {
+        try {
+            return transactionTemplate.execute(status -> insertBatch(entries));
+        } catch (RuntimeException e) {
+            if (!isPermanent(e)) {
+                throw e;
+            }
+            log.warn("Replaying {} journaled sales failed; replaying them one at a time", entries.size(), e);
+        }
+        Map<SaleJournal.Entry, String> failures = new LinkedHashMap<>();
+        for (SaleJournal.Entry entry : entries) {
+            try {
+                failures.putAll(transactionTemplate.execute(status -> insertBatch(List.of(entry))));
+            } catch (RuntimeException e) {
+                if (!isPermanent(e)) {
+                    throw e;
+                }
+                failures.putAll(recordAlone(entry, reason(e)));
+            }
+        }
+        return failures;
+    }
+
+    private void truncateJournalIfWritten() {
+        synchronized (appendLock) {
+            if (appended == written.get() && appended != truncatedAt) {
+                try {
+                    journal.truncate();
+                    truncatedAt = appended;
+                } catch (IOException e) {
+                    log.warn("Could not truncate the sale journal", e);
+                }
+            }
+        }
+    }
+
+    private void bindMetrics() {
+        Gauge.builder("kasir.sales.backlog", this, WriteBehindSaleService::getBacklog)
+                .description("Accepted sales waiting to be written to the database")
+                .register(meterRegistry);
+        rejectedCounter = Counter.builder("kasir.sales.rejected")
+                .description("Accepted sales that could not be written because the stock was gone")
+                .register(meterRegistry);
+        batchSizes = DistributionSummary.builder("kasir.sales.batch.size")
+                .description("Sales written per database transaction by the journal writer")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether writing the sale again can never succeed, as opposed to the database being unreachable.
+     */
+    private static boolean isPermanent(RuntimeException e) {
+        return e instanceof NonTransientDataAccessException && !(e instanceof NonTransientDataAccessResourceException);
+    }
+
+    private static String reason(RuntimeException e) {
+        return "Could not be stored: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+    }
+
+    private static BigDecimal totalPrice(SaleJournal.Entry entry) {
+        return BigDecimal.valueOf(entry.unitPrice()).multiply(BigDecimal.valueOf(entry.quantity()));
+    }
+
+    private static ProvisionalSale toProvisionalSale(SaleJournal.Entry entry, String status) {
+        ProvisionalSale sale = new ProvisionalSale();
+        sale.setProvisionalId(entry.id());
+        sale.setStatus(status);
+        sale.setProductId(entry.productId());
+        sale.setQuantity(entry.quantity());
+        sale.setTotalPrice(totalPrice(entry));
+        sale.setCreatedAt(entry.createdAt());
+        return sale;
+    }
+}
@@ -0,0 +1,58 @@
+-- Products and transactions with the indexes used by the repository queries,
+-- plus the running totals and rollups maintained by TransactionTotalsService.
+
+CREATE SEQUENCE products_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE transactions_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE products (
+    id    BIGINT       NOT NULL,
+    name  VARCHAR(255) NOT NULL,
+    price INTEGER,
+    stock INTEGER,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_products_name UNIQUE (name)
+);
+
+CREATE INDEX idx_products_stock ON products (stock);
+
+CREATE TABLE transactions (
+    id               BIGINT         NOT NULL,
+    product_id       BIGINT         NOT NULL,
+    quantity         INTEGER        NOT NULL,
+    total_price      NUMERIC(10, 2) NOT NULL,
+    transaction_type VARCHAR(255)   NOT NULL,
+    created_at       TIMESTAMP(6)   NOT NULL,
+    description      VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_transactions_product FOREIGN KEY (product_id) REFERENCES products (id)
+);
+
+-- Keyset pages: all, by type, by product; date-range filters and "recent" sorts
+CREATE INDEX idx_transactions_created_at_id ON transactions (created_at, id);
+CREATE INDEX idx_transactions_type_created_at_id ON transactions (transaction_type, created_at, id);
+CREATE INDEX idx_transactions_product_created_at_id ON transactions (product_id, created_at, id);
+CREATE INDEX idx_transactions_product_type ON transactions (product_id, transaction_type);
+
+CREATE TABLE transaction_totals (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    transaction_type  VARCHAR(255)   NOT NULL,
+    slot              INTEGER        NOT NULL,
+    transaction_count BIGINT         NOT NULL,
+    total_quantity    BIGINT         NOT NULL,
+    total_amount      NUMERIC(19, 2) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_transaction_totals_type_slot UNIQUE (transaction_type, slot)
+);
+
+CREATE TABLE transaction_rollups (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    granularity       VARCHAR(8)     NOT NULL,
+    bucket_start      TIMESTAMP(6)   NOT NULL,
+    product_id        BIGINT         NOT NULL,
+    transaction_type  VARCHAR(255)   NOT NULL,
+    transaction_count BIGINT         NOT NULL,
+    total_quantity    BIGINT         NOT NULL,
+    total_amount      NUMERIC(19, 2) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_transaction_rollups_bucket UNIQUE (granularity, bucket_start, product_id, transaction_type)
+);
@@ -0,0 +1,6 @@
+-- Sales accepted through the write-behind journal carry their journal id, so replaying the journal after a
+-- crash can skip the entries that were already written.
+
+ALTER TABLE transactions ADD COLUMN journal_id BIGINT;
+
+CREATE UNIQUE INDEX uk_transactions_journal_id ON transactions (journal_id);
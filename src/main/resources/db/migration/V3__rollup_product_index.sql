@@ -0,0 +1,4 @@
+-- Per-product analytics read one product's rollup buckets over a time range; the unique key leads with the
+-- bucket start, so it cannot serve that lookup.
+
+CREATE INDEX idx_transaction_rollups_product ON transaction_rollups (granularity, product_id, bucket_start);
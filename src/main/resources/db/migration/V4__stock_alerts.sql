@@ -0,0 +1,18 @@
+-- Per-product reorder points (NULL = app.alerts.default-reorder-threshold) and the log of low-stock alerts.
+-- Alerts keep the product name and have no foreign key, so they outlive the product they were raised for.
+
+ALTER TABLE products ADD COLUMN reorder_threshold INTEGER;
+
+CREATE TABLE stock_alerts (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    product_id        BIGINT       NOT NULL,
+    product_name      VARCHAR(255),
+    alert_type        VARCHAR(16)  NOT NULL,
+    stock             INTEGER      NOT NULL,
+    reorder_threshold INTEGER      NOT NULL,
+    created_at        TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_stock_alerts_created_at_id ON stock_alerts (created_at, id);
+CREATE INDEX idx_stock_alerts_product_created_at ON stock_alerts (product_id, created_at);
@@ -0,0 +1,28 @@
+-- Append-only stock ledger: every change to products.stock is also written here as a signed delta, and a
+-- periodic job stores per-product snapshots so "stock as of" reads at most one snapshot interval of movements.
+-- Like stock_alerts there is no foreign key, so the history outlives a deleted product.
+
+CREATE TABLE stock_movements (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    product_id     BIGINT       NOT NULL,
+    delta          INTEGER      NOT NULL,
+    reason         VARCHAR(16)  NOT NULL,
+    transaction_id BIGINT,
+    recorded_at    TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_stock_movements_product_recorded_at ON stock_movements (product_id, recorded_at, id);
+
+CREATE TABLE stock_snapshots (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    product_id BIGINT       NOT NULL,
+    taken_at   TIMESTAMP(6) NOT NULL,
+    stock      INTEGER      NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_stock_snapshots_product_taken_at UNIQUE (product_id, taken_at)
+);
+
+-- Opening balance for products that existed before the ledger
+INSERT INTO stock_movements (product_id, delta, reason, recorded_at)
+SELECT id, stock, 'OPENING', CURRENT_TIMESTAMP FROM products WHERE COALESCE(stock, 0) <> 0;
@@ -0,0 +1,20 @@
+-- Cold storage for transactions older than app.transactions.archive.retain. Rows keep their id and move here in
+-- batches; their totals and rollups were written when they were recorded and are not touched by the move.
+
+CREATE TABLE transactions_archive (
+    id               BIGINT         NOT NULL,
+    product_id       BIGINT         NOT NULL,
+    quantity         INTEGER        NOT NULL,
+    total_price      NUMERIC(10, 2) NOT NULL,
+    transaction_type VARCHAR(255)   NOT NULL,
+    created_at       TIMESTAMP(6)   NOT NULL,
+    description      VARCHAR(255),
+    journal_id       BIGINT,
+    archived_at      TIMESTAMP(6)   NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_transactions_archive_product FOREIGN KEY (product_id) REFERENCES products (id)
+);
+
+-- Date-range reads and exports, per-product edges of analytics ranges
+CREATE INDEX idx_transactions_archive_created_at_id ON transactions_archive (created_at, id);
+CREATE INDEX idx_transactions_archive_product_created_at_id ON transactions_archive (product_id, created_at, id);
@@ -0,0 +1,14 @@
+-- Write-behind sales that were acknowledged with 202 but could not be stored. Written before the journal lines
+-- behind them are dropped, so GET /api/transactions/provisional/{id} can report them after a restart. No foreign
+-- key, so the record outlives a deleted product.
+
+CREATE TABLE rejected_sales (
+    journal_id  BIGINT         NOT NULL,
+    product_id  BIGINT         NOT NULL,
+    quantity    INTEGER        NOT NULL,
+    total_price NUMERIC(19, 2) NOT NULL,
+    created_at  TIMESTAMP(6)   NOT NULL,
+    reason      VARCHAR(1000)  NOT NULL,
+    rejected_at TIMESTAMP(6)   NOT NULL,
+    PRIMARY KEY (journal_id)
+);
@@ -2,15 +2,65 @@
 // API Configuration
 const API_BASE = '/api';
 const AUTH_CREDENTIALS = btoa('admin:admin123');
+// Renew the API token this long before it expires
+const TOKEN_RENEW_MARGIN_MS = 60000;
+
+let apiToken = null;
+let apiTokenRequest = null;
+
+// The API is stateless: the page trades its login session for a short-lived bearer token once and renews it
+// shortly before it expires. Pages opened without a login session fall back to Basic credentials.
+async function getApiToken() {
+    if (apiToken && apiToken.expiresAt - Date.now() > TOKEN_RENEW_MARGIN_MS) {
+        return apiToken.value;
+    }
+    if (!apiTokenRequest) {
+        apiTokenRequest = fetch('/auth/token', { method: 'POST', credentials: 'same-origin', redirect: 'manual', headers: csrfHeaders() })
+            .then(response => response.ok ? response.json() : null)
+            .then(token => {
+                apiToken = token ? { value: token.accessToken, expiresAt: Date.parse(token.expiresAt) } : null;
+                return apiToken ? apiToken.value : null;
+            })
+            .catch(() => null)
+            .finally(() => { apiTokenRequest = null; });
+    }
+    return apiTokenRequest;
+}
+
+// The session token endpoint is CSRF-protected; the page carries the token in its _csrf meta tags
+function csrfHeaders() {
+    const token = document.querySelector('meta[name="_csrf"]');
+    const header = document.querySelector('meta[name="_csrf_header"]');
+    return token && header ? { [header.content]: token.content } : {};
+}
+
+// Last body and ETag per URL for the catalog and stats endpoints: a poll sends If-None-Match and a 304 reuses the
+// body, so nothing is queried or serialized while the catalog is unchanged
+const ETAG_CACHE_SIZE = 200;
+const etagCache = new Map();
 
 // Utility Functions
-function getAuthHeaders() {
+async function getAuthHeaders() {
+    const token = await getApiToken();
     return {
-        'Authorization': 'Basic ' + AUTH_CREDENTIALS,
+        'Authorization': token ? 'Bearer ' + token : 'Basic ' + AUTH_CREDENTIALS,
         'Content-Type': 'application/json'
     };
 }
 
+// List endpoints are keyset-paginated: pass back nextCursor from the previous page
+function pageParams(cursor, size) {
+    const params = {};
+    if (cursor) params.cursor = cursor;
+    if (size) params.size = size;
+    return params;
+}
+
+// LocalDateTime query parameters (analytics ranges)
+function isoDateTime(date) {
+    return date.toISOString().slice(0, 19);
+}
+
 function showLoading() {
     const loading = document.getElementById('loading');
     if (loading) {
@@ -64,7 +114,7 @@ class ApiService {
             showLoading();
             const response = await fetch(API_BASE + endpoint, {
                 method: 'GET',
-                headers: getAuthHeaders()
+                headers: await getAuthHeaders()
             });
 
             if (!response.ok) {
@@ -87,7 +137,7 @@ class ApiService {
             showLoading();
             const response = await fetch(API_BASE + endpoint, {
                 method: 'POST',
-                headers: getAuthHeaders(),
+                headers: await getAuthHeaders(),
                 body: JSON.stringify(data)
             });
 
@@ -112,7 +162,7 @@ class ApiService {
             showLoading();
             const response = await fetch(API_BASE + endpoint, {
                 method: 'PUT',
-                headers: getAuthHeaders(),
+                headers: await getAuthHeaders(),
                 body: JSON.stringify(data)
             });
 
@@ -137,7 +187,7 @@ class ApiService {
             showLoading();
             const response = await fetch(API_BASE + endpoint, {
                 method: 'DELETE',
-                headers: getAuthHeaders()
+                headers: await getAuthHeaders()
             });
 
             if (!response.ok) {
@@ -155,22 +205,41 @@ class ApiService {
         }
     }
 
-    static async get(endpoint, params) {
+    static async get(endpoint, params = {}) {
         try {
             showLoading();
             const url = new URL(API_BASE + endpoint, window.location.origin);
             Object.keys(params).forEach(key => url.searchParams.append(key, params[key]));
 
-            const response = await fetch(url.toString(), {
+            const key = url.toString();
+            const cached = etagCache.get(key);
+            const headers = await getAuthHeaders();
+            if (cached) {
+                headers['If-None-Match'] = cached.etag;
+            }
+
+            const response = await fetch(key, {
                 method: 'GET',
-                headers: getAuthHeaders()
+                headers: headers
             });
 
+            if (response.status === 304 && cached) {
+                hideLoading();
+                return cached.data;
+            }
             if (!response.ok) {
                 throw new Error(`HTTP error! status: ${response.status}`);
             }
 
             const data = await response.json();
+            const etag = response.headers.get('ETag');
+            if (etag) {
+                etagCache.delete(key);
+                if (etagCache.size >= ETAG_CACHE_SIZE) {
+                    etagCache.delete(etagCache.keys().next().value);
+                }
+                etagCache.set(key, { etag: etag, data: data });
+            }
             hideLoading();
             return data;
         } catch (error) {
@@ -184,8 +253,8 @@ class ApiService {
 
 // Product Management Service
 class ProductService {
-    static async getAll() {
-        return await ApiService.get('/products');
+    static async getAll(cursor = null, size = null) {
+        return await ApiService.get('/products', pageParams(cursor, size));
     }
 
     static async getById(id) {
@@ -204,8 +273,8 @@ class ProductService {
         return await ApiService.delete(`/products/${id}`);
     }
 
-    static async search(name) {
-        return await ApiService.get(`/products/search?name=${encodeURIComponent(name)}`);
+    static async search(name, limit = 20, fuzzy = true) {
+        return await ApiService.get('/products/search', { name: name, limit: limit, fuzzy: fuzzy });
     }
 
     static async getByPriceRange(min, max) {
@@ -223,12 +292,37 @@ class ProductService {
     static async getOutOfStock() {
         return await ApiService.get('/products/out-of-stock');
     }
+
+    // Bulk create/update from a name,price,stock CSV File; the file is sent as-is and read by the server as it arrives
+    static async importCsv(file) {
+        try {
+            showLoading();
+            const response = await fetch(API_BASE + '/products/import', {
+                method: 'POST',
+                headers: { ...(await getAuthHeaders()), 'Content-Type': 'text/csv' },
+                body: file
+            });
+
+            if (!response.ok) {
+                throw new Error(`HTTP error! status: ${response.status}`);
+            }
+
+            const report = await response.json();
+            hideLoading();
+            return report;
+        } catch (error) {
+            hideLoading();
+            console.error('Product import error:', error);
+            showAlert('Gagal mengimpor produk: ' + error.message, 'danger');
+            throw error;
+        }
+    }
 }
 
 // Transaction Management Service
 class TransactionService {
-    static async getAll() {
-        return await ApiService.get('/transactions');
+    static async getAll(cursor = null, size = null) {
+        return await ApiService.get('/transactions', pageParams(cursor, size));
     }
 
     static async getById(id) {
@@ -255,6 +349,11 @@ class TransactionService {
         });
     }
 
+    // items: [{ productId, quantity }, ...] sold together in one request
+    static async checkout(items, description) {
+        return await ApiService.post('/transactions/checkout', { items: items, description: description });
+    }
+
     static async update(id, transaction) {
         return await ApiService.put(`/transactions/${id}`, transaction);
     }
@@ -263,18 +362,19 @@ class TransactionService {
         return await ApiService.delete(`/transactions/${id}`);
     }
 
-    static async getByProduct(productId) {
-        return await ApiService.get(`/transactions/product/${productId}`);
+    static async getByProduct(productId, cursor = null, size = null) {
+        return await ApiService.get(`/transactions/product/${productId}`, pageParams(cursor, size));
     }
 
-    static async getByType(type) {
-        return await ApiService.get(`/transactions/type/${type}`);
+    static async getByType(type, cursor = null, size = null) {
+        return await ApiService.get(`/transactions/type/${type}`, pageParams(cursor, size));
     }
 
-    static async getByDateRange(startDate, endDate) {
+    static async getByDateRange(startDate, endDate, cursor = null, size = null) {
         return await ApiService.get('/transactions/date-range', {
             startDate: startDate.toISOString(),
-            endDate: endDate.toISOString()
+            endDate: endDate.toISOString(),
+            ...pageParams(cursor, size)
         });
     }
 
@@ -297,39 +397,64 @@ class TransactionService {
 
 // Statistics Service
 class StatisticsService {
-    static async getDashboardStats() {
+    static async getDashboardStats(lowStockThreshold = 10) {
         try {
-            const [products, transactions] = await Promise.all([
-                ProductService.getAll(),
-                TransactionService.getAll()
-            ]);
-
-            const inStock = products.filter(p => p.stock > 0).length;
-            const lowStock = products.filter(p => p.stock <= 10).length;
-            
-            const sales = transactions.filter(t => t.transactionType === 'SALE');
-            const purchases = transactions.filter(t => t.transactionType === 'PURCHASE');
-
-            const totalSales = sales.reduce((sum, t) => sum + t.totalPrice, 0);
-            const totalPurchases = purchases.reduce((sum, t) => sum + t.totalPrice, 0);
-
-            return {
-                totalProducts: products.length,
-                inStockProducts: inStock,
-                lowStockProducts: lowStock,
-                outOfStockProducts: products.length - inStock,
-                totalTransactions: transactions.length,
-                totalSales: totalSales,
-                totalPurchases: totalPurchases,
-                netRevenue: totalSales - totalPurchases,
-                sales: sales.length,
-                purchases: purchases.length
-            };
+            return await ApiService.get('/dashboard/stats', { lowStockThreshold: lowStockThreshold });
         } catch (error) {
             console.error('Error getting dashboard stats:', error);
             throw error;
         }
     }
+
+    // Analytics ranges are [startDate, endDate); granularity is 'hour', 'day' or 'month'
+    static async getSalesSeries(startDate, endDate, granularity = 'day', productId = null) {
+        const params = { granularity: granularity, startDate: isoDateTime(startDate), endDate: isoDateTime(endDate) };
+        if (productId) {
+            params.productId = productId;
+        }
+        return await ApiService.get('/analytics/sales', params);
+    }
+
+    static async getTopProducts(startDate, endDate, metric = 'revenue', limit = 10) {
+        return await ApiService.get('/analytics/top-products',
+            { startDate: isoDateTime(startDate), endDate: isoDateTime(endDate), metric: metric, limit: limit });
+    }
+
+    static async getSlowMovers(startDate, endDate, limit = 10) {
+        return await ApiService.get('/analytics/slow-movers',
+            { startDate: isoDateTime(startDate), endDate: isoDateTime(endDate), limit: limit });
+    }
+}
+
+
+// Stock alerts raised when products cross their reorder threshold (also pushed as delta.alerts on the stream)
+class AlertService {
+    static async getRecent(limit = 20, productId = null) {
+        const params = { limit: limit };
+        if (productId) {
+            params.productId = productId;
+        }
+        return await ApiService.get('/alerts', params);
+    }
+
+    static async getBelowReorderThreshold() {
+        return await ApiService.get('/alerts/low-stock', {});
+    }
+}
+
+// Dashboard Stream: live deltas pushed by the server instead of re-fetching lists.
+// EventSource cannot send headers, so the stream relies on the login session cookie;
+// it reconnects by itself and the first event after (re)connecting carries fresh totals.
+class DashboardStream {
+    static connect(onDelta, onStatusChange = null) {
+        const source = new EventSource(API_BASE + '/stream/dashboard');
+        source.addEventListener('delta', event => onDelta(JSON.parse(event.data)));
+        if (onStatusChange) {
+            source.onopen = () => onStatusChange(true);
+            source.onerror = () => onStatusChange(false);
+        }
+        return source;
+    }
 }
 
 // Utility Functions
@@ -491,6 +616,16 @@ class FormValidator {
 
 // Export functionality
 class ExportService {
+    // Server-side streaming export of a date range (format: 'csv' or 'ndjson'); the browser downloads it
+    // directly, so months of history never pass through JavaScript memory
+    static downloadTransactions(startDate, endDate, format = 'csv') {
+        const url = new URL(API_BASE + '/transactions/export', window.location.origin);
+        url.searchParams.append('startDate', startDate.toISOString().slice(0, 19));
+        url.searchParams.append('endDate', endDate.toISOString().slice(0, 19));
+        url.searchParams.append('format', format);
+        window.location.assign(url.toString());
+    }
+
     static toCSV(data, headers) {
         const csvHeaders = headers.join(',');
         const csvRows = data.map(row => 
@@ -564,6 +699,8 @@ window.ApiService = ApiService;
 window.ProductService = ProductService;
 window.TransactionService = TransactionService;
 window.StatisticsService = StatisticsService;
+window.AlertService = AlertService;
+window.DashboardStream = DashboardStream;
 window.ModalManager = ModalManager;
 window.FormValidator = FormValidator;
 window.ExportService = ExportService;
@@ -0,0 +1,65 @@
+package com.example.demo.config;
+
+import com.example.demo.model.Product;
+import com.example.demo.service.ProductService;
+import com.example.demo.service.TransactionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:etag_db")
+@AutoConfigureMockMvc
+class CatalogETagTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Test
+    void answersUnchangedPollsWithNotModifiedUntilAWriteCommits() throws Exception {
+        Long id = productService.createProduct(new Product("ETag SKU", 1500, 20)).getId();
+
+        String etag = mockMvc.perform(get("/api/dashboard/stats").with(user("admin").roles("USER")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotNull(etag);
+
+        mockMvc.perform(get("/api/dashboard/stats").with(user("admin").roles("USER")).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/products/" + id).with(user("admin").roles("USER")).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        transactionService.createSale(id, 2, "moves the version");
+
+        String changed = mockMvc.perform(get("/api/dashboard/stats").with(user("admin").roles("USER")).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(etag, changed);
+    }
+
+    @Test
+    void leavesUnversionedEndpointsAlone() throws Exception {
+        String etag = mockMvc.perform(get("/api/products/cache/stats").with(user("admin").roles("USER")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNull(etag);
+    }
+}
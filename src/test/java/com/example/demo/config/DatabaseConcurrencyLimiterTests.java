@@ -0,0 +1,63 @@
+package com.example.demo.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DatabaseConcurrencyLimiterTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DatabaseConcurrencyLimiter limiter =
+            new DatabaseConcurrencyLimiter(1, Duration.ofMillis(50), meterRegistry);
+
+    @Test
+    void apiRequestBeyondPermitsIsShed() throws Exception {
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> first = executor.submit(() -> {
+                limiter.doFilter(new MockHttpServletRequest("POST", "/api/transactions/sale"), new MockHttpServletResponse(),
+                        (request, response) -> {
+                            holding.countDown();
+                            try {
+                                release.await();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        });
+                return null;
+            });
+            holding.await(5, TimeUnit.SECONDS);
+
+            MockHttpServletResponse shed = new MockHttpServletResponse();
+            limiter.doFilter(new MockHttpServletRequest("GET", "/api/products/1"), shed, new MockFilterChain());
+            assertEquals(503, shed.getStatus());
+            assertEquals("1", shed.getHeader("Retry-After"));
+
+            MockHttpServletResponse page = new MockHttpServletResponse();
+            limiter.doFilter(new MockHttpServletRequest("GET", "/dashboard"), page, new MockFilterChain());
+            assertEquals(200, page.getStatus());
+
+            release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+            MockHttpServletResponse afterRelease = new MockHttpServletResponse();
+            limiter.doFilter(new MockHttpServletRequest("GET", "/api/products/1"), afterRelease, new MockFilterChain());
+            assertEquals(200, afterRelease.getStatus());
+            assertEquals(1.0, meterRegistry.get("kasir.db.limiter.rejected").counter().count());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.demo.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import tools.jackson.databind.json.JsonMapper;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.options;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:security_db")
+@AutoConfigureMockMvc
+class SecurityConfigTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    @Test
+    void apiRequestsWithATokenNeverCreateASession() throws Exception {
+        MvcResult login = mockMvc.perform(post("/api/auth/token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"admin\",\"password\":\"admin123\"}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertNull(login.getRequest().getSession(false));
+        String token = jsonMapper.readTree(login.getResponse().getContentAsString()).get("accessToken").asString();
+
+        MvcResult products = mockMvc.perform(get("/api/products").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertNull(products.getRequest().getSession(false));
+
+        MvcResult basic = mockMvc.perform(get("/api/dashboard/stats").with(httpBasic("admin", "admin123")))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertNull(basic.getRequest().getSession(false));
+    }
+
+    @Test
+    void rejectsBadCredentialsAndTokens() throws Exception {
+        mockMvc.perform(post("/api/auth/token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"admin\",\"password\":\"wrong\"}"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/products").header("Authorization", "Bearer forged.token"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().string("WWW-Authenticate", "Bearer error=\"invalid_token\""));
+        mockMvc.perform(get("/api/products"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void webPagesKeepTheFormLoginSession() throws Exception {
+        MvcResult login = mockMvc.perform(post("/login").param("username", "admin").param("password", "admin123"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(header().string("Location", "/dashboard"))
+                .andReturn();
+        assertNotNull(login.getRequest().getSession(false));
+
+        mockMvc.perform(get("/dashboard").session((MockHttpSession) login.getRequest().getSession(false)))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("<meta name=\"_csrf\"")));
+        mockMvc.perform(post("/auth/token").session((MockHttpSession) login.getRequest().getSession(false)).with(csrf()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void sessionTokenCannotBeTakenFromAnotherSite() throws Exception {
+        MvcResult login = mockMvc.perform(post("/login").param("username", "admin").param("password", "admin123"))
+                .andExpect(status().is3xxRedirection())
+                .andReturn();
+        MockHttpSession session = (MockHttpSession) login.getRequest().getSession(false);
+
+        // a forged form post rides the session cookie but has no CSRF token
+        mockMvc.perform(post("/auth/token").session(session))
+                .andExpect(status().isForbidden());
+        // a script on another origin is refused before it could read the response
+        mockMvc.perform(post("/auth/token").session(session).with(csrf()).header("Origin", "https://evil.example"))
+                .andExpect(status().isForbidden())
+                .andExpect(header().doesNotExist("Access-Control-Allow-Origin"));
+        mockMvc.perform(options("/auth/token")
+                        .header("Origin", "https://evil.example")
+                        .header("Access-Control-Request-Method", "POST"))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.TransactionColumns;
+import com.example.demo.model.Product;
+import com.example.demo.service.ProductService;
+import com.example.demo.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:representation_db")
+class TransactionRepresentationTests {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    private static Long firstId;
+    private static Long secondId;
+
+    @BeforeEach
+    void seed() {
+        if (firstId == null) {
+            firstId = productService.createProduct(new Product("Columns SKU A", 2500, 1000)).getId();
+            secondId = productService.createProduct(new Product("Columns SKU B", 4000, 1000)).getId();
+            for (int i = 0; i < 30; i++) {
+                transactionService.createSale(i % 3 == 0 ? secondId : firstId, 1, "representation test sale " + i);
+            }
+        }
+    }
+
+    @Test
+    void listsProductsOnceInTheColumnarForms() throws Exception {
+        HttpResponse<byte[]> json = get("/api/transactions/product/" + firstId + "?size=10", TransactionColumns.MEDIA_TYPE, null);
+        assertEquals(200, json.statusCode());
+        assertTrue(json.headers().firstValue("Content-Type").orElseThrow().startsWith(TransactionColumns.MEDIA_TYPE));
+        assertTrue(json.headers().allValues("Vary").stream().anyMatch(vary -> vary.toLowerCase().contains("accept")));
+        JsonNode columns = jsonMapper.readTree(json.body());
+        assertEquals(10, columns.get("count").asInt());
+        assertEquals(10, columns.get("id").size());
+        assertEquals(1, columns.get("products").size());
+        assertEquals(firstId.longValue(), columns.get("products").get(0).get("id").asLong());
+        assertTrue(columns.get("hasMore").asBoolean());
+
+        HttpResponse<byte[]> cbor = get("/api/transactions?size=30", "application/cbor", null);
+        assertEquals(200, cbor.statusCode());
+        JsonNode decoded = CBORMapper.builder().build().readTree(cbor.body());
+        assertEquals(30, decoded.get("count").asInt());
+        assertEquals(2, decoded.get("products").size());
+
+        JsonNode plain = jsonMapper.readTree(get("/api/transactions?size=5", "application/json", null).body());
+        assertEquals(5, plain.get("items").size());
+    }
+
+    @Test
+    void gzipsLargeResponsesForClientsThatAcceptIt() throws Exception {
+        HttpResponse<byte[]> compressed = get("/api/transactions?size=30", "application/json", "gzip");
+        assertEquals("gzip", compressed.headers().firstValue("Content-Encoding").orElse(null));
+        try (InputStream body = new GZIPInputStream(new ByteArrayInputStream(compressed.body()))) {
+            assertEquals(30, jsonMapper.readTree(body).get("items").size());
+        }
+
+        HttpResponse<byte[]> identity = get("/api/transactions?size=30", "application/json", null);
+        assertTrue(identity.headers().firstValue("Content-Encoding").isEmpty());
+        assertTrue(compressed.body().length < identity.body().length / 2);
+    }
+
+    private HttpResponse<byte[]> get(String path, String accept, String acceptEncoding) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Authorization", "Basic " + Base64.getEncoder()
+                        .encodeToString("admin:admin123".getBytes(StandardCharsets.UTF_8)))
+                .header("Accept", accept);
+        if (acceptEncoding != null) {
+            request.header("Accept-Encoding", acceptEncoding);
+        }
+        return httpClient.send(request.GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+}
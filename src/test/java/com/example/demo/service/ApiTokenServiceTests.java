@@ -0,0 +1,66 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.TokenResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ApiTokenServiceTests {
+
+    private static final Instant NOW = Instant.parse("2024-05-01T10:00:00Z");
+
+    private final ApiTokenService apiTokenService = new ApiTokenService(
+            new InMemoryUserDetailsManager(User.withUsername("kasir").password("{noop}rahasia").roles("USER").build()),
+            "0123456789abcdef0123456789abcdef", Duration.ofMinutes(15), 100);
+
+    @Test
+    void issuedTokensCarryTheUserAndRolesUntilTheyExpire() {
+        apiTokenService.setClock(Clock.fixed(NOW, ZoneOffset.UTC));
+        TokenResponse token = apiTokenService.login("kasir", "rahasia");
+        assertEquals(900, token.getExpiresIn());
+        assertEquals(NOW.plusSeconds(900), token.getExpiresAt());
+
+        Authentication authentication = apiTokenService.authenticate(token.getAccessToken());
+        assertNotNull(authentication);
+        assertEquals("kasir", authentication.getName());
+        assertTrue(AuthorityUtils.authorityListToSet(authentication.getAuthorities()).contains("ROLE_USER"));
+        // served from the cache of verified tokens
+        assertSame(authentication, apiTokenService.authenticate(token.getAccessToken()));
+
+        apiTokenService.setClock(Clock.fixed(NOW.plusSeconds(900), ZoneOffset.UTC));
+        assertNull(apiTokenService.authenticate(token.getAccessToken()));
+    }
+
+    @Test
+    void rejectsWrongPasswordsAndTamperedTokens() {
+        assertThrows(BadCredentialsException.class, () -> apiTokenService.login("kasir", "salah"));
+
+        String token = apiTokenService.login("kasir", "rahasia").getAccessToken();
+        String payload = token.substring(0, token.indexOf('.'));
+        String signature = token.substring(token.indexOf('.') + 1);
+        char last = signature.charAt(signature.length() - 1);
+
+        assertNull(apiTokenService.authenticate(payload + "." + signature.substring(0, signature.length() - 1) + (last == 'A' ? 'B' : 'A')));
+        assertNull(apiTokenService.authenticate(payload.substring(1) + "." + signature));
+        assertNull(apiTokenService.authenticate(payload));
+        assertNull(apiTokenService.authenticate("not a token"));
+
+        ApiTokenService otherKey = new ApiTokenService(new InMemoryUserDetailsManager(), "", Duration.ofMinutes(15), 100);
+        assertNull(otherKey.authenticate(token));
+    }
+}
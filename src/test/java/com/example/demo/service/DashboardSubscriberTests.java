@@ -0,0 +1,156 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.DashboardDelta;
+import com.example.demo.dto.DashboardStats;
+import com.example.demo.dto.TransactionResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DashboardSubscriberTests {
+
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+    private final RecordingEmitter emitter = new RecordingEmitter();
+
+    @Test
+    void deltasOfferedDuringASendAreCoalesced() {
+        DashboardSubscriber subscriber = new DashboardSubscriber(emitter, tasks::add, 20);
+
+        // the first offer schedules a write; nothing runs until the executor gets to it
+        subscriber.offer(delta(List.of(transaction(1L)), Map.of(7L, 10), 1));
+        subscriber.offer(delta(List.of(transaction(2L)), Map.of(7L, 8, 9L, 3), 2));
+        subscriber.offer(delta(List.of(transaction(3L)), Map.of(7L, 5), 3));
+        assertEquals(1, tasks.size());
+
+        tasks.poll().run();
+
+        assertEquals(1, emitter.sent.size());
+        assertTrue(tasks.isEmpty());
+    }
+
+    @Test
+    void coalescingKeepsLatestStockTotalsAndNewestTransactions() {
+        DashboardDelta first = delta(List.of(transaction(1L), transaction(2L)), Map.of(7L, 10), 1);
+        DashboardDelta second = delta(List.of(transaction(3L), transaction(4L)), Map.of(7L, 5, 9L, 3), 2);
+
+        DashboardDelta merged = DashboardDelta.coalesce(first, second, 3);
+
+        assertEquals(List.of(2L, 3L, 4L), merged.getTransactions().stream().map(TransactionResponse::getId).toList());
+        assertEquals(1, merged.getSkippedTransactions());
+        assertEquals(Map.of(7L, 5, 9L, 3), merged.getStock());
+        assertEquals(2, merged.getStats().getTotalTransactions());
+    }
+
+    @Test
+    void failedSendStopsFurtherWrites() {
+        DashboardSubscriber subscriber = new DashboardSubscriber(emitter, tasks::add, 20);
+        emitter.fail = true;
+
+        subscriber.offer(delta(List.of(transaction(1L)), Map.of(), 1));
+        tasks.poll().run();
+        subscriber.offer(delta(List.of(transaction(2L)), Map.of(), 2));
+
+        assertTrue(tasks.isEmpty());
+    }
+
+    @Test
+    void writeRefusedByAThrottledExecutorMarksOnlyThatClientStalled() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingEmitter slow = new BlockingEmitter(release);
+        RecordingEmitter queued = new RecordingEmitter();
+        ThreadPoolExecutor throttled = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(1), new ThreadPoolExecutor.AbortPolicy());
+        try {
+            DashboardSubscriber first = new DashboardSubscriber(slow, throttled, 20);
+            DashboardSubscriber second = new DashboardSubscriber(queued, throttled, 20);
+            DashboardSubscriber third = new DashboardSubscriber(emitter, throttled, 20);
+
+            first.offer(delta(List.of(transaction(1L)), Map.of(), 1));
+            assertTrue(slow.sending.await(5, TimeUnit.SECONDS));
+            second.offer(delta(List.of(transaction(1L)), Map.of(), 1));
+            // the only thread is stuck in a send and the queue is full: refused, not blocked
+            assertTimeoutPreemptively(Duration.ofSeconds(1), () -> third.offer(delta(List.of(transaction(1L)), Map.of(), 1)));
+
+            assertTrue(third.stalledFor(Long.MAX_VALUE));
+            assertFalse(first.stalledFor(Long.MAX_VALUE));
+            assertFalse(second.stalledFor(Long.MAX_VALUE));
+            third.offer(delta(List.of(transaction(2L)), Map.of(), 2));
+            assertEquals(1, throttled.getQueue().size());
+
+            release.countDown();
+            throttled.shutdown();
+            assertTrue(throttled.awaitTermination(5, TimeUnit.SECONDS));
+            assertEquals(1, queued.sent.size());
+            assertTrue(emitter.sent.isEmpty());
+        } finally {
+            throttled.shutdownNow();
+        }
+    }
+
+    private static DashboardDelta delta(List<TransactionResponse> transactions, Map<Long, Integer> stock, long totalTransactions) {
+        DashboardDelta delta = new DashboardDelta();
+        delta.setTransactions(new ArrayList<>(transactions));
+        delta.getStock().putAll(stock);
+        DashboardStats stats = new DashboardStats();
+        stats.setTotalTransactions(totalTransactions);
+        delta.setStats(stats);
+        return delta;
+    }
+
+    private static TransactionResponse transaction(Long id) {
+        TransactionResponse response = new TransactionResponse();
+        response.setId(id);
+        return response;
+    }
+
+    private static class BlockingEmitter extends SseEmitter {
+
+        final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch release;
+
+        BlockingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("interrupted", e);
+            }
+        }
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        final List<SseEventBuilder> sent = new ArrayList<>();
+        boolean fail;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (fail) {
+                throw new IOException("client went away");
+            }
+            sent.add(builder);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Product;
+import com.example.demo.model.StockAlert;
+import com.example.demo.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:low_stock_db",
+        // flushed by the tests themselves
+        "app.alerts.flush-interval=1h"
+})
+class LowStockMonitorTests {
+
+    @Autowired
+    private LowStockMonitor lowStockMonitor;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void alertsOncePerThresholdCrossing() {
+        Product product = new Product("Low stock SKU", 1000, 8);
+        product.setReorderThreshold(5);
+        Long id = productService.createProduct(product).getId();
+
+        transactionService.createSale(id, 3, "to the threshold");
+        lowStockMonitor.flush();
+        assertTrue(lowStockMonitor.getLowStockProductIds().contains(id));
+        transactionService.createSale(id, 1, "still low");
+        lowStockMonitor.flush();
+        transactionService.createSale(id, 4, "sold out");
+        lowStockMonitor.flush();
+        transactionService.createPurchase(id, 3, "partial restock");
+        lowStockMonitor.flush();
+        assertTrue(lowStockMonitor.getLowStockProductIds().contains(id));
+        transactionService.createPurchase(id, 10, "restock");
+        lowStockMonitor.flush();
+
+        assertFalse(lowStockMonitor.getLowStockProductIds().contains(id));
+        List<StockAlert> alerts = lowStockMonitor.getRecentAlerts(id, 10);
+        assertEquals(List.of(StockAlert.RESTOCKED, StockAlert.OUT_OF_STOCK, StockAlert.LOW_STOCK),
+                alerts.stream().map(StockAlert::getAlertType).toList());
+        assertEquals(5, alerts.get(2).getStock());
+        assertEquals(5, alerts.get(2).getReorderThreshold());
+        assertEquals("Low stock SKU", alerts.get(2).getProductName());
+    }
+
+    @Test
+    void reEvaluatesWhenTheThresholdChangesAndForgetsDeletedProducts() {
+        Product product = productService.createProduct(new Product("Threshold SKU", 500, 50));
+        lowStockMonitor.flush();
+        assertFalse(lowStockMonitor.getLowStockProductIds().contains(product.getId()));
+
+        Product details = new Product("Threshold SKU", 500, 50);
+        details.setReorderThreshold(60);
+        productService.updateProduct(product.getId(), details);
+        lowStockMonitor.flush();
+
+        assertTrue(lowStockMonitor.getLowStockProductIds().contains(product.getId()));
+        assertTrue(productService.getProductsBelowReorderThreshold().stream().anyMatch(p -> p.getId().equals(product.getId())));
+        assertEquals(StockAlert.LOW_STOCK, lowStockMonitor.getRecentAlerts(product.getId(), 1).get(0).getAlertType());
+
+        productService.deleteProduct(product.getId());
+        lowStockMonitor.flush();
+        assertFalse(lowStockMonitor.getLowStockProductIds().contains(product.getId()));
+        assertTrue(productRepository.findById(product.getId()).isEmpty());
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Product;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProductCacheTests {
+
+    private final ProductCache cache = new ProductCache(100, Duration.ofMinutes(10));
+
+    @Test
+    void loadRacingAnEvictionIsNotCached() {
+        AtomicInteger loads = new AtomicInteger();
+        Product stale = product(1L, "Kopi", 50);
+
+        // the writer evicts (post-commit) while the reader is still holding the row it read before the commit
+        cache.getById(1L, id -> {
+            loads.incrementAndGet();
+            cache.evict(id);
+            return Optional.of(stale);
+        });
+        Product fresh = product(1L, "Kopi", 48);
+        Optional<Product> reloaded = cache.getById(1L, id -> {
+            loads.incrementAndGet();
+            return Optional.of(fresh);
+        });
+
+        assertEquals(2, loads.get());
+        assertEquals(48, reloaded.orElseThrow().getStock());
+    }
+
+    @Test
+    void viewLoadRacingAnEvictionIsNotCached() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getView(ProductCache.IN_STOCK, () -> {
+            loads.incrementAndGet();
+            cache.evict(1L);
+            return List.of(product(1L, "Kopi", 1));
+        });
+        List<Product> reloaded = cache.getView(ProductCache.IN_STOCK, () -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+
+        assertEquals(2, loads.get());
+        assertEquals(0, reloaded.size());
+    }
+
+    @Test
+    void undisturbedLoadIsCached() {
+        AtomicInteger loads = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            cache.getById(2L, id -> {
+                loads.incrementAndGet();
+                return Optional.of(product(2L, "Teh", 10));
+            });
+        }
+
+        assertEquals(1, loads.get());
+    }
+
+    private static Product product(Long id, String name, int stock) {
+        Product product = new Product(name, 1000, stock);
+        product.setId(id);
+        return product;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ProductImportReport;
+import com.example.demo.model.Product;
+import com.example.demo.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:import_db",
+        "app.import.products.chunk-size=100",
+        "app.import.products.max-reported-errors=5"
+})
+class ProductImportServiceTests {
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void createsNewProductsAndUpdatesExistingOnesAcrossChunks() throws Exception {
+        Product existing = productRepository.save(new Product("Import existing", 100, 1));
+        StringBuilder csv = new StringBuilder("\uFEFFstock,Name,price,category\r\n");
+        for (int i = 0; i < 250; i++) {
+            csv.append(i).append(",Import item ").append(i).append(',').append(1000 + i).append(",snacks\r\n");
+        }
+        csv.append("7,\"Import, \"\"quoted\"\"\",1500,\n");
+        csv.append("\n");
+        csv.append("9,Import existing,120,\n");
+        // a repeat inside the same chunk: the later row wins
+        csv.append("3,Import item 249,2000,\n");
+
+        ProductImportReport report = productImportService.importCsv(stream(csv.toString()));
+
+        assertEquals(253, report.getRowsRead());
+        assertEquals(251, report.getCreated());
+        assertEquals(2, report.getUpdated());
+        assertEquals(0, report.getFailed());
+        Product updated = productRepository.findById(existing.getId()).orElseThrow();
+        assertEquals(120, updated.getPrice());
+        assertEquals(9, updated.getStock());
+        assertEquals(2000, productRepository.findByName("Import item 249").orElseThrow().getPrice());
+        assertEquals(7, productRepository.findByName("Import, \"quoted\"").orElseThrow().getStock());
+        // new products are searchable as soon as their chunk commits
+        assertFalse(productService.searchProductsByName("Import item 17", 5, false).isEmpty());
+    }
+
+    @Test
+    void invalidRowsAreReportedWithTheirLineAndTheRestAreImported() throws Exception {
+        String csv = "name,price,stock\n"
+                + "Import valid,500,5\n"
+                + ",500,5\n"
+                + "Import bad price,abc,5\n"
+                + "Import negative stock,500,-1\n"
+                + "\"Import multi\nline\",500,5\n"
+                + "Import missing stock,500\n"
+                + "Import bad 1,x,1\n"
+                + "Import bad 2,x,1\n"
+                + "Import after,700,7\n";
+
+        ProductImportReport report = productImportService.importCsv(stream(csv));
+
+        assertEquals(9, report.getRowsRead());
+        assertEquals(3, report.getCreated());
+        assertEquals(6, report.getFailed());
+        assertEquals(5, report.getErrors().size());
+        assertTrue(report.isErrorsTruncated());
+        assertEquals(3, report.getErrors().get(0).getLine());
+        assertEquals("Import bad price", report.getErrors().get(1).getName());
+        assertEquals(8, report.getErrors().get(3).getLine());
+        assertTrue(productRepository.findByName("Import multi\nline").isPresent());
+        assertTrue(productRepository.findByName("Import after").isPresent());
+    }
+
+    @Test
+    void rejectsAHeaderWithoutTheRequiredColumns() {
+        assertThrows(IllegalArgumentException.class, () -> productImportService.importCsv(stream("name,cost\nKopi,1\n")));
+    }
+
+    private static ByteArrayInputStream stream(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
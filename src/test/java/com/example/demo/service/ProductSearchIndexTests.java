@@ -0,0 +1,69 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductSearchIndexTests {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex();
+        index.put(1L, "Kopi");
+        index.put(2L, "Kopi Susu");
+        index.put(3L, "Es Kopi Susu Gula Aren");
+        index.put(4L, "Teh Manis");
+        index.put(5L, "Susu Coklat");
+        index.put(6L, "Kerupuk Udang");
+    }
+
+    @Test
+    void ranksExactThenNamePrefixThenWordPrefix() {
+        assertEquals(List.of(1L, 2L, 3L), index.search("kopi", 10, false));
+        assertEquals(List.of(5L, 2L, 3L), index.search("SUSU", 10, false));
+    }
+
+    @Test
+    void findsInfixMatches() {
+        assertEquals(List.of(6L), index.search("rupuk", 10, false));
+        assertEquals(List.of(3L), index.search("gula are", 10, false));
+    }
+
+    @Test
+    void toleratesTyposOnlyWhenFuzzy() {
+        assertTrue(index.search("kopu", 10, false).isEmpty());
+        assertTrue(index.search("kopu", 10, true).contains(1L));
+        assertEquals(6L, index.search("kerupk", 10, true).get(0));
+        assertEquals(4L, index.search("the manis", 10, true).get(0));
+    }
+
+    @Test
+    void respectsLimit() {
+        assertEquals(List.of(1L, 2L), index.search("kopi", 2, true));
+    }
+
+    @Test
+    void followsRenamesAndDeletes() {
+        index.put(4L, "Teh Tarik");
+        assertFalse(index.search("manis", 10, false).contains(4L));
+        assertEquals(List.of(4L), index.search("tarik", 10, false));
+
+        index.delete(1L);
+        assertEquals(List.of(2L, 3L), index.search("kopi", 10, false));
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    void editDistanceCountsTranspositionsAsOneEdit() {
+        assertEquals(1, ProductSearchIndex.editDistance("teh", "the", 2));
+        assertEquals(2, ProductSearchIndex.editDistance("kopi", "kapu", 2));
+        assertEquals(3, ProductSearchIndex.editDistance("kopi", "susu coklat", 2));
+    }
+}
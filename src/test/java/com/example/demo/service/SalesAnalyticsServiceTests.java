@@ -0,0 +1,125 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ProductSales;
+import com.example.demo.dto.SalesBucket;
+import com.example.demo.model.Product;
+import com.example.demo.model.Transaction;
+import com.example.demo.model.TransactionRollup;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:analytics_db")
+class SalesAnalyticsServiceTests {
+
+    private static final LocalDateTime MAY_1 = LocalDateTime.of(2024, 5, 1, 0, 0);
+
+    @Autowired
+    private SalesAnalyticsService salesAnalyticsService;
+
+    @Autowired
+    private TransactionTotalsService transactionTotalsService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private static Product kopi;
+    private static Product teh;
+    private static Product gula;
+
+    @BeforeEach
+    void seed() {
+        if (kopi != null) {
+            return;
+        }
+        kopi = productRepository.save(new Product("Analytics Kopi", 100, 50));
+        teh = productRepository.save(new Product("Analytics Teh", 200, 50));
+        gula = productRepository.save(new Product("Analytics Gula", 300, 50));
+        productRepository.save(new Product("Analytics sold out", 300, 0));
+
+        transactionRepository.saveAll(List.of(
+                transaction(kopi, 2, "SALE", MAY_1.withHour(10).withMinute(15)),
+                transaction(teh, 1, "SALE", MAY_1.withHour(10).withMinute(50)),
+                transaction(kopi, 3, "SALE", MAY_1.plusDays(1).withHour(9).withMinute(30)),
+                transaction(kopi, 10, "PURCHASE", MAY_1.plusDays(1).withHour(12)),
+                transaction(teh, 5, "SALE", MAY_1.plusDays(2).withHour(23).withMinute(59))));
+        transactionTotalsService.rebuild();
+    }
+
+    @Test
+    void splitsARangeIntoRawEdgesHourBucketsAndDayBuckets() {
+        List<SalesAnalyticsService.Segment> segments = SalesAnalyticsService.plan(
+                MAY_1.withHour(10).withMinute(30), MAY_1.plusDays(2).withHour(12).withMinute(5), true);
+
+        assertEquals(List.of(
+                new SalesAnalyticsService.Segment(SalesAnalyticsService.RAW, MAY_1.withHour(10).withMinute(30), MAY_1.withHour(11)),
+                new SalesAnalyticsService.Segment(TransactionRollup.HOUR, MAY_1.withHour(11), MAY_1.plusDays(1)),
+                new SalesAnalyticsService.Segment(TransactionRollup.DAY, MAY_1.plusDays(1), MAY_1.plusDays(2)),
+                new SalesAnalyticsService.Segment(TransactionRollup.HOUR, MAY_1.plusDays(2), MAY_1.plusDays(2).withHour(12)),
+                new SalesAnalyticsService.Segment(SalesAnalyticsService.RAW, MAY_1.plusDays(2).withHour(12), MAY_1.plusDays(2).withHour(12).withMinute(5))),
+                segments);
+        assertEquals(1, SalesAnalyticsService.plan(MAY_1.withMinute(5), MAY_1.withMinute(55), true).size());
+    }
+
+    @Test
+    void dailySeriesCombinesRollupsWithRawEdgesAndIncludesEmptyDays() {
+        List<SalesBucket> series = salesAnalyticsService.getSalesSeries(SalesAnalyticsService.DAY,
+                MAY_1.withHour(10).withMinute(30), MAY_1.plusDays(2).withHour(12), null);
+
+        assertEquals(3, series.size());
+        assertEquals(MAY_1, series.get(0).getBucketStart());
+        // the 10:15 sale is before the range start
+        assertEquals(1, series.get(0).getSalesQuantity());
+        assertEquals(0, new BigDecimal("200").compareTo(series.get(0).getSalesAmount()));
+        assertEquals(3, series.get(1).getSalesQuantity());
+        assertEquals(10, series.get(1).getPurchaseQuantity());
+        assertEquals(0, series.get(2).getSalesCount());
+    }
+
+    @Test
+    void hourlySeriesCanBeLimitedToOneProduct() {
+        List<SalesBucket> series = salesAnalyticsService.getSalesSeries(SalesAnalyticsService.HOUR,
+                MAY_1.withHour(10), MAY_1.withHour(12), kopi.getId());
+
+        assertEquals(2, series.size());
+        assertEquals(2, series.get(0).getSalesQuantity());
+        assertEquals(0, series.get(1).getSalesQuantity());
+    }
+
+    @Test
+    void ranksTopSellersAndSlowMovers() {
+        LocalDateTime end = MAY_1.plusDays(3);
+
+        List<ProductSales> top = salesAnalyticsService.getTopProducts(MAY_1, end, SalesAnalyticsService.QUANTITY, 2);
+        assertEquals(List.of(teh.getId(), kopi.getId()), top.stream().map(ProductSales::getProductId).toList());
+        assertEquals(6, top.get(0).getQuantity());
+        assertEquals("Analytics Teh", top.get(0).getProductName());
+
+        List<ProductSales> byRevenue = salesAnalyticsService.getTopProducts(MAY_1, end, SalesAnalyticsService.REVENUE, 1);
+        assertEquals(teh.getId(), byRevenue.get(0).getProductId());
+
+        // unsold first, sold-out products skipped, then least sold
+        List<ProductSales> slow = salesAnalyticsService.getSlowMovers(MAY_1, end, 3);
+        assertEquals(List.of(gula.getId(), kopi.getId(), teh.getId()), slow.stream().map(ProductSales::getProductId).toList());
+        assertEquals(0, slow.get(0).getQuantity());
+    }
+
+    private static Transaction transaction(Product product, int quantity, String type, LocalDateTime createdAt) {
+        Transaction transaction = new Transaction(product, quantity,
+                BigDecimal.valueOf((long) product.getPrice() * quantity), type, "analytics test");
+        transaction.setCreatedAt(createdAt);
+        return transaction;
+    }
+}
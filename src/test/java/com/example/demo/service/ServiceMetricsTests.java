@@ -0,0 +1,62 @@
+package com.example.demo.service;
+
+import com.example.demo.exception.InsufficientStockException;
+import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.model.Product;
+import com.example.demo.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ServiceMetricsTests {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void saleCallsAreTimedWithOutcome() {
+        Product product = productRepository.save(new Product("Metered SKU " + System.nanoTime(), 1000, 2));
+        long succeeded = count("createSale", "success");
+        long insufficient = count("createSale", "insufficient_stock");
+        long notFound = count("createSale", "not_found");
+
+        transactionService.createSale(product.getId(), 2, "metrics test");
+        assertThrows(InsufficientStockException.class,
+                () -> transactionService.createSale(product.getId(), 1, "metrics test"));
+        assertThrows(ResourceNotFoundException.class,
+                () -> transactionService.createSale(Long.MAX_VALUE, 1, "metrics test"));
+
+        assertEquals(succeeded + 1, count("createSale", "success"));
+        assertEquals(insufficient + 1, count("createSale", "insufficient_stock"));
+        assertEquals(notFound + 1, count("createSale", "not_found"));
+    }
+
+    @Test
+    void pageCallsRecordRowsReturned() {
+        transactionService.getTransactions(null, 5);
+
+        assertTrue(meterRegistry.get("kasir.service.rows")
+                .tags("service", "TransactionService", "method", "getTransactions")
+                .summary().count() > 0);
+    }
+
+    private long count(String method, String outcome) {
+        Timer timer = meterRegistry.find("kasir.service.calls")
+                .tags("service", "TransactionService", "method", method, "outcome", outcome)
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
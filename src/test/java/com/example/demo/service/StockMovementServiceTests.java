@@ -0,0 +1,119 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.StockDrift;
+import com.example.demo.exception.InsufficientStockException;
+import com.example.demo.model.Product;
+import com.example.demo.model.StockMovement;
+import com.example.demo.model.Transaction;
+import com.example.demo.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:stock_ledger_db",
+        "app.stock.snapshot-lag=0s"
+})
+class StockMovementServiceTests {
+
+    @Autowired
+    private StockMovementService stockMovementService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void everyStockChangeIsInTheLedger() {
+        Long id = productService.createProduct(new Product("Ledger SKU", 1000, 20)).getId();
+        Long other = productService.createProduct(new Product("Ledger SKU 2", 1000, 5)).getId();
+
+        Transaction sale = transactionService.createSale(id, 5, "sale");
+        transactionService.createPurchase(id, 8, "purchase");
+        productService.updateStock(id, -2);
+
+        Transaction moved = new Transaction();
+        moved.setProduct(productRepository.findById(other).orElseThrow());
+        moved.setQuantity(3);
+        moved.setTotalPrice(sale.getTotalPrice());
+        moved.setTransactionType("SALE");
+        transactionService.updateTransaction(sale.getId(), moved);
+
+        assertEquals(26, stock(id));
+        assertEquals(2, stock(other));
+        assertEquals(26, stockMovementService.getStockAsOf(id, null).getStock());
+        assertEquals(2, stockMovementService.getStockAsOf(other, null).getStock());
+
+        transactionService.deleteTransaction(sale.getId());
+        assertEquals(5, stock(other));
+        assertEquals(List.of(StockMovement.REVERSAL, StockMovement.SALE, StockMovement.OPENING),
+                stockMovementService.getMovements(other, 10).stream().map(StockMovement::getReason).toList());
+        assertTrue(stockMovementService.audit().stream().noneMatch(drift -> drift.getProductId().equals(id)
+                || drift.getProductId().equals(other)));
+    }
+
+    @Test
+    void deletingAPurchaseThatWasSoldFails() {
+        Long id = productService.createProduct(new Product("Ledger sold-through SKU", 1000, 0)).getId();
+        Transaction purchase = transactionService.createPurchase(id, 4, "purchase");
+        transactionService.createSale(id, 3, "sale");
+
+        assertThrows(InsufficientStockException.class, () -> transactionService.deleteTransaction(purchase.getId()));
+        assertEquals(1, stock(id));
+        assertEquals(1, stockMovementService.getStockAsOf(id, null).getStock());
+    }
+
+    @Test
+    void answersAsOfFromSnapshots() throws InterruptedException {
+        Long id = productService.createProduct(new Product("Ledger snapshot SKU", 1000, 10)).getId();
+        transactionService.createSale(id, 4, "before snapshot");
+        Thread.sleep(5);
+        assertTrue(stockMovementService.takeSnapshots() >= 1);
+        Thread.sleep(5);
+        LocalDateTime between = LocalDateTime.now();
+        Thread.sleep(5);
+        transactionService.createSale(id, 1, "after snapshot");
+
+        assertEquals(6, stockMovementService.getStockAsOf(id, between).getStock());
+        assertEquals(5, stockMovementService.getStockAsOf(id, null).getStock());
+        Thread.sleep(5);
+        stockMovementService.takeSnapshots();
+        assertEquals(6, stockMovementService.getStockAsOf(id, between).getStock());
+        assertEquals(5, stockMovementService.getStockAsOf(id, null).getStock());
+    }
+
+    @Test
+    void reconcilesStockChangedBehindTheLedger() {
+        Long id = productService.createProduct(new Product("Ledger drift SKU", 1000, 10)).getId();
+        jdbcTemplate.update("UPDATE products SET stock = 13 WHERE id = ?", id);
+
+        List<StockDrift> drift = stockMovementService.audit().stream()
+                .filter(d -> d.getProductId().equals(id)).toList();
+        assertEquals(1, drift.size());
+        assertEquals(3, drift.get(0).getDifference());
+
+        assertTrue(stockMovementService.reconcile().stream().anyMatch(d -> d.getProductId().equals(id)));
+        assertTrue(stockMovementService.audit().stream().noneMatch(d -> d.getProductId().equals(id)));
+        assertEquals(StockMovement.RECONCILE, stockMovementService.getMovements(id, 1).get(0).getReason());
+    }
+
+    private int stock(Long id) {
+        return productRepository.findById(id).orElseThrow().getStock();
+    }
+}
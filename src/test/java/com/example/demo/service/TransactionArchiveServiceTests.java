@@ -0,0 +1,149 @@
+package com.example.demo.service;
+
+import com.example.demo.DemoApplication;
+import com.example.demo.dto.CursorPage;
+import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.model.Product;
+import com.example.demo.model.Transaction;
+import com.example.demo.repository.ArchivedTransactionRepository;
+import com.example.demo.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + TransactionArchiveServiceTests.DB_URL,
+        "app.transactions.archive.retain=30d",
+        "app.transactions.archive.batch-size=2"
+})
+class TransactionArchiveServiceTests {
+
+    static final String DB_URL = "jdbc:h2:mem:archive_db;DB_CLOSE_DELAY=-1";
+
+    private static final LocalDateTime OLD = LocalDateTime.now().minusDays(90).truncatedTo(ChronoUnit.SECONDS);
+
+    @Autowired
+    private TransactionArchiveService transactionArchiveService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionTotalsService transactionTotalsService;
+
+    @Autowired
+    private TransactionExportService transactionExportService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ArchivedTransactionRepository archivedTransactionRepository;
+
+    private static final List<Long> oldIds = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        if (!oldIds.isEmpty()) {
+            return;
+        }
+        Long productId = productService.createProduct(new Product("Archive SKU", 1000, 100)).getId();
+        for (int i = 0; i < 5; i++) {
+            oldIds.add(transactionService.createTransaction(sale(productId, OLD.plusHours(i))).getId());
+        }
+        for (int i = 0; i < 2; i++) {
+            transactionService.createSale(productId, 1, "recent " + i);
+        }
+        assertEquals(5, transactionArchiveService.archive());
+    }
+
+    @Test
+    void movesOldTransactionsOutOfTheHotTable() {
+        assertEquals(2, transactionRepository.count());
+        assertEquals(5, archivedTransactionRepository.count());
+        assertEquals(0, transactionArchiveService.archive());
+        assertTrue(transactionTotalsService.reconcile());
+        assertEquals(7, transactionService.getTransactionCountByType("SALE"));
+    }
+
+    @Test
+    void dateRangeReadsSpanHotAndArchive() throws Exception {
+        LocalDateTime start = OLD.minusDays(1);
+        LocalDateTime end = LocalDateTime.now().plusDays(1);
+        List<Transaction> all = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<Transaction> page = transactionService.getTransactionsByDateRange(start, end, cursor, 3);
+            all.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(7, all.size());
+        assertEquals(oldIds.get(4), all.get(2).getId());
+        assertEquals(oldIds.get(0), all.get(6).getId());
+        assertEquals("Archive SKU", all.get(6).getProduct().getName());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(7, transactionExportService.export(start, end, TransactionExportService.CSV, out));
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertTrue(lines[1].startsWith(oldIds.get(0) + ","), lines[1]);
+        assertTrue(lines[7].endsWith(",recent 1"), lines[7]);
+    }
+
+    @Test
+    void archivedTransactionsCanBeReadButNotChanged() {
+        Long id = oldIds.get(0);
+        assertEquals(OLD, transactionService.getTransactionById(id).orElseThrow().getCreatedAt());
+        assertThrows(ResourceNotFoundException.class, () -> transactionService.deleteTransaction(id));
+    }
+
+    @Test
+    void raisingRetainStillReadsRowsArchivedUnderTheOldHorizon() throws Exception {
+        // the archive was filled with retain=30d; a restart with 120d puts the horizon before those rows
+        try (ConfigurableApplicationContext restarted = new SpringApplicationBuilder(DemoApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + DB_URL,
+                        "--app.transactions.archive.retain=120d",
+                        "--app.transactions.archive.cron=-",
+                        "--app.totals.reconcile-cron=-")) {
+            TransactionArchiveService archive = restarted.getBean(TransactionArchiveService.class);
+            assertTrue(archive.getHorizon().isBefore(OLD));
+            assertEquals(OLD.plusHours(4), archive.getArchivedThrough());
+
+            LocalDateTime start = OLD.minusDays(1);
+            LocalDateTime end = LocalDateTime.now().plusDays(1);
+            CursorPage<Transaction> page = restarted.getBean(TransactionService.class)
+                    .getTransactionsByDateRange(start, end, null, 10);
+            assertEquals(7, page.getItems().size());
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            assertEquals(7, restarted.getBean(TransactionExportService.class).export(start, end, TransactionExportService.CSV, out));
+        }
+    }
+
+    private static Transaction sale(Long productId, LocalDateTime createdAt) {
+        Product product = new Product();
+        product.setId(productId);
+        Transaction transaction = new Transaction(product, 1, BigDecimal.valueOf(1000), "SALE", "old");
+        transaction.setCreatedAt(createdAt);
+        return transaction;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.CheckoutRequest;
+import com.example.demo.dto.TransactionRequest;
+import com.example.demo.exception.InsufficientStockException;
+import com.example.demo.model.Product;
+import com.example.demo.model.Transaction;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:checkout_db")
+class TransactionCheckoutTests {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    void basketWithOneShortLineRollsBackEveryLine() {
+        Long coffee = productRepository.save(new Product("Checkout coffee", 2500, 10)).getId();
+        Long tea = productRepository.save(new Product("Checkout tea", 1500, 10)).getId();
+        Long sugar = productRepository.save(new Product("Checkout sugar", 500, 1)).getId();
+
+        CheckoutRequest request = basket(new TransactionRequest(coffee, 2), new TransactionRequest(tea, 3),
+                new TransactionRequest(sugar, 2));
+        assertThrows(InsufficientStockException.class, () -> transactionService.checkout(request));
+
+        assertEquals(10, stock(coffee));
+        assertEquals(10, stock(tea));
+        assertEquals(1, stock(sugar));
+        assertTrue(transactionRepository.findByProductId(coffee).isEmpty());
+        assertTrue(transactionRepository.findByProductId(tea).isEmpty());
+    }
+
+    @Test
+    void basketSellsEveryLineAtTheProductPrice() {
+        Long coffee = productRepository.save(new Product("Checkout espresso", 2500, 10)).getId();
+        Long tea = productRepository.save(new Product("Checkout green tea", 1500, 10)).getId();
+
+        List<Transaction> sold = transactionService.checkout(basket(new TransactionRequest(coffee, 2),
+                new TransactionRequest(tea, 1), new TransactionRequest(coffee, 1)));
+
+        assertEquals(3, sold.size());
+        assertEquals(0, new BigDecimal(5000).compareTo(sold.get(0).getTotalPrice()));
+        assertEquals(7, stock(coffee));
+        assertEquals(9, stock(tea));
+    }
+
+    private static CheckoutRequest basket(TransactionRequest... items) {
+        CheckoutRequest request = new CheckoutRequest();
+        request.setItems(List.of(items));
+        request.setDescription("checkout test");
+        return request;
+    }
+
+    private int stock(Long id) {
+        return productRepository.findById(id).orElseThrow().getStock();
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Product;
+import com.example.demo.model.Transaction;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:export_db")
+class TransactionExportServiceTests {
+
+    // more than two fetch-size chunks, so the export clears the persistence context mid-stream
+    private static final int ROWS = 1_203;
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 1, 0, 0);
+
+    @Autowired
+    private TransactionExportService transactionExportService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @BeforeEach
+    void seed() {
+        if (transactionRepository.count() > 0) {
+            return;
+        }
+        Product product = productRepository.save(new Product("Kopi, \"Robusta\"", 2500, 10_000));
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            Transaction transaction = new Transaction(product, 1, BigDecimal.valueOf(2500), "SALE", i == 0 ? "=SUM(A1)" : "row " + i);
+            transaction.setCreatedAt(START.plusMinutes(i));
+            transactions.add(transaction);
+        }
+        // outside the exported range
+        Transaction later = new Transaction(product, 1, BigDecimal.valueOf(2500), "SALE", "later");
+        later.setCreatedAt(START.plusYears(1));
+        transactions.add(later);
+        transactionRepository.saveAll(transactions);
+    }
+
+    @Test
+    void csvExportStreamsEveryRowInRangeOldestFirst() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = transactionExportService.export(START, START.plusDays(30), TransactionExportService.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(ROWS, written);
+        assertEquals(ROWS + 1, lines.length);
+        assertTrue(lines[0].startsWith("id,created_at,"));
+        assertTrue(lines[1].contains(",\"Kopi, \"\"Robusta\"\"\","), lines[1]);
+        assertTrue(lines[1].endsWith(",'=SUM(A1)"), lines[1]);
+        assertTrue(lines[ROWS].endsWith(",row " + (ROWS - 1)), lines[ROWS]);
+    }
+
+    @Test
+    void ndjsonExportWritesOneTransactionPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = transactionExportService.export(START, START.plusDays(30), TransactionExportService.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(ROWS, written);
+        assertEquals(ROWS, lines.length);
+        JsonNode first = jsonMapper.readTree(lines[0]);
+        assertEquals("Kopi, \"Robusta\"", first.get("product").get("name").asString());
+        assertEquals("row " + (ROWS - 1), jsonMapper.readTree(lines[ROWS - 1]).get("description").asString());
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.TransactionResponse;
+import com.example.demo.model.Product;
+import com.example.demo.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statement_count_db",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // statistics are per session factory; keep the low-stock monitor's background reads out of the counts
+        "app.alerts.flush-interval=1h"
+})
+class TransactionQueryStatementCountTests {
+
+    private static final int PRODUCTS = 6;
+    private static final int SALES_PER_PRODUCT = 4;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = productRepository.save(new Product("N+1 Product " + i + " " + System.nanoTime(), 1000 + i, 100));
+            for (int j = 0; j < SALES_PER_PRODUCT; j++) {
+                transactionService.createSale(product.getId(), 1, "statement count");
+            }
+        }
+    }
+
+    @Test
+    void transactionPageIsOneStatement() {
+        List<TransactionResponse> page = countStatements(1, () -> transactionService.getTransactions(null, 100))
+                .getItems().stream().map(TransactionResponse::from).toList();
+        assertTrue(page.size() >= PRODUCTS * SALES_PER_PRODUCT);
+        page.forEach(response -> assertNotNull(response.getProduct().getName()));
+    }
+
+    @Test
+    void filteredAndRecentReadsAreOneStatementEach() {
+        countStatements(1, () -> transactionService.getTransactionsByType("SALE", null, 100)
+                .map(TransactionResponse::from));
+        countStatements(1, () -> transactionService.getTransactionsByDateRange(
+                LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1), null, 100)
+                .map(TransactionResponse::from));
+        countStatements(1, () -> transactionService.getRecentTransactions().stream()
+                .map(TransactionResponse::from).toList());
+    }
+
+    private <T> T countStatements(long expected, Supplier<T> query) {
+        statistics.clear();
+        T result = query.get();
+        assertEquals(expected, statistics.getPrepareStatementCount());
+        return result;
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Product;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class TransactionServiceConcurrencyTests {
+
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS = 400;
+    private static final int INITIAL_STOCK = 150;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    void concurrentSalesNeverOversell() throws Exception {
+        Product product = productRepository.save(new Product("Hot SKU " + System.nanoTime(), 2500, INITIAL_STOCK));
+        Long productId = product.getId();
+
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < ATTEMPTS; i++) {
+                int quantity = 1 + i % 3;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        transactionService.createSale(productId, quantity, "concurrency test");
+                        sold.addAndGet(quantity);
+                    } catch (RuntimeException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int remaining = productRepository.findById(productId).orElseThrow().getStock();
+        int recorded = transactionRepository.findByProductAndTransactionType(productId, "SALE").stream()
+                .mapToInt(t -> t.getQuantity())
+                .sum();
+
+        assertTrue(remaining >= 0, "stock went negative: " + remaining);
+        assertTrue(rejected.get() > 0, "expected some sales to be rejected once stock ran out");
+        assertEquals(INITIAL_STOCK - sold.get(), remaining);
+        assertEquals(sold.get(), recorded);
+    }
+
+    @Test
+    void purchaseAndSaleStayConsistentUnderContention() throws Exception {
+        Product product = productRepository.save(new Product("Restocked SKU " + System.nanoTime(), 1000, 0));
+        Long productId = product.getId();
+
+        AtomicInteger sold = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < ATTEMPTS; i++) {
+                boolean purchase = i % 2 == 0;
+                futures.add(executor.submit(() -> {
+                    if (purchase) {
+                        transactionService.createPurchase(productId, 1, "restock");
+                    } else {
+                        try {
+                            transactionService.createSale(productId, 1, "sale");
+                            sold.incrementAndGet();
+                        } catch (RuntimeException e) {
+                            // sold out at this instant
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int remaining = productRepository.findById(productId).orElseThrow().getStock();
+        assertEquals(ATTEMPTS / 2 - sold.get(), remaining);
+    }
+}
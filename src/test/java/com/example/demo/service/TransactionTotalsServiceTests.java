@@ -0,0 +1,143 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.CheckoutRequest;
+import com.example.demo.dto.TransactionRequest;
+import com.example.demo.model.Product;
+import com.example.demo.model.Transaction;
+import com.example.demo.model.TransactionRollup;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.TransactionRepository;
+import com.example.demo.repository.TransactionRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class TransactionTotalsServiceTests {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionTotalsService transactionTotalsService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionRollupRepository transactionRollupRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void runningTotalsMatchNaiveSums() {
+        Product coffee = productRepository.save(new Product("Totals Coffee " + System.nanoTime(), 12000, 100));
+        Product tea = productRepository.save(new Product("Totals Tea " + System.nanoTime(), 8000, 100));
+
+        transactionService.createSale(coffee.getId(), 3, "sale");
+        transactionService.createPurchase(tea.getId(), 10, "restock");
+        Transaction toUpdate = transactionService.createSale(tea.getId(), 2, "sale");
+        Transaction toDelete = transactionService.createPurchase(coffee.getId(), 5, "restock");
+
+        CheckoutRequest basket = new CheckoutRequest();
+        basket.setItems(List.of(new TransactionRequest(coffee.getId(), 1), new TransactionRequest(tea.getId(), 4)));
+        transactionService.checkout(basket);
+
+        Transaction details = new Transaction();
+        details.setProduct(tea);
+        details.setQuantity(7);
+        details.setTotalPrice(new BigDecimal("56000.00"));
+        details.setTransactionType("SALE");
+        transactionService.updateTransaction(toUpdate.getId(), details);
+        transactionService.deleteTransaction(toDelete.getId());
+
+        assertConsistentWithTransactionsTable();
+    }
+
+    @Test
+    void rebuildReproducesIncrementalTotals() {
+        Product product = productRepository.save(new Product("Totals Rebuild " + System.nanoTime(), 5000, 50));
+        transactionService.createSale(product.getId(), 4, "sale");
+        transactionService.createPurchase(product.getId(), 6, "restock");
+
+        transactionTotalsService.rebuild();
+
+        assertConsistentWithTransactionsTable();
+        assertTrue(transactionTotalsService.reconcile());
+    }
+
+    @Test
+    void rebuildWaitsForTransactionsThatAlreadyRecordedTotals() throws Exception {
+        Product product = productRepository.save(new Product("Totals Race " + System.nanoTime(), 3000, 50));
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        CountDownLatch recorded = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> sale = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                transactionService.createSale(product.getId(), 2, "in flight during rebuild");
+                recorded.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertTrue(recorded.await(10, TimeUnit.SECONDS));
+
+            Future<?> rebuild = executor.submit(() -> transactionTotalsService.rebuild());
+            Thread.sleep(300);
+            assertFalse(rebuild.isDone());
+
+            release.countDown();
+            sale.get(10, TimeUnit.SECONDS);
+            rebuild.get(10, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+
+        assertConsistentWithTransactionsTable();
+        assertTrue(transactionTotalsService.reconcile());
+    }
+
+    private void assertConsistentWithTransactionsTable() {
+        BigDecimal naiveSales = orZero(transactionRepository.sumTotalSales());
+        BigDecimal naivePurchases = orZero(transactionRepository.sumTotalPurchases());
+
+        assertEquals(0, naiveSales.compareTo(transactionService.getTotalSales()));
+        assertEquals(0, naivePurchases.compareTo(transactionService.getTotalPurchases()));
+        assertEquals(0, naiveSales.subtract(naivePurchases).compareTo(transactionService.getNetRevenue()));
+        assertEquals(transactionRepository.countByTransactionType("SALE"), transactionService.getTransactionCountByType("SALE"));
+        assertEquals(transactionRepository.countByTransactionType("PURCHASE"), transactionService.getTransactionCountByType("PURCHASE"));
+
+        for (String granularity : List.of(TransactionRollup.HOUR, TransactionRollup.DAY)) {
+            assertEquals(0, naiveSales.compareTo(transactionRollupRepository.sumTotalAmount(granularity, "SALE")));
+            assertEquals(0, naivePurchases.compareTo(transactionRollupRepository.sumTotalAmount(granularity, "PURCHASE")));
+            assertEquals(transactionRepository.countByTransactionType("SALE"),
+                    transactionRollupRepository.sumTransactionCount(granularity, "SALE"));
+        }
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
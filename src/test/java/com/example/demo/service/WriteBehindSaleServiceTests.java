@@ -0,0 +1,186 @@
+package com.example.demo.service;
+
+import com.example.demo.DemoApplication;
+import com.example.demo.dto.ProvisionalSale;
+import com.example.demo.model.Product;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + WriteBehindSaleServiceTests.DB_URL,
+        "app.sales.write-behind.enabled=true",
+        "app.sales.write-behind.journal=target/write-behind-test/sales.journal",
+        "app.sales.write-behind.batch-size=25"
+})
+class WriteBehindSaleServiceTests {
+
+    static final String DB_URL = "jdbc:h2:mem:write_behind_db;DB_CLOSE_DELAY=-1";
+
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS = 400;
+    private static final int INITIAL_STOCK = 150;
+
+    @Autowired
+    private WriteBehindSaleService writeBehindSaleService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    void concurrentSalesNeverOversellAndAreAllWritten() throws Exception {
+        Long productId = productRepository.save(new Product("Write-behind SKU " + System.nanoTime(), 2500, INITIAL_STOCK)).getId();
+
+        AtomicInteger sold = new AtomicInteger();
+        List<Long> provisionalIds = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Long>> futures = new ArrayList<>();
+            for (int i = 0; i < ATTEMPTS; i++) {
+                int quantity = 1 + i % 3;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        ProvisionalSale sale = writeBehindSaleService.acceptSale(productId, quantity, "write-behind test");
+                        sold.addAndGet(quantity);
+                        return sale.getProvisionalId();
+                    } catch (RuntimeException e) {
+                        return null;
+                    }
+                }));
+            }
+            start.countDown();
+            for (Future<Long> future : futures) {
+                Long id = future.get(30, TimeUnit.SECONDS);
+                if (id != null) {
+                    provisionalIds.add(id);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        awaitWritten(provisionalIds);
+
+        assertEquals(INITIAL_STOCK, sold.get());
+        assertEquals(0, productRepository.findById(productId).orElseThrow().getStock());
+        for (Long id : provisionalIds) {
+            assertEquals(ProvisionalSale.COMMITTED, writeBehindSaleService.getStatus(id).getStatus());
+        }
+        assertEquals(provisionalIds.size(), transactionRepository.findExistingJournalIds(provisionalIds).size());
+    }
+
+    @Test
+    void journaledSalesMissingFromTheDatabaseAreReplayedAtStartup() throws Exception {
+        Product product = productRepository.save(new Product("Replay SKU " + System.nanoTime(), 1000, 20));
+        Path journalPath = Path.of("target/write-behind-test/replay-" + System.nanoTime() + ".journal");
+        Files.createDirectories(journalPath.getParent());
+        // as if the application crashed after acknowledging these sales but before writing them
+        try (SaleJournal journal = new SaleJournal(journalPath, false)) {
+            journal.append(new SaleJournal.Entry(900_001, product.getId(), 3, 1000, LocalDateTime.now(), "replayed\tone"));
+            journal.append(new SaleJournal.Entry(900_002, product.getId(), 4, 1000, LocalDateTime.now(), null));
+        }
+
+        try (ConfigurableApplicationContext restarted = new SpringApplicationBuilder(DemoApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + DB_URL,
+                        "--app.sales.write-behind.enabled=true",
+                        "--app.sales.write-behind.journal=" + journalPath,
+                        "--app.totals.reconcile-cron=-")) {
+            assertEquals(13, productRepository.findById(product.getId()).orElseThrow().getStock());
+            assertEquals("replayed\tone", transactionRepository.findByJournalId(900_001L).orElseThrow().getDescription());
+            assertTrue(transactionRepository.findByJournalId(900_002L).isPresent());
+            assertEquals(0, Files.size(journalPath));
+        }
+    }
+
+    @Test
+    void overLongDescriptionIsRefusedAndLaterSalesAreStillWritten() throws Exception {
+        Long productId = productRepository.save(new Product("Long description SKU " + System.nanoTime(), 1000, 10)).getId();
+
+        assertThrows(RuntimeException.class, () -> writeBehindSaleService.acceptSale(productId, 1, "x".repeat(256)));
+        ProvisionalSale sale = writeBehindSaleService.acceptSale(productId, 2, "x".repeat(255));
+        awaitWritten(List.of(sale.getProvisionalId()));
+
+        assertEquals(ProvisionalSale.COMMITTED, writeBehindSaleService.getStatus(sale.getProvisionalId()).getStatus());
+        assertEquals(8, productRepository.findById(productId).orElseThrow().getStock());
+    }
+
+    @Test
+    void journaledSaleTheDatabaseRefusesIsRejectedAtReplayWithoutBlockingTheOthers() throws Exception {
+        Product product = productRepository.save(new Product("Refused replay SKU " + System.nanoTime(), 1000, 20));
+        Path journalPath = Path.of("target/write-behind-test/refused-" + System.nanoTime() + ".journal");
+        Files.createDirectories(journalPath.getParent());
+        // written by a version that did not check the description before journaling
+        try (SaleJournal journal = new SaleJournal(journalPath, false)) {
+            journal.append(new SaleJournal.Entry(910_001, product.getId(), 2, 1000, LocalDateTime.now(), null));
+            journal.append(new SaleJournal.Entry(910_002, product.getId(), 3, 1000, LocalDateTime.now(), "x".repeat(300)));
+            journal.append(new SaleJournal.Entry(910_003, product.getId(), 4, 1000, LocalDateTime.now(), null));
+            journal.append(new SaleJournal.Entry(910_004, product.getId(), 500, 1000, LocalDateTime.now(), null));
+        }
+
+        try (ConfigurableApplicationContext restarted = new SpringApplicationBuilder(DemoApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + DB_URL,
+                        "--app.sales.write-behind.enabled=true",
+                        "--app.sales.write-behind.journal=" + journalPath,
+                        "--app.totals.reconcile-cron=-")) {
+            WriteBehindSaleService restartedService = restarted.getBean(WriteBehindSaleService.class);
+            assertEquals(14, productRepository.findById(product.getId()).orElseThrow().getStock());
+            assertTrue(transactionRepository.findByJournalId(910_001L).isPresent());
+            assertTrue(transactionRepository.findByJournalId(910_002L).isEmpty());
+            assertTrue(transactionRepository.findByJournalId(910_003L).isPresent());
+            assertEquals(ProvisionalSale.REJECTED, restartedService.getStatus(910_002L).getStatus());
+
+            ProvisionalSale sale = restartedService.acceptSale(product.getId(), 1, "after replay");
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (ProvisionalSale.PENDING.equals(restartedService.getStatus(sale.getProvisionalId()).getStatus())) {
+                assertTrue(System.nanoTime() < deadline, "sale accepted after replay was not written in time");
+                Thread.sleep(20);
+            }
+            assertEquals(13, productRepository.findById(product.getId()).orElseThrow().getStock());
+        }
+
+        // the rejection is in the database, not in the stopped context's memory
+        ProvisionalSale rejected = writeBehindSaleService.getStatus(910_002L);
+        assertEquals(ProvisionalSale.REJECTED, rejected.getStatus());
+        assertEquals(3, rejected.getQuantity());
+        assertTrue(rejected.getReason().startsWith("Could not be stored"), rejected.getReason());
+        assertTrue(writeBehindSaleService.getStatus(910_004L).getReason().startsWith("Insufficient stock"));
+    }
+
+    private void awaitWritten(List<Long> provisionalIds) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        for (Long id : provisionalIds) {
+            while (ProvisionalSale.PENDING.equals(writeBehindSaleService.getStatus(id).getStatus())) {
+                assertTrue(System.nanoTime() < deadline, "journaled sales were not written in time");
+                Thread.sleep(20);
+            }
+        }
+    }
+}